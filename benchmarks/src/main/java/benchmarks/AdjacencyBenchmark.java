@@ -0,0 +1,89 @@
+package benchmarks;
+
+import config.AdjacencyCounter;
+import config.BitBoard;
+import config.GameConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contagem das minas adjacentes: somas separáveis numa só thread e em faixas paralelas, comparadas com
+ * a contagem célula a célula que o {@code GameBoard} usava antes, com nove leituras verificadas por célula.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class AdjacencyBenchmark {
+    @Param({BoardSizes.STARTER, BoardSizes.PRO, BoardSizes.GURU, BoardSizes.LARGE, BoardSizes.HUGE, BoardSizes.GIANT,
+            BoardSizes.COLOSSAL})
+    public String size;
+
+    private int rows;
+    private int cols;
+    private BitBoard mines;
+    private byte[] counts;
+
+    @Setup
+    public void setUp() {
+        GameConfiguration settings = BoardSizes.parse(size);
+        rows = settings.rows();
+        cols = settings.cols();
+        int cells = rows * cols;
+        mines = new BitBoard(cells);
+        SplittableRandom random = new SplittableRandom(42);
+        for (int cell = 0; cell < cells; cell++) {
+            if (random.nextInt(cells) < settings.mines()) // Com a densidade da configuração
+                mines.set(cell);
+        }
+        counts = new byte[cells];
+    }
+
+    @Benchmark
+    public byte[] separable() {
+        AdjacencyCounter.count(mines, rows, cols, counts, false);
+        return counts;
+    }
+
+    @Benchmark
+    public byte[] parallelBands() {
+        AdjacencyCounter.count(mines, rows, cols, counts, true);
+        return counts;
+    }
+
+    /**
+     * Referência: a contagem célula a célula anterior.
+     */
+    @Benchmark
+    public byte[] perCell() {
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                int count = 0;
+                for (int i = -1; i <= 1; i++) {
+                    for (int j = -1; j <= 1; j++) {
+                        int r = row + i;
+                        int c = col + j;
+                        if (r >= 0 && r < rows && c >= 0 && c < cols && mines.get(r * cols + c))
+                            count++;
+                    }
+                }
+                counts[row * cols + col] = (byte) count;
+            }
+        }
+        return counts;
+    }
+}
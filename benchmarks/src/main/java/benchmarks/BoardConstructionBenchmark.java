@@ -0,0 +1,56 @@
+package benchmarks;
+
+import config.GameBoard;
+import config.GameConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construção de tabuleiros. {@code placeMines} e {@code calculateAdjacentMines} são privados, por isso
+ * são medidos pela diferença entre a construção com minas ({@link #eager()}) e sem minas ({@link #lazy()}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardConstructionBenchmark {
+    @Param({BoardSizes.STARTER, BoardSizes.PRO, BoardSizes.GURU, BoardSizes.LARGE, BoardSizes.HUGE, BoardSizes.GIANT})
+    public String size;
+
+    private GameConfiguration settings;
+    private long seed;
+
+    @Setup
+    public void setUp() {
+        settings = BoardSizes.parse(size);
+    }
+
+    /**
+     * Construção com colocação de minas e cálculo das minas adjacentes.
+     */
+    @Benchmark
+    public GameBoard eager() {
+        return new GameBoard(settings, seed++, false);
+    }
+
+    /**
+     * Só a construção; as minas ficam para o primeiro clique.
+     */
+    @Benchmark
+    public GameBoard lazy() {
+        return new GameBoard(settings, seed++, true);
+    }
+}
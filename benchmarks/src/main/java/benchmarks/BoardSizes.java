@@ -0,0 +1,40 @@
+package benchmarks;
+
+import Enums.Difficulty;
+import config.GameConfiguration;
+
+/**
+ * Tamanhos de tabuleiro usados pelos benchmarks: as dificuldades predefinidas e alguns tabuleiros grandes.
+ */
+final class BoardSizes {
+    /**
+     * Valores para {@code @Param}: o nome de uma {@link Difficulty} ou {@code linhasxcolunasxminas}.
+     */
+    static final String STARTER = "Starter";
+    static final String PRO = "Pro";
+    static final String GURU = "Guru";
+    static final String LARGE = "200x200x6000";
+    static final String HUGE = "1000x1000x150000";
+    static final String GIANT = "3000x3000x1350000";
+    static final String COLOSSAL = "10000x10000x15000000"; // Só para operações sobre o tabuleiro inteiro, sem o jogar
+
+    private BoardSizes() {
+    }
+
+    /**
+     * Converte o valor de um {@code @Param} numa configuração.
+     *
+     * @param size Nome da dificuldade ou {@code linhasxcolunasxminas}.
+     * @return Configuração do tabuleiro.
+     */
+    static GameConfiguration parse(String size) {
+        for (Difficulty difficulty : Difficulty.values()) {
+            if (difficulty.name().equals(size))
+                return difficulty.getSettings();
+        }
+        String[] parts = size.split("x");
+        if (parts.length != 3)
+            throw new IllegalArgumentException("Tamanho inválido: " + size);
+        return new GameConfiguration(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+    }
+}
@@ -0,0 +1,67 @@
+package benchmarks;
+
+import config.Coordinates;
+import config.GameBoard;
+import config.GameConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas feitas em cada jogada, sobre um tabuleiro perto do fim: só resta tapado cerca de 1%
+ * das células seguras, o pior caso para uma procura aleatória de células seguras.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LateGameBenchmark {
+    @Param({BoardSizes.STARTER, BoardSizes.PRO, BoardSizes.GURU, BoardSizes.LARGE, BoardSizes.HUGE, BoardSizes.GIANT})
+    public String size;
+
+    private GameBoard board;
+
+    @Setup
+    public void setUp() {
+        GameConfiguration settings = BoardSizes.parse(size);
+        board = new GameBoard(settings, 42, false);
+        int safeCells = settings.rows() * settings.cols() - settings.mines();
+        int target = Math.max(1, safeCells / 100);
+        for (int row = 0; row < settings.rows() && board.getStats().coveredSafeCells() > target; row++) {
+            for (int col = 0; col < settings.cols() && board.getStats().coveredSafeCells() > target; col++) {
+                if (!board.isMine(row, col))
+                    board.revealCell(row, col);
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean checkWin() {
+        return board.checkWin();
+    }
+
+    @Benchmark
+    public Coordinates randomSafeCoordinate() {
+        return board.getRandomSafeCoordinate();
+    }
+
+    /**
+     * Desenho do tabuleiro; nos tabuleiros grandes só a janela visível é desenhada.
+     */
+    @Benchmark
+    public String render() {
+        return board.toString();
+    }
+}
@@ -0,0 +1,57 @@
+package benchmarks;
+
+import config.GameBoard;
+import config.GameConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Propagação do {@code revealCell} a partir de uma célula sem minas à volta. Cada invocação usa um
+ * tabuleiro novo, construído fora da medição; nos tabuleiros pequenos o custo do próprio
+ * {@link Level#Invocation} pesa no resultado, nos grandes é desprezável.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RevealBenchmark {
+    @Param({BoardSizes.STARTER, BoardSizes.PRO, BoardSizes.GURU, BoardSizes.LARGE, BoardSizes.HUGE, BoardSizes.GIANT})
+    public String size;
+
+    private GameConfiguration settings;
+    private GameBoard board;
+    private long seed;
+
+    @Setup(Level.Trial)
+    public void setUpSettings() {
+        settings = BoardSizes.parse(size);
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpBoard() {
+        // A vizinhança da célula central não tem minas, por isso a revelação propaga-se
+        board = new GameBoard(settings, seed++, settings.rows() / 2, settings.cols() / 2);
+    }
+
+    /**
+     * Primeiro clique no centro do tabuleiro.
+     */
+    @Benchmark
+    public long floodFill() {
+        return board.revealCell(settings.rows() / 2, settings.cols() / 2);
+    }
+}
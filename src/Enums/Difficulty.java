@@ -46,6 +46,29 @@ public enum Difficulty {
         return map.get(difficulty);
     }
 
+    /**
+     * Retorna a dificuldade predefinida com a configuração indicada.
+     *
+     * @param settings Configuração do tabuleiro.
+     * @return Dificuldade correspondente, ou null se a configuração for personalizada.
+     */
+    public static Difficulty valueOfSettings(GameConfiguration settings) {
+        for (Difficulty difficulty : values()) {
+            if (difficulty.settings.equals(settings))
+                return difficulty;
+        }
+        return null;
+    }
+
+    /**
+     * Retorna o valor inteiro associado à dificuldade.
+     *
+     * @return Valor da dificuldade.
+     */
+    public int getValue() {
+        return value;
+    }
+
     /**
      * Verifica se uma dificuldade com o valor especificado existe.
      *
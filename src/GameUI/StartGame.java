@@ -1,6 +1,24 @@
 package GameUI;
 
+import Enums.Difficulty;
+import config.BatchRunner;
+import config.ChunkedGameBoard;
+import config.GameConfiguration;
 import config.GameManager;
+import config.LargeBoardGame;
+import config.MappedGameBoard;
+import metrics.Metrics;
+
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Scanner;
 
 /**
  * Classe StartGame que faz a inicialização do jogo;
@@ -10,9 +28,113 @@ import config.GameManager;
 public class StartGame {
 
     private static final int LAST_GAMES = 10; // Quantidade de últimos jogos a serem armazenados
+    private static final Path METRICS_FILE = Path.of("metricas.txt");
+    private static final long METRICS_DUMP_PERIOD = 60; // Segundos entre escritas do ficheiro de métricas
+
+    public static void main(String[] args) throws IOException {
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--batch")) {
+                // Modo em lote: --batch [guião], ou a entrada padrão se o guião faltar ou for "-"
+                runBatch(i + 1 < args.length ? args[i + 1] : "-");
+                return;
+            }
+            if (args[i].equals("--chunked")) {
+                // Tabuleiro por blocos: --chunked <linhas> <colunas> <minas> [semente]
+                playChunked(Arrays.copyOfRange(args, i + 1, args.length));
+                return;
+            }
+            if (args[i].equals("--mapped")) {
+                // Tabuleiro num ficheiro mapeado: --mapped <ficheiro> [<linhas> <colunas> <minas> [semente]]
+                playMapped(Arrays.copyOfRange(args, i + 1, args.length));
+                return;
+            }
+            if (args[i].equals("--metrics")) {
+                // Ativada antes do GameManager, para medir também a geração dos primeiros tabuleiros
+                Metrics.setEnabled(true); // Tempos por comando, vistos com /stats e escritos periodicamente
+                Metrics.startDump(METRICS_FILE, METRICS_DUMP_PERIOD);
+            }
+        }
 
-    public static void main(String[] args) {
         GameManager gameManager = new GameManager(LAST_GAMES); // Inicializa o GameManager
+        for (String arg : args) {
+            if (arg.equals("--ansi"))
+                gameManager.setIncrementalRendering(true); // Desenho incremental em terminais ANSI
+            else if (arg.equals("--no-guess"))
+                gameManager.setNoGuessBoards(true); // Tabuleiros resolúveis sem adivinhar
+        }
         gameManager.displayStartMenu(); // Exibe o menu inicial
     }
-}
\ No newline at end of file
+
+    /**
+     * Joga na consola um tabuleiro por blocos, que pode ter milhares de milhões de células.
+     *
+     * @param options Linhas, colunas, minas e, opcionalmente, a semente.
+     */
+    private static void playChunked(String[] options) {
+        ChunkedGameBoard board;
+        try {
+            long seed = options.length > 3 ? Long.parseLong(options[3]) : System.nanoTime();
+            board = new ChunkedGameBoard(Integer.parseInt(options[0]), Integer.parseInt(options[1]), Long.parseLong(options[2]), seed);
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            System.out.println("Utilização: --chunked <linhas> <colunas> <minas> [semente]");
+            System.exit(2);
+            return;
+        }
+        new LargeBoardGame(board, new Scanner(System.in)).play();
+    }
+
+    /**
+     * Joga na consola um tabuleiro guardado num ficheiro mapeado em memória. Sem dimensões, retoma o
+     * tabuleiro que já está no ficheiro; com dimensões, cria um novo e substitui o ficheiro.
+     *
+     * @param options Ficheiro e, opcionalmente, linhas, colunas, minas e semente.
+     * @throws IOException Se as alterações não puderem ser escritas no ficheiro ao fechar.
+     */
+    private static void playMapped(String[] options) throws IOException {
+        if (options.length != 1 && options.length != 4 && options.length != 5) {
+            System.out.println("Utilização: --mapped <ficheiro> [<linhas> <colunas> <minas> [semente]]");
+            System.exit(2);
+        }
+        Path path = Path.of(options[0]);
+        MappedGameBoard board;
+        try {
+            if (options.length == 1) {
+                board = MappedGameBoard.open(path);
+            } else {
+                long seed = options.length > 4 ? Long.parseLong(options[4]) : System.nanoTime();
+                GameConfiguration settings = new GameConfiguration(Integer.parseInt(options[1]),
+                        Integer.parseInt(options[2]), Integer.parseInt(options[3]));
+                board = MappedGameBoard.create(path, settings, seed);
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println("Utilização: --mapped <ficheiro> [<linhas> <colunas> <minas> [semente]]");
+            System.exit(2);
+            return;
+        } catch (IOException e) {
+            System.out.println("Não foi possível abrir o tabuleiro " + path + ": " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        try (board) {
+            new LargeBoardGame(board, new Scanner(System.in)).play();
+        }
+    }
+
+    /**
+     * Executa um guião de comandos com um jogo Starter de semente 0 e escreve as respostas na saída padrão.
+     *
+     * @param script Caminho do guião, ou "-" para a entrada padrão.
+     * @throws IOException Se o guião não puder ser lido.
+     */
+    private static void runBatch(String script) throws IOException {
+        BatchRunner runner = new BatchRunner(Difficulty.Starter.getSettings(), 0);
+        try (ReadableByteChannel in = script.equals("-")
+                ? new FileInputStream(FileDescriptor.in).getChannel()
+                : FileChannel.open(Path.of(script), StandardOpenOption.READ);
+             FileChannel out = new FileOutputStream(FileDescriptor.out).getChannel()) {
+            runner.run(in, out);
+        }
+        if (runner.getErrorCount() > 0)
+            System.exit(1);
+    }
+}
@@ -0,0 +1,96 @@
+package config;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Calcula o número de minas na vizinhança 3x3 de todas as células de uma só vez.
+ * <p>
+ * A soma 3x3 é separável: primeiro soma-se cada célula com as vizinhas da mesma linha e depois somam-se
+ * três linhas dessas somas. Cada linha de minas é lida uma vez, as somas horizontais das linhas de cima,
+ * atual e de baixo ficam em três vetores reutilizados, e os ciclos interiores não têm verificações de
+ * limites, porque as linhas são guardadas com uma coluna vazia de cada lado. Em tabuleiros grandes as
+ * linhas são divididas em faixas calculadas em paralelo no {@code ForkJoinPool} comum; cada faixa
+ * recalcula as somas das duas linhas vizinhas e escreve só nas suas próprias células.
+ */
+public final class AdjacencyCounter {
+    private static final int PARALLEL_THRESHOLD = 1 << 20; // Células a partir das quais compensa dividir
+    private static final int MIN_BAND_ROWS = 16;
+
+    private AdjacencyCounter() {
+    }
+
+    /**
+     * Calcula as contagens, em paralelo se o tabuleiro for grande.
+     *
+     * @param mines Minas, indexadas por {@code linha * colunas + coluna}.
+     * @param rows Número de linhas.
+     * @param cols Número de colunas.
+     * @param counts Destino, com uma posição por célula; cada valor fica entre 0 e 9.
+     */
+    public static void count(BitBoard mines, int rows, int cols, byte[] counts) {
+        count(mines, rows, cols, counts, (long) rows * cols >= PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Calcula as contagens.
+     *
+     * @param mines Minas, indexadas por {@code linha * colunas + coluna}.
+     * @param rows Número de linhas.
+     * @param cols Número de colunas.
+     * @param counts Destino, com uma posição por célula; cada valor fica entre 0 e 9.
+     * @param parallel true para dividir as linhas em faixas calculadas em paralelo.
+     */
+    public static void count(BitBoard mines, int rows, int cols, byte[] counts, boolean parallel) {
+        if (!parallel) {
+            countBand(mines, rows, cols, counts, 0, rows);
+            return;
+        }
+        int bandRows = Math.max(MIN_BAND_ROWS, rows / (ForkJoinPool.getCommonPoolParallelism() * 4));
+        int bands = (rows + bandRows - 1) / bandRows;
+        IntStream.range(0, bands).parallel().forEach(band ->
+                countBand(mines, rows, cols, counts, band * bandRows, Math.min(rows, (band + 1) * bandRows)));
+    }
+
+    /**
+     * Calcula as contagens das linhas {@code [firstRow, endRow)}.
+     */
+    private static void countBand(BitBoard mines, int rows, int cols, byte[] counts, int firstRow, int endRow) {
+        byte[] bits = new byte[cols + 2]; // Colunas -1 e cols ficam sempre a 0
+        byte[] above = new byte[cols];
+        byte[] current = new byte[cols];
+        byte[] below = new byte[cols];
+        if (firstRow > 0)
+            horizontalSums(mines, firstRow - 1, cols, bits, above);
+        horizontalSums(mines, firstRow, cols, bits, current);
+
+        for (int row = firstRow; row < endRow; row++) {
+            if (row + 1 < rows)
+                horizontalSums(mines, row + 1, cols, bits, below);
+            else
+                Arrays.fill(below, (byte) 0);
+
+            int base = row * cols;
+            for (int col = 0; col < cols; col++) {
+                counts[base + col] = (byte) (above[col] + current[col] + below[col]);
+            }
+
+            // A linha atual passa a ser a de cima, e a de baixo a atual
+            byte[] recycled = above;
+            above = current;
+            current = below;
+            below = recycled;
+        }
+    }
+
+    /**
+     * Soma cada célula de uma linha com as duas vizinhas da mesma linha.
+     */
+    private static void horizontalSums(BitBoard mines, int row, int cols, byte[] bits, byte[] sums) {
+        mines.copyTo(row * cols, bits, 1, cols);
+        for (int col = 0; col < cols; col++) {
+            sums[col] = (byte) (bits[col] + bits[col + 1] + bits[col + 2]);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package config;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Desenha o tabuleiro num terminal ANSI de forma incremental.
+ * <p>
+ * O primeiro desenho de cada tabuleiro é completo e fixa o tabuleiro no topo do ecrã, limitando o
+ * deslocamento do texto à zona por baixo dele. Nos desenhos seguintes só são escritas as células
+ * registadas como alteradas pelo {@link GameBoard} e a linha do tempo, cada uma precedida de um
+ * movimento do cursor. Todo o texto de um desenho é montado no mesmo buffer e enviado de uma só vez.
+ */
+public class AnsiBoardRenderer {
+    private static final String ESC = "\u001B[";
+    private static final int CELL_WIDTH = 3;  // "*  " por célula
+
+    private final Writer out;
+    private final StringBuilder frame = new StringBuilder(256);
+    private char[] chars = new char[256];
+    private GameBoard currentBoard;
+    private int lastRemainingFlags;
+    private int lastViewRow; // Janela desenhada; se mudar, o tabuleiro é redesenhado por completo
+    private int lastViewCol;
+
+    /**
+     * Cria um desenhador que escreve no fluxo indicado.
+     *
+     * @param out Destino do texto, normalmente {@code System.out}.
+     */
+    public AnsiBoardRenderer(OutputStream out) {
+        this.out = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Desenha o tabuleiro: completo se for um tabuleiro novo, ou apenas as diferenças caso contrário.
+     *
+     * @param board Tabuleiro a desenhar.
+     */
+    public void render(GameBoard board) {
+        frame.setLength(0);
+        if (board != currentBoard || board.getViewRow() != lastViewRow || board.getViewCol() != lastViewCol) {
+            appendFullFrame(board);
+        } else {
+            appendChanges(board);
+        }
+        flush();
+    }
+
+    /**
+     * Repõe a zona de deslocamento do terminal. Deve ser chamado quando o jogo termina.
+     */
+    public void reset() {
+        if (currentBoard != null)
+            currentBoard.setDirtyTracking(false);
+        currentBoard = null;
+        frame.setLength(0);
+        frame.append(ESC).append('r'); // Zona de deslocamento = ecrã inteiro
+        frame.append(ESC).append("999;1H");
+        flush();
+    }
+
+    /**
+     * Limpa o ecrã, escreve o tabuleiro inteiro e limita o deslocamento às linhas abaixo dele.
+     */
+    private void appendFullFrame(GameBoard board) {
+        if (currentBoard != null)
+            currentBoard.setDirtyTracking(false);
+        currentBoard = board;
+        board.setDirtyTracking(true);
+        lastRemainingFlags = board.getRemainingFlags();
+        lastViewRow = board.getViewRow();
+        lastViewCol = board.getViewCol();
+
+        frame.append(ESC).append("r").append(ESC).append("2J").append(ESC).append("H");
+        int boardStart = frame.length();
+        frame.append(board);
+        int firstFreeLine = 1;
+        for (int i = boardStart; i < frame.length(); i++) {
+            if (frame.charAt(i) == '\n')
+                firstFreeLine++;
+        }
+        frame.append(ESC).append(firstFreeLine).append('r');
+        frame.append(ESC).append(firstFreeLine).append(";1H");
+    }
+
+    /**
+     * Escreve só as células alteradas e as linhas de estado, preservando a posição do cursor.
+     */
+    private void appendChanges(GameBoard board) {
+        frame.append("\u001B7"); // Guarda a posição do cursor
+        IntStack dirty = board.getDirtyCells();
+        int numCols = board.getCols();
+        int prefixWidth = board.getRowPrefixWidth();
+        for (int i = 0; i < dirty.size(); i++) {
+            int cell = dirty.get(i);
+            int row = cell / numCols - lastViewRow;
+            int col = cell % numCols - lastViewCol;
+            if (row < 0 || row >= board.getViewRows() || col < 0 || col >= board.getViewCols())
+                continue; // Fora da janela visível
+            moveTo(row + 2, prefixWidth + col * CELL_WIDTH + 1);
+            frame.append(board.getCellVisual(row + lastViewRow, col + lastViewCol));
+        }
+        board.clearDirtyCells();
+
+        int statusLine = statusLine(board);
+        if (board.getRemainingFlags() != lastRemainingFlags) {
+            lastRemainingFlags = board.getRemainingFlags();
+            moveTo(statusLine, 1);
+            frame.append(ESC).append("2K").append("\tBandeiras Disponiveis: ").append(lastRemainingFlags);
+        }
+        moveTo(statusLine + 1, 1);
+        frame.append(ESC).append("2K").append("\tTempo decorrido: ");
+        GameBoard.appendElapsedTime(frame, board.getElapsedTime());
+        frame.append("\u001B8"); // Repõe a posição do cursor
+    }
+
+    /**
+     * Linha (a contar de 1) onde aparecem as bandeiras disponíveis, igual à de {@link GameBoard#toString()}.
+     */
+    private static int statusLine(GameBoard board) {
+        return board.getViewRows() + 3;
+    }
+
+    private void moveTo(int line, int column) {
+        frame.append(ESC).append(line).append(';').append(column).append('H');
+    }
+
+    /**
+     * Envia o buffer para o terminal com uma única escrita.
+     */
+    private void flush() {
+        int length = frame.length();
+        if (chars.length < length)
+            chars = new char[Math.max(length, chars.length * 2)];
+        frame.getChars(0, length, chars, 0);
+        try {
+            out.write(chars, 0, length);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
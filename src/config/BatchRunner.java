@@ -0,0 +1,358 @@
+package config;
+
+import Enums.Difficulty;
+import Enums.GameStatus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Executa um guião de comandos sem interação, para testes de regressão.
+ * <p>
+ * O guião é lido por blocos de um canal para um buffer reutilizado. Cada linha é interpretada
+ * diretamente sobre os bytes do buffer, sem criar strings, e as respostas de todas as linhas de um bloco
+ * são acumuladas no mesmo {@link StringBuilder} e escritas de uma só vez. Linhas vazias e linhas
+ * começadas por {@code #} são ignoradas. Os erros de interpretação indicam o número da linha e não
+ * interrompem o guião, mas no modo {@code --batch} qualquer erro faz o processo terminar com o código 1.
+ * <p>
+ * Comandos: {@code /new <dificuldade> [semente]}, {@code /open <linha> <coluna>},
+ * {@code /flag <linha> <coluna>}, {@code /hint}, {@code /board}, {@code /status} e {@code /quit}.
+ */
+public class BatchRunner {
+    private static final int BUFFER_SIZE = 64 * 1024; // Também é o comprimento máximo de uma linha
+
+    // Comandos reconhecidos, comparados byte a byte
+    private static final byte[][] COMMANDS = {
+            ascii("new"), ascii("open"), ascii("flag"), ascii("hint"), ascii("board"), ascii("status"), ascii("quit")
+    };
+    private static final int NEW = 0;
+    private static final int OPEN = 1;
+    private static final int FLAG = 2;
+    private static final int HINT = 3;
+    private static final int BOARD = 4;
+    private static final int STATUS = 5;
+    private static final int QUIT = 6;
+
+    private final ByteBuffer input = ByteBuffer.allocate(BUFFER_SIZE);
+    private ByteBuffer output = ByteBuffer.allocate(BUFFER_SIZE);
+    private final StringBuilder text = new StringBuilder(BUFFER_SIZE);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private HeadlessGame game;
+    private long lineNumber;
+    private long commandCount;
+    private long errorCount;
+    private boolean finished;
+
+    // Resultado da interpretação da linha atual
+    private int command;
+    private int row;
+    private int col;
+    private long number;
+    private boolean hasNumber;
+
+    /**
+     * Cria um executor com um jogo inicial.
+     *
+     * @param settings Configuração do jogo inicial.
+     * @param seed Semente do jogo inicial.
+     */
+    public BatchRunner(GameConfiguration settings, long seed) {
+        game = new HeadlessGame(settings, seed, true);
+    }
+
+    /**
+     * Executa o guião até ao fim do canal ou até ao comando {@code /quit}, e escreve um resumo no fim.
+     *
+     * @param in Canal de onde o guião é lido.
+     * @param out Canal para onde as respostas são escritas.
+     * @throws IOException Se a leitura ou a escrita falharem.
+     */
+    public void run(ReadableByteChannel in, WritableByteChannel out) throws IOException {
+        long start = System.nanoTime();
+        boolean skipping = false; // A linha atual excedeu o buffer e é ignorada até ao fim
+        boolean endOfInput = false;
+        while (!finished && !endOfInput) {
+            endOfInput = in.read(input) < 0;
+            input.flip();
+            byte[] bytes = input.array();
+            int lineStart = input.position();
+            int limit = input.limit();
+            for (int i = lineStart; i < limit && !finished; i++) {
+                if (bytes[i] != '\n')
+                    continue;
+                lineNumber++;
+                if (!skipping)
+                    executeLine(bytes, lineStart, i);
+                skipping = false;
+                lineStart = i + 1;
+            }
+            if (endOfInput && lineStart < limit && !skipping && !finished) {
+                lineNumber++; // Última linha sem mudança de linha
+                executeLine(bytes, lineStart, limit);
+                lineStart = limit;
+            }
+            input.position(lineStart);
+            input.compact();
+            if (!input.hasRemaining()) {
+                // Linha maior do que o buffer: reportada uma vez e ignorada até à mudança de linha, que a conta
+                if (!skipping)
+                    error(lineNumber + 1).append("linha demasiado longa\n");
+                input.clear();
+                skipping = true;
+            }
+            flush(out);
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        text.append("# ").append(commandCount).append(" comandos, ").append(errorCount).append(" erros, ")
+                .append((long) (commandCount / Math.max(seconds, 1e-9))).append(" comandos/s\n");
+        flush(out);
+    }
+
+    /**
+     * Retorna o número de linhas com erros de interpretação.
+     *
+     * @return Número de erros.
+     */
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * Interpreta e executa a linha {@code [start, end)}.
+     */
+    private void executeLine(byte[] bytes, int start, int end) {
+        if (end > start && bytes[end - 1] == '\r')
+            end--;
+        int position = skipSpaces(bytes, start, end);
+        if (position == end || bytes[position] == '#')
+            return; // Linha vazia ou comentário
+        if (!parse(bytes, position, end))
+            return;
+        commandCount++;
+
+        switch (command) {
+            case NEW:
+                Difficulty difficulty = Difficulty.valueOfInt(row);
+                if (difficulty == null) {
+                    error().append("dificuldade inválida\n");
+                    return;
+                }
+                game = new HeadlessGame(difficulty.getSettings(), hasNumber ? number : 0, true);
+                text.append("Novo jogo: ").append(difficulty).append('\n');
+                return;
+            case BOARD:
+                text.append(game.getBoard());
+                return;
+            case STATUS:
+                text.append("Estado: ").append(game.getStatus()).append(", jogadas: ").append(game.getMoveCount())
+                        .append(", bandeiras: ").append(game.getBoard().getRemainingFlags()).append('\n');
+                return;
+            case QUIT:
+                finished = true;
+                return;
+            default:
+                break;
+        }
+
+        if (game.getStatus() != GameStatus.PLAYING) {
+            text.append("Jogo terminado, use /new\n");
+            return;
+        }
+        if (command == HINT) {
+            int hint = game.hintCell();
+            text.append("Dica: ");
+            if (hint < 0)
+                text.append("sem células por revelar");
+            else
+                Coordinates.appendCell(text, hint, game.getBoard().getCols());
+            text.append('\n');
+            return;
+        }
+        if (!game.getBoard().isValidCoordinate(row, col)) {
+            error().append("coordenadas inválidas\n");
+            return;
+        }
+        if (command == OPEN) {
+            GameStatus status = game.open(row, col);
+            appendCell(row, col);
+            if (status == GameStatus.LOST) {
+                text.append(": mina! Jogo perdido.\n");
+                return;
+            }
+            text.append(": ").append(game.getBoard().getLastRevealedCells().size()).append(" células reveladas\n");
+        } else {
+            game.toggleFlag(row, col);
+            text.append("Bandeira ").append(game.getBoard().isFlagged(row, col) ? "colocada" : "removida").append(" em ");
+            appendCell(row, col);
+            text.append('\n');
+        }
+        if (game.getStatus() == GameStatus.WON)
+            text.append("Jogo ganho.\n");
+    }
+
+    /**
+     * Interpreta o comando e os argumentos, guardando-os nos campos do resultado.
+     *
+     * @return false se a linha tiver um erro, já reportado.
+     */
+    private boolean parse(byte[] bytes, int position, int end) {
+        if (bytes[position] != '/') {
+            error().append("os comandos começam por /\n");
+            return false;
+        }
+        int nameEnd = position + 1;
+        while (nameEnd < end && bytes[nameEnd] != ' ') {
+            nameEnd++;
+        }
+        command = -1;
+        for (int c = 0; c < COMMANDS.length; c++) {
+            if (matches(bytes, position + 1, nameEnd, COMMANDS[c])) {
+                command = c;
+                break;
+            }
+        }
+        if (command < 0) {
+            error().append("comando inválido\n");
+            return false;
+        }
+
+        // Argumentos: /new <dificuldade> [semente]; /open e /flag <linha> <coluna>
+        int first = skipSpaces(bytes, nameEnd, end);
+        int firstEnd = tokenEnd(bytes, first, end);
+        int second = skipSpaces(bytes, firstEnd, end);
+        int secondEnd = tokenEnd(bytes, second, end);
+        if (skipSpaces(bytes, secondEnd, end) != end) {
+            error().append("argumentos a mais\n");
+            return false;
+        }
+        if (command == NEW) {
+            row = (int) parseNumber(bytes, first, firstEnd);
+            hasNumber = second < secondEnd;
+            number = hasNumber ? parseNumber(bytes, second, secondEnd) : 0;
+            if (row < 0 || number < 0) {
+                error().append("uso: /new <dificuldade> [semente]\n");
+                return false;
+            }
+        } else if (command == OPEN || command == FLAG) {
+            row = parseRow(bytes, first, firstEnd);
+            col = (int) Math.min(Integer.MAX_VALUE, parseNumber(bytes, second, secondEnd));
+            if (row < 0 || col < 0) {
+                error().append("uso: /").append(command == OPEN ? "open" : "flag").append(" <linha> <coluna>\n");
+                return false;
+            }
+        } else if (first != firstEnd) {
+            error().append("o comando não tem argumentos\n");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Linha: letras (A, Z, AA, ...) sem distinção de maiúsculas, ou um número.
+     */
+    private static int parseRow(byte[] bytes, int start, int end) {
+        if (start == end)
+            return -1;
+        if (bytes[start] >= '0' && bytes[start] <= '9')
+            return (int) Math.min(Integer.MAX_VALUE, parseNumber(bytes, start, end));
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int letter = (bytes[i] | 0x20) - 'a'; // Minúscula
+            if (letter < 0 || letter >= 26)
+                return -1;
+            value = value * 26 + letter + 1;
+            if (value > Integer.MAX_VALUE)
+                return -1;
+        }
+        return (int) value - 1;
+    }
+
+    /**
+     * Número não negativo em decimal; -1 se estiver vazio, tiver outros caracteres ou for grande demais.
+     */
+    private static long parseNumber(byte[] bytes, int start, int end) {
+        if (start == end || end - start > 18)
+            return -1;
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9)
+                return -1;
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static boolean matches(byte[] bytes, int start, int end, byte[] word) {
+        if (end - start != word.length)
+            return false;
+        for (int i = 0; i < word.length; i++) {
+            if ((bytes[start + i] | 0x20) != word[i])
+                return false;
+        }
+        return true;
+    }
+
+    private static int skipSpaces(byte[] bytes, int position, int end) {
+        while (position < end && (bytes[position] == ' ' || bytes[position] == '\t')) {
+            position++;
+        }
+        return position;
+    }
+
+    private static int tokenEnd(byte[] bytes, int position, int end) {
+        while (position < end && bytes[position] != ' ' && bytes[position] != '\t') {
+            position++;
+        }
+        return position;
+    }
+
+    private void appendCell(int row, int col) {
+        Coordinates.appendRowLabel(text, row).append(' ').append(col);
+    }
+
+    /**
+     * Conta um erro e começa a mensagem com o número da linha.
+     */
+    private StringBuilder error() {
+        return error(lineNumber);
+    }
+
+    private StringBuilder error(long line) {
+        errorCount++;
+        return text.append("Linha ").append(line).append(": ");
+    }
+
+    /**
+     * Codifica o texto acumulado e escreve-o no canal de uma só vez.
+     */
+    private void flush(WritableByteChannel out) throws IOException {
+        if (text.length() == 0)
+            return;
+        CharBuffer chars = CharBuffer.wrap(text);
+        output.clear();
+        encoder.reset();
+        while (encoder.encode(chars, output, true) == CoderResult.OVERFLOW) {
+            ByteBuffer larger = ByteBuffer.allocate(output.capacity() * 2);
+            output.flip();
+            output = larger.put(output);
+        }
+        encoder.flush(output);
+        output.flip();
+        while (output.hasRemaining()) {
+            out.write(output);
+        }
+        text.setLength(0);
+    }
+
+    private static byte[] ascii(String word) {
+        return word.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,271 @@
+package config;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A classe {@code BitBoard} guarda um conjunto de células do tabuleiro num vetor de {@code long},
+ * usando um bit por célula. As operações sobre o tabuleiro inteiro processam 64 células de cada vez.
+ */
+public class BitBoard {
+    private static final int WORD_SHIFT = 6; // 64 bits por palavra
+    private static final long ALL_ONES = -1L;
+
+    private final long[] words;
+    private final int size;
+
+    /**
+     * Cria um conjunto vazio com capacidade para o número de células indicado.
+     *
+     * @param size Número total de células.
+     */
+    public BitBoard(int size) {
+        this.size = size;
+        this.words = new long[(size + 63) >>> WORD_SHIFT];
+    }
+
+    /**
+     * Construtor de cópia.
+     *
+     * @param other Conjunto a copiar.
+     */
+    public BitBoard(BitBoard other) {
+        this.size = other.size;
+        this.words = other.words.clone();
+    }
+
+    /**
+     * Retorna o número de células representadas por este conjunto.
+     *
+     * @return Capacidade do conjunto.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Verifica se a célula pertence ao conjunto.
+     *
+     * @param index Índice da célula.
+     * @return true se o bit da célula estiver ativo.
+     */
+    public boolean get(int index) {
+        return (words[index >>> WORD_SHIFT] & (1L << index)) != 0;
+    }
+
+    /**
+     * Copia um intervalo de células para um vetor de bytes, com 1 para as que pertencem ao conjunto
+     * e 0 para as restantes. Cada palavra é lida uma única vez.
+     *
+     * @param from Índice da primeira célula.
+     * @param destination Vetor de destino.
+     * @param offset Posição no destino da primeira célula.
+     * @param count Número de células a copiar.
+     */
+    public void copyTo(int from, byte[] destination, int offset, int count) {
+        int end = from + count;
+        int index = from;
+        while (index < end) {
+            long word = words[index >>> WORD_SHIFT] >>> index; // O deslocamento usa só os 6 bits baixos
+            int bits = Math.min(64 - (index & 63), end - index);
+            for (int k = 0; k < bits; k++) {
+                destination[offset++] = (byte) (word & 1);
+                word >>>= 1;
+            }
+            index += bits;
+        }
+    }
+
+    /**
+     * Adiciona a célula ao conjunto.
+     *
+     * @param index Índice da célula.
+     */
+    public void set(int index) {
+        words[index >>> WORD_SHIFT] |= 1L << index;
+    }
+
+    /**
+     * Remove a célula do conjunto.
+     *
+     * @param index Índice da célula.
+     */
+    public void clear(int index) {
+        words[index >>> WORD_SHIFT] &= ~(1L << index);
+    }
+
+    /**
+     * Inverte o estado da célula.
+     *
+     * @param index Índice da célula.
+     * @return O novo estado da célula.
+     */
+    public boolean flip(int index) {
+        words[index >>> WORD_SHIFT] ^= 1L << index;
+        return get(index);
+    }
+
+    /**
+     * Adiciona todas as células ao conjunto.
+     */
+    public void setAll() {
+        Arrays.fill(words, ALL_ONES);
+        trimLastWord();
+    }
+
+    /**
+     * Remove todas as células do conjunto.
+     */
+    public void clearAll() {
+        Arrays.fill(words, 0L);
+    }
+
+    /**
+     * Conta as células presentes no conjunto.
+     *
+     * @return Número de bits ativos.
+     */
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Conta as células presentes em ambos os conjuntos.
+     *
+     * @param other Outro conjunto com o mesmo tamanho.
+     * @return Número de bits ativos em {@code this & other}.
+     */
+    public int countAnd(BitBoard other) {
+        int count = 0;
+        for (int i = 0; i < words.length; i++) {
+            count += Long.bitCount(words[i] & other.words[i]);
+        }
+        return count;
+    }
+
+    /**
+     * Verifica se este conjunto contém todas as células de outro.
+     *
+     * @param other Outro conjunto com o mesmo tamanho.
+     * @return true se {@code other & ~this == 0}.
+     */
+    public boolean containsAll(BitBoard other) {
+        for (int i = 0; i < words.length; i++) {
+            if ((other.words[i] & ~words[i]) != 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Verifica se a união deste conjunto com outro cobre todas as células.
+     *
+     * @param other Outro conjunto com o mesmo tamanho.
+     * @return true se {@code ~this & ~other == 0} dentro dos limites do tabuleiro.
+     */
+    public boolean unionCoversAll(BitBoard other) {
+        int last = words.length - 1;
+        for (int i = 0; i < last; i++) {
+            if ((~words[i] & ~other.words[i]) != 0)
+                return false;
+        }
+        return last < 0 || (~words[last] & ~other.words[last] & lastWordMask()) == 0;
+    }
+
+    /**
+     * Conta, para cada palavra, as células presentes nas palavras anteriores. Com este vetor,
+     * {@link #countBelow(int, int[])} conta em tempo constante, enquanto o conjunto não mudar.
+     *
+     * @return Vetor com uma posição por palavra e mais uma com o total.
+     */
+    public int[] wordRanks() {
+        int[] ranks = new int[words.length + 1];
+        for (int i = 0; i < words.length; i++) {
+            ranks[i + 1] = ranks[i] + Long.bitCount(words[i]);
+        }
+        return ranks;
+    }
+
+    /**
+     * Conta as células presentes com índice menor do que o indicado.
+     *
+     * @param index Índice da célula.
+     * @param wordRanks Vetor devolvido por {@link #wordRanks()} desde a última alteração do conjunto.
+     * @return Número de células presentes antes de {@code index}.
+     */
+    public int countBelow(int index, int[] wordRanks) {
+        int wordIndex = index >>> WORD_SHIFT;
+        return wordRanks[wordIndex] + Long.bitCount(words[wordIndex] & ~(ALL_ONES << index));
+    }
+
+    /**
+     * Procura a próxima célula presente a partir de um índice.
+     *
+     * @param from Índice inicial (inclusive).
+     * @return Índice da próxima célula presente, ou -1 se não existir.
+     */
+    public int nextSetBit(int from) {
+        if (from >= size)
+            return -1;
+        int wordIndex = from >>> WORD_SHIFT;
+        long word = words[wordIndex] & (ALL_ONES << from);
+        while (true) {
+            if (word != 0)
+                return (wordIndex << WORD_SHIFT) + Long.numberOfTrailingZeros(word);
+            if (++wordIndex == words.length)
+                return -1;
+            word = words[wordIndex];
+        }
+    }
+
+    /**
+     * Retorna o número de bytes escritos por {@link #writeTo(ByteBuffer)}.
+     *
+     * @return Tamanho serializado: 8 bytes por cada 64 células.
+     */
+    public int serializedSize() {
+        return words.length * Long.BYTES;
+    }
+
+    /**
+     * Escreve as palavras do conjunto num buffer, de uma só vez.
+     *
+     * @param buffer Buffer de destino, com pelo menos {@link #serializedSize()} bytes livres.
+     */
+    public void writeTo(ByteBuffer buffer) {
+        buffer.asLongBuffer().put(words);
+        buffer.position(buffer.position() + serializedSize());
+    }
+
+    /**
+     * Substitui o conteúdo do conjunto pelas palavras escritas por {@link #writeTo(ByteBuffer)} para um
+     * conjunto do mesmo tamanho.
+     *
+     * @param buffer Buffer de origem.
+     */
+    public void readFrom(ByteBuffer buffer) {
+        buffer.asLongBuffer().get(words);
+        buffer.position(buffer.position() + serializedSize());
+        trimLastWord();
+    }
+
+    /**
+     * Máscara dos bits válidos na última palavra.
+     */
+    private long lastWordMask() {
+        int used = size & 63;
+        return used == 0 ? ALL_ONES : (1L << used) - 1;
+    }
+
+    /**
+     * Garante que os bits para além do tamanho do tabuleiro ficam a zero.
+     */
+    private void trimLastWord() {
+        if (words.length > 0)
+            words[words.length - 1] &= lastWordMask();
+    }
+}
@@ -0,0 +1,97 @@
+package config;
+
+/**
+ * Operações comuns a todos os tabuleiros jogáveis: o {@link GameBoard} em memória e os tabuleiros para
+ * dimensões muito grandes ({@link ChunkedGameBoard}, {@link MappedGameBoard}), que não têm o tabuleiro inteiro na heap.
+ * <p>
+ * As células são indicadas por linha e coluna; a contagem de células reveladas é um {@code long} porque um
+ * tabuleiro grande pode ter mais células do que cabem num {@code int}.
+ */
+public interface Board {
+
+    /**
+     * Retorna o número de linhas do tabuleiro.
+     *
+     * @return Número de linhas.
+     */
+    int getRows();
+
+    /**
+     * Retorna o número de colunas do tabuleiro.
+     *
+     * @return Número de colunas.
+     */
+    int getCols();
+
+    /**
+     * Verifica se uma coordenada é válida.
+     *
+     * @param row Linha da coordenada.
+     * @param col Coluna da coordenada.
+     * @return true se a coordenada estiver dentro dos limites.
+     */
+    boolean isValidCoordinate(int row, int col);
+
+    /**
+     * Verifica se uma célula contém uma mina.
+     *
+     * @param row Linha da célula.
+     * @param col Coluna da célula.
+     * @return true se a célula contiver uma mina.
+     */
+    boolean isMine(int row, int col);
+
+    /**
+     * Verifica se uma célula já foi revelada.
+     *
+     * @param row Linha da célula.
+     * @param col Coluna da célula.
+     * @return true se a célula estiver revelada.
+     */
+    boolean isUncovered(int row, int col);
+
+    /**
+     * Verifica se uma célula tem bandeira.
+     *
+     * @param row Linha da célula.
+     * @param col Coluna da célula.
+     * @return true se a célula tiver bandeira.
+     */
+    boolean isFlagged(int row, int col);
+
+    /**
+     * Revela a célula e, se não tiver minas adjacentes, toda a região ligada.
+     *
+     * @param row Linha da célula.
+     * @param col Coluna da célula.
+     * @return Número de células reveladas.
+     */
+    long revealCell(int row, int col);
+
+    /**
+     * Alterna o status da bandeira em uma célula.
+     *
+     * @param row Linha da célula.
+     * @param col Coluna da célula.
+     * @return true se a bandeira foi colocada/removida com sucesso.
+     */
+    boolean toggleFlag(int row, int col);
+
+    /**
+     * Verifica se o jogador venceu o jogo.
+     *
+     * @return true se todas as minas estiverem marcadas ou todas as células seguras estiverem reveladas.
+     */
+    boolean checkWin();
+
+    /**
+     * Constrói a representação em string de uma janela do tabuleiro, com as bandeiras disponíveis.
+     *
+     * @param firstRow Primeira linha da janela.
+     * @param firstCol Primeira coluna da janela.
+     * @param rows Número de linhas da janela.
+     * @param cols Número de colunas da janela.
+     * @return A janela do tabuleiro como uma string.
+     */
+    String render(int firstRow, int firstCol, int rows, int cols);
+}
@@ -0,0 +1,273 @@
+package config;
+
+import Enums.Difficulty;
+import metrics.Metrics;
+import metrics.Probe;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Reserva de tabuleiros já gerados, separada por {@link GameConfiguration}.
+ * <p>
+ * Cada configuração tem uma fila com até {@code depth} tabuleiros, reposta em segundo plano por threads
+ * de baixa prioridade. Retirar um tabuleiro é uma operação em tempo constante; se a fila estiver vazia,
+ * o tabuleiro é gerado na hora. A reposição pode usar uma fábrica própria, para que os seus recursos não
+ * atrasem quem espera por um tabuleiro. A memória ocupada por todas as filas é estimada e nunca passa do limite.
+ */
+public class BoardPool implements AutoCloseable {
+    private final Function<GameConfiguration, GameBoard> factory;
+    private final Function<GameConfiguration, GameBoard> refillFactory;
+    private final int depth;
+    private final long maxBytes;
+    private final ExecutorService refillExecutor;
+    private final Map<GameConfiguration, Reserve> reserves = new ConcurrentHashMap<>();
+    private final AtomicLong pooledBytes = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final Consumer<StringBuilder> reportSection = this::appendReport; // Registada no relatório das métricas
+
+    /**
+     * Fila de tabuleiros de uma configuração.
+     */
+    private static final class Reserve {
+        final Queue<GameBoard> boards = new ConcurrentLinkedQueue<>();
+        final AtomicInteger size = new AtomicInteger(); // O tamanho de ConcurrentLinkedQueue não é O(1)
+        final AtomicBoolean refilling = new AtomicBoolean(); // Uma reposição de cada vez por configuração
+        final long boardBytes;
+
+        Reserve(GameConfiguration settings) {
+            boardBytes = estimateBytes(settings);
+        }
+    }
+
+    /**
+     * Cria uma reserva de tabuleiros.
+     *
+     * @param factory Função que gera um tabuleiro novo para uma configuração.
+     * @param depth Número máximo de tabuleiros guardados por configuração.
+     * @param maxBytes Memória máxima estimada, em bytes, de todos os tabuleiros guardados.
+     * @param threads Número de threads de reposição.
+     */
+    public BoardPool(Function<GameConfiguration, GameBoard> factory, int depth, long maxBytes, int threads) {
+        this(factory, factory, depth, maxBytes, threads);
+    }
+
+    /**
+     * Cria uma reserva de tabuleiros com fábricas diferentes para a reposição e para as falhas.
+     *
+     * @param factory Função que gera um tabuleiro na hora, quando a fila está vazia.
+     * @param refillFactory Função que gera os tabuleiros da reposição em segundo plano.
+     * @param depth Número máximo de tabuleiros guardados por configuração.
+     * @param maxBytes Memória máxima estimada, em bytes, de todos os tabuleiros guardados.
+     * @param threads Número de threads de reposição.
+     */
+    public BoardPool(Function<GameConfiguration, GameBoard> factory, Function<GameConfiguration, GameBoard> refillFactory,
+                     int depth, long maxBytes, int threads) {
+        if (depth <= 0 || maxBytes <= 0 || threads <= 0)
+            throw new IllegalArgumentException("Reserva inválida: profundidade " + depth + ", " + maxBytes + " bytes, " + threads + " threads");
+        this.factory = factory;
+        this.refillFactory = refillFactory;
+        this.depth = depth;
+        this.maxBytes = maxBytes;
+        this.refillExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "board-pool");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY); // Não compete com o jogo
+            return thread;
+        });
+        Metrics.addReportSection(reportSection);
+    }
+
+    /**
+     * Começa a preparar tabuleiros para todas as dificuldades predefinidas.
+     */
+    public void warmUpPresets() {
+        for (Difficulty difficulty : Difficulty.values()) {
+            warmUp(difficulty.getSettings());
+        }
+    }
+
+    /**
+     * Começa a preparar tabuleiros para uma configuração.
+     *
+     * @param settings Configuração a preparar.
+     */
+    public void warmUp(GameConfiguration settings) {
+        scheduleRefill(settings, reserve(settings));
+    }
+
+    /**
+     * Retira um tabuleiro pronto, ou gera um na hora se não houver nenhum, e pede a reposição da fila.
+     * O relógio do tabuleiro é reiniciado.
+     *
+     * @param settings Configuração do tabuleiro.
+     * @return Tabuleiro por jogar.
+     */
+    public GameBoard take(GameConfiguration settings) {
+        Reserve reserve = reserve(settings);
+        GameBoard board = reserve.boards.poll();
+        if (board != null) {
+            reserve.size.decrementAndGet();
+            pooledBytes.addAndGet(-reserve.boardBytes);
+            hits.increment();
+        } else {
+            misses.increment();
+            board = generate(factory, settings);
+        }
+        scheduleRefill(settings, reserve);
+        board.startClock();
+        return board;
+    }
+
+    /**
+     * Retorna o número de tabuleiros retirados da reserva.
+     *
+     * @return Número de acertos.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Retorna o número de tabuleiros gerados na hora por a reserva estar vazia.
+     *
+     * @return Número de falhas.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Retorna o número de tabuleiros prontos para uma configuração.
+     *
+     * @param settings Configuração do tabuleiro.
+     * @return Tabuleiros guardados.
+     */
+    public int getPooledCount(GameConfiguration settings) {
+        Reserve reserve = reserves.get(settings);
+        return reserve == null ? 0 : reserve.size.get();
+    }
+
+    /**
+     * Retorna a memória estimada ocupada pelos tabuleiros guardados.
+     *
+     * @return Memória em bytes.
+     */
+    public long getPooledBytes() {
+        return pooledBytes.get();
+    }
+
+    /**
+     * Escreve os acertos e as falhas da reserva e os tabuleiros guardados, no total e por configuração.
+     * Faz parte do relatório das métricas enquanto a reserva estiver aberta.
+     *
+     * @param sb Destino das linhas.
+     * @return O mesmo {@link StringBuilder}.
+     */
+    public StringBuilder appendReport(StringBuilder sb) {
+        sb.append('\n').append("Reserva de tabuleiros\n");
+        sb.append(String.format("%-24s %10d%n", "acertos", getHits()));
+        sb.append(String.format("%-24s %10d%n", "falhas", getMisses()));
+        int pooled = 0;
+        for (Reserve reserve : reserves.values()) {
+            pooled += reserve.size.get();
+        }
+        sb.append(String.format("%-24s %10d %10d KB%n", "guardados", pooled, getPooledBytes() / 1024));
+        reserves.forEach((settings, reserve) -> {
+            Difficulty difficulty = Difficulty.valueOfSettings(settings);
+            String name = difficulty != null ? difficulty.toString()
+                    : settings.rows() + "x" + settings.cols() + ", " + settings.mines() + " minas";
+            sb.append(String.format("  %-22s %10d%n", name, reserve.size.get()));
+        });
+        return sb;
+    }
+
+    /**
+     * Para as threads de reposição e descarta os tabuleiros guardados.
+     */
+    @Override
+    public void close() {
+        Metrics.removeReportSection(reportSection);
+        refillExecutor.shutdownNow();
+        reserves.clear();
+        pooledBytes.set(0);
+    }
+
+    private Reserve reserve(GameConfiguration settings) {
+        return reserves.computeIfAbsent(settings, Reserve::new);
+    }
+
+    private void scheduleRefill(GameConfiguration settings, Reserve reserve) {
+        if (reserve.size.get() >= depth || !reserve.refilling.compareAndSet(false, true))
+            return;
+        try {
+            refillExecutor.execute(() -> refill(settings, reserve));
+        } catch (RejectedExecutionException e) {
+            reserve.refilling.set(false); // Reserva fechada
+        }
+    }
+
+    /**
+     * Gera tabuleiros até encher a fila ou atingir o limite de memória.
+     */
+    private void refill(GameConfiguration settings, Reserve reserve) {
+        try {
+            while (reserve.size.get() < depth && !Thread.currentThread().isInterrupted()) {
+                // Reserva a memória antes de gerar, para que as várias filas não ultrapassem o limite juntas
+                long bytes = pooledBytes.addAndGet(reserve.boardBytes);
+                if (bytes > maxBytes) {
+                    pooledBytes.addAndGet(-reserve.boardBytes);
+                    return;
+                }
+                GameBoard board;
+                try {
+                    board = generate(refillFactory, settings);
+                } catch (RuntimeException e) {
+                    pooledBytes.addAndGet(-reserve.boardBytes);
+                    throw e;
+                }
+                reserve.boards.add(board);
+                reserve.size.incrementAndGet();
+            }
+        } finally {
+            reserve.refilling.set(false);
+        }
+    }
+
+    /**
+     * Estima a memória de um tabuleiro: contagens de um byte, mapas de bits e índice de células.
+     */
+    private static long estimateBytes(GameConfiguration settings) {
+        long cells = (long) settings.rows() * settings.cols();
+        long counts = cells * Byte.BYTES;
+        long bitBoards = 3 * (cells / 8 + 16);
+        long cellIndex = 2 * (cells - settings.mines()) * Integer.BYTES + cells / 16; // Um int por célula segura e por palavra das minas
+        return counts + bitBoards + cellIndex + 256;
+    }
+
+    /**
+     * Gera um tabuleiro com uma das fábricas, medindo o tempo de geração.
+     *
+     * @param source Fábrica a usar.
+     * @param settings Configuração do tabuleiro.
+     * @return Tabuleiro novo.
+     */
+    private static GameBoard generate(Function<GameConfiguration, GameBoard> source, GameConfiguration settings) {
+        long start = Metrics.start();
+        GameBoard board = source.apply(settings);
+        Metrics.stop(Probe.BOARD_GENERATION, start);
+        return board;
+    }
+}
@@ -0,0 +1,174 @@
+package config;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Fotografia compacta do aspeto de um tabuleiro, guardada em vez do texto desenhado.
+ * <p>
+ * Cada célula é um de 13 símbolos ('*', 'F', 'X' e os algarismos), que cabem em 4 bits. As células são
+ * percorridas por linhas e agrupadas em sequências do mesmo símbolo: cada sequência ocupa um byte, com o
+ * símbolo nos 4 bits altos e o comprimento menos um nos 4 bits baixos. Se esse valor for 15, seguem-se
+ * os bytes de um inteiro de comprimento variável com o resto do comprimento, o que deixa as grandes
+ * zonas tapadas de um tabuleiro em poucos bytes. O texto só é gerado quando é mostrado.
+ */
+public class BoardSnapshot {
+    private static final String SYMBOLS = "*FX0123456789";
+    private static final int SHORT_RUN = 15; // Comprimentos até 16 cabem no próprio byte
+
+    private final int rows;
+    private final int cols;
+    private final int remainingFlags;
+    private final byte[] runs;
+
+    private BoardSnapshot(int rows, int cols, int remainingFlags, byte[] runs) {
+        this.rows = rows;
+        this.cols = cols;
+        this.remainingFlags = remainingFlags;
+        this.runs = runs;
+    }
+
+    /**
+     * Fotografa o aspeto atual de todas as células do tabuleiro.
+     *
+     * @param board Tabuleiro a fotografar.
+     * @return Fotografia do tabuleiro.
+     */
+    public static BoardSnapshot capture(GameBoard board) {
+        int rows = board.getRows();
+        int cols = board.getCols();
+        byte[] out = new byte[64];
+        int length = 0;
+        int symbol = -1;
+        long run = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                int current = symbolOf(board.getCellVisual(row, col));
+                if (current == symbol) {
+                    run++;
+                    continue;
+                }
+                if (run > 0) {
+                    if (out.length - length < 11)
+                        out = Arrays.copyOf(out, out.length * 2);
+                    length = putRun(out, length, symbol, run);
+                }
+                symbol = current;
+                run = 1;
+            }
+        }
+        if (run > 0) {
+            if (out.length - length < 11)
+                out = Arrays.copyOf(out, out.length * 2);
+            length = putRun(out, length, symbol, run);
+        }
+        return new BoardSnapshot(rows, cols, board.getRemainingFlags(), Arrays.copyOf(out, length));
+    }
+
+    /**
+     * Escreve uma sequência a partir da posição indicada.
+     *
+     * @return Posição seguinte à sequência.
+     */
+    private static int putRun(byte[] out, int position, int symbol, long run) {
+        long extra = run - 1;
+        out[position++] = (byte) (symbol << 4 | (int) Math.min(extra, SHORT_RUN));
+        if (extra >= SHORT_RUN) {
+            extra -= SHORT_RUN;
+            while (extra >= 0x80) {
+                out[position++] = (byte) (extra & 0x7F | 0x80);
+                extra >>>= 7;
+            }
+            out[position++] = (byte) extra;
+        }
+        return position;
+    }
+
+    private static int symbolOf(char visual) {
+        int symbol = SYMBOLS.indexOf(visual);
+        if (symbol < 0)
+            throw new IllegalArgumentException("Símbolo de célula desconhecido: " + visual);
+        return symbol;
+    }
+
+    /**
+     * Desenha o tabuleiro completo no formato de {@link GameBoard#toString()}, sem a linha do tempo.
+     *
+     * @return O tabuleiro como uma string.
+     */
+    public String render() {
+        int labelWidth = Coordinates.rowLabelLength(rows - 1);
+        StringBuilder sb = new StringBuilder((rows + 1) * (cols * 3 + labelWidth + 3) + 32);
+        Coordinates.appendColumnHeader(sb, 0, cols, labelWidth);
+
+        int position = 0;
+        int symbol = 0;
+        long run = 0;
+        for (int i = 0; i < rows; i++) {
+            Coordinates.appendRowPrefix(sb.append('\n'), i, labelWidth);
+            for (int j = 0; j < cols; j++) {
+                if (run == 0) {
+                    // Lê a sequência seguinte
+                    int header = runs[position++] & 0xFF;
+                    symbol = header >>> 4;
+                    run = (header & 0x0F) + 1;
+                    if ((header & 0x0F) == SHORT_RUN) {
+                        int shift = 0;
+                        int b;
+                        do {
+                            b = runs[position++] & 0xFF;
+                            run += (long) (b & 0x7F) << shift;
+                            shift += 7;
+                        } while ((b & 0x80) != 0);
+                    }
+                }
+                sb.append(SYMBOLS.charAt(symbol)).append("  ");
+                run--;
+            }
+        }
+        sb.append("\n\n").append("\tBandeiras Disponiveis: ").append(remainingFlags).append('\n');
+        return sb.toString();
+    }
+
+    /**
+     * Retorna o número de bytes das sequências codificadas.
+     *
+     * @return Tamanho da codificação.
+     */
+    public int encodedSize() {
+        return runs.length;
+    }
+
+    /**
+     * Escreve a fotografia num buffer: linhas, colunas, bandeiras, tamanho e sequências.
+     *
+     * @param buffer Buffer de destino, com pelo menos {@link #serializedSize()} bytes livres.
+     */
+    public void writeTo(ByteBuffer buffer) {
+        buffer.putInt(rows).putInt(cols).putInt(remainingFlags).putInt(runs.length).put(runs);
+    }
+
+    /**
+     * Retorna o número de bytes escritos por {@link #writeTo(ByteBuffer)}.
+     *
+     * @return Tamanho serializado.
+     */
+    public int serializedSize() {
+        return 16 + runs.length;
+    }
+
+    /**
+     * Lê uma fotografia escrita por {@link #writeTo(ByteBuffer)}.
+     *
+     * @param buffer Buffer de origem.
+     * @return Fotografia lida.
+     */
+    public static BoardSnapshot readFrom(ByteBuffer buffer) {
+        int rows = buffer.getInt();
+        int cols = buffer.getInt();
+        int remainingFlags = buffer.getInt();
+        byte[] runs = new byte[buffer.getInt()];
+        buffer.get(runs);
+        return new BoardSnapshot(rows, cols, remainingFlags, runs);
+    }
+}
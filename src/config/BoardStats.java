@@ -0,0 +1,14 @@
+package config;
+
+/**
+ * record class BoardStats
+ * Fotografia só de leitura dos contadores mantidos pelo {@link GameBoard}.
+ *
+ * @param coveredSafeCells Células sem mina que ainda não foram reveladas.
+ * @param flaggedMines Minas marcadas corretamente com bandeira.
+ * @param flagsPlaced Bandeiras colocadas no tabuleiro.
+ * @param remainingFlags Bandeiras ainda disponíveis.
+ * @param totalMines Número total de minas.
+ */
+public record BoardStats(int coveredSafeCells, int flaggedMines, int flagsPlaced, int remainingFlags, int totalMines) {
+}
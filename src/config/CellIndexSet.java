@@ -0,0 +1,131 @@
+package config;
+
+import java.util.Arrays;
+
+/**
+ * Conjunto de índices de células com inserção, remoção e escolha aleatória em tempo constante.
+ * Os elementos ficam num vetor denso e um segundo vetor guarda a posição de cada célula nesse vetor.
+ * Só as células fora de um conjunto excluído (as minas) podem pertencer ao conjunto, por isso os dois
+ * vetores têm uma posição por célula elegível: a posição de uma célula é procurada pela sua ordem entre
+ * as elegíveis, contada sobre as palavras do conjunto excluído.
+ */
+public class CellIndexSet {
+    private static final int ABSENT = -1;
+
+    private final BitBoard excluded;
+    private final int[] excludedRanks; // Ver BitBoard.wordRanks
+    private final int[] elements;
+    private final int[] positions; // Indexado pela ordem da célula entre as elegíveis
+    private int size;
+
+    /**
+     * Cria um conjunto vazio para as células que não pertencem a {@code excluded}. O conjunto excluído
+     * não pode mudar enquanto este for usado.
+     *
+     * @param excluded Células que nunca pertencem ao conjunto.
+     */
+    public CellIndexSet(BitBoard excluded) {
+        this.excluded = excluded;
+        excludedRanks = excluded.wordRanks();
+        int capacity = excluded.size() - excludedRanks[excludedRanks.length - 1];
+        elements = new int[capacity];
+        positions = new int[capacity];
+        Arrays.fill(positions, ABSENT);
+    }
+
+    /**
+     * Construtor de cópia, com os elementos pela mesma ordem.
+     *
+     * @param other Conjunto a copiar.
+     * @param excluded Cópia do conjunto excluído de {@code other}.
+     */
+    public CellIndexSet(CellIndexSet other, BitBoard excluded) {
+        this.excluded = excluded;
+        excludedRanks = other.excludedRanks;
+        elements = other.elements.clone();
+        positions = other.positions.clone();
+        size = other.size;
+    }
+
+    /**
+     * Ordem de uma célula elegível entre as elegíveis.
+     */
+    private int slot(int cell) {
+        return cell - excluded.countBelow(cell, excludedRanks);
+    }
+
+    /**
+     * Adiciona uma célula ao conjunto.
+     *
+     * @param cell Índice de uma célula fora do conjunto excluído.
+     * @return true se a célula ainda não estava no conjunto.
+     */
+    public boolean add(int cell) {
+        int slot = slot(cell);
+        if (positions[slot] != ABSENT)
+            return false;
+        elements[size] = cell;
+        positions[slot] = size++;
+        return true;
+    }
+
+    /**
+     * Remove uma célula do conjunto, trocando-a com o último elemento do vetor denso.
+     *
+     * @param cell Índice da célula.
+     * @return true se a célula estava no conjunto.
+     */
+    public boolean remove(int cell) {
+        if (excluded.get(cell))
+            return false;
+        int slot = slot(cell);
+        int position = positions[slot];
+        if (position == ABSENT)
+            return false;
+        int last = elements[--size];
+        elements[position] = last;
+        positions[slot(last)] = position;
+        positions[slot] = ABSENT;
+        return true;
+    }
+
+    /**
+     * Verifica se a célula pertence ao conjunto.
+     *
+     * @param cell Índice da célula.
+     * @return true se a célula estiver no conjunto.
+     */
+    public boolean contains(int cell) {
+        return !excluded.get(cell) && positions[slot(cell)] != ABSENT;
+    }
+
+    /**
+     * Retorna a célula numa posição do conjunto. A ordem muda com as remoções, mas qualquer posição
+     * abaixo de {@link #size()} é válida, o que permite escolher uma célula ao acaso em tempo constante.
+     *
+     * @param index Posição, entre 0 e {@code size() - 1}.
+     * @return Índice da célula nessa posição.
+     */
+    public int get(int index) {
+        return elements[index];
+    }
+
+    /**
+     * Retorna o número de células no conjunto.
+     *
+     * @return Tamanho do conjunto.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Remove todas as células do conjunto.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[slot(elements[i])] = ABSENT;
+        }
+        size = 0;
+    }
+}
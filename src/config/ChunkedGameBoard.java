@@ -0,0 +1,481 @@
+package config;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Tabuleiro dividido em blocos de {@value #TILE_SIZE}x{@value #TILE_SIZE} células, gerados só quando são tocados.
+ * <p>
+ * O número de minas de cada bloco é obtido descendo uma árvore de divisões hipergeométricas determinadas
+ * pela semente, por isso a soma de todos os blocos é sempre {@code totalMines} sem ser preciso gerar o
+ * tabuleiro inteiro. Criar o tabuleiro custa tempo constante e a memória cresce com a área explorada.
+ * Jogado com {@link LargeBoardGame}, a partir da opção {@code --chunked} da linha de comandos.
+ */
+public class ChunkedGameBoard implements Board {
+    public static final int TILE_SIZE = 64;
+    private static final int TILE_SHIFT = 6;
+    private static final int TILE_MASK = TILE_SIZE - 1;
+    private static final int TILE_CELLS = TILE_SIZE * TILE_SIZE;
+    private static final int EXACT_SAMPLING_LIMIT = 1 << 12; // Acima disto usa aproximação normal
+
+    private final int numRows;
+    private final int numCols;
+    private final long totalMines;
+    private final long seed;
+    private final int tileRows;
+    private final int tileCols;
+    private final Map<Long, Tile> tiles = new HashMap<>();
+    private long[] floodStack = new long[64];
+    private long lastTileKey = -1; // Cache do último bloco consultado, evita pesquisas no mapa
+    private Tile lastTile;
+    private long revealedSafeCells;
+    private long flaggedMines;
+    private long remainingFlags;
+
+    /**
+     * Bloco de células. As minas são geradas quando o bloco é criado; as contagens de minas adjacentes,
+     * que dependem dos blocos vizinhos, só quando uma célula do bloco é revelada.
+     */
+    private static final class Tile {
+        final long[] mines = new long[TILE_CELLS / 64];
+        final long[] flags = new long[TILE_CELLS / 64];
+        final long[] uncovered = new long[TILE_CELLS / 64];
+        byte[] adjacentMines;
+
+        boolean get(long[] bits, int index) {
+            return (bits[index >>> 6] & (1L << index)) != 0;
+        }
+    }
+
+    /**
+     * Constrói um tabuleiro por blocos. Nenhuma célula é gerada até ser usada.
+     *
+     * @param settings Configuração do tabuleiro.
+     * @param seed Semente que determina a posição de todas as minas.
+     */
+    public ChunkedGameBoard(GameConfiguration settings, long seed) {
+        this(settings.rows(), settings.cols(), settings.mines(), seed);
+    }
+
+    /**
+     * Constrói um tabuleiro por blocos. Nenhuma célula é gerada até ser usada.
+     *
+     * @param numRows Número de linhas do tabuleiro.
+     * @param numCols Número de colunas do tabuleiro.
+     * @param totalMines Número total de minas no tabuleiro.
+     * @param seed Semente que determina a posição de todas as minas.
+     */
+    public ChunkedGameBoard(int numRows, int numCols, long totalMines, long seed) {
+        if (numRows <= 0 || numCols <= 0 || totalMines < 0 || totalMines > (long) numRows * numCols)
+            throw new IllegalArgumentException("Configuração de tabuleiro inválida: " + numRows + "x" + numCols + " com " + totalMines + " minas");
+
+        this.numRows = numRows;
+        this.numCols = numCols;
+        this.totalMines = totalMines;
+        this.seed = seed;
+        this.tileRows = (numRows + TILE_MASK) >>> TILE_SHIFT;
+        this.tileCols = (numCols + TILE_MASK) >>> TILE_SHIFT;
+        this.remainingFlags = totalMines;
+    }
+
+    /**
+     * Retorna o número de linhas do tabuleiro.
+     *
+     * @return Número de linhas.
+     */
+    @Override
+    public int getRows() {
+        return numRows;
+    }
+
+    /**
+     * Retorna o número de colunas do tabuleiro.
+     *
+     * @return Número de colunas.
+     */
+    @Override
+    public int getCols() {
+        return numCols;
+    }
+
+    /**
+     * Verifica se uma célula contém uma mina.
+     *
+     * @param row Linha da célula.
+     * @param col Coluna da célula.
+     * @return true se a célula contiver uma mina.
+     */
+    @Override
+    public boolean isMine(int row, int col) {
+        Tile tile = tile(row >>> TILE_SHIFT, col >>> TILE_SHIFT);
+        return tile.get(tile.mines, localIndex(row, col));
+    }
+
+    /**
+     * Retorna o número de minas na vizinhança 3x3 da célula (incluindo a própria), como no {@link GameBoard}.
+     *
+     * @param row Linha da célula.
+     * @param col Coluna da célula.
+     * @return Número de minas adjacentes.
+     */
+    public int getAdjacentMines(int row, int col) {
+        return adjacency(tile(row >>> TILE_SHIFT, col >>> TILE_SHIFT), row, col)[localIndex(row, col)];
+    }
+
+    /**
+     * Revela a célula e, se não tiver minas adjacentes, toda a região ligada, atravessando blocos.
+     *
+     * @param row Linha da célula.
+     * @param col Coluna da célula.
+     * @return Número de células reveladas.
+     */
+    @Override
+    public long revealCell(int row, int col) {
+        if (!isValidCoordinate(row, col) || isUncovered(row, col) || isMine(row, col))
+            return 0;
+
+        long revealed = 0;
+        int stackSize = 0;
+        markUncovered(row, col);
+        floodStack[stackSize++] = pack(row, col);
+
+        while (stackSize > 0) {
+            long current = floodStack[--stackSize];
+            int currentRow = (int) (current >>> 32);
+            int currentCol = (int) current;
+            revealed++;
+
+            if (getAdjacentMines(currentRow, currentCol) != 0)
+                continue;
+
+            for (int i = Math.max(0, currentRow - 1); i <= Math.min(numRows - 1, currentRow + 1); i++) {
+                for (int j = Math.max(0, currentCol - 1); j <= Math.min(numCols - 1, currentCol + 1); j++) {
+                    if (!isUncovered(i, j) && !isMine(i, j)) {
+                        markUncovered(i, j);
+                        if (stackSize == floodStack.length)
+                            floodStack = Arrays.copyOf(floodStack, stackSize * 2);
+                        floodStack[stackSize++] = pack(i, j);
+                    }
+                }
+            }
+        }
+        revealedSafeCells += revealed;
+        return revealed;
+    }
+
+    /**
+     * Alterna o status da bandeira em uma célula.
+     *
+     * @param row Linha da célula.
+     * @param col Coluna da célula.
+     * @return true se a bandeira foi colocada/removida com sucesso.
+     */
+    @Override
+    public boolean toggleFlag(int row, int col) {
+        Tile tile = tile(row >>> TILE_SHIFT, col >>> TILE_SHIFT);
+        int index = localIndex(row, col);
+        boolean flagged = tile.get(tile.flags, index);
+        if (!flagged && remainingFlags <= 0)
+            return false;
+
+        tile.flags[index >>> 6] ^= 1L << index;
+        int delta = flagged ? -1 : 1;
+        remainingFlags -= delta;
+        if (tile.get(tile.mines, index))
+            flaggedMines += delta;
+        return true;
+    }
+
+    /**
+     * Verifica se o jogador venceu o jogo, a partir dos contadores mantidos incrementalmente.
+     *
+     * @return true se todas as minas estiverem marcadas ou todas as células seguras estiverem reveladas.
+     */
+    @Override
+    public boolean checkWin() {
+        return flaggedMines == totalMines || revealedSafeCells == (long) numRows * numCols - totalMines;
+    }
+
+    /**
+     * Verifica se uma coordenada é válida.
+     *
+     * @param row Linha da coordenada.
+     * @param col Coluna da coordenada.
+     * @return true se a coordenada estiver dentro dos limites.
+     */
+    @Override
+    public boolean isValidCoordinate(int row, int col) {
+        return (row >= 0 && row < numRows && col >= 0 && col < numCols);
+    }
+
+    /**
+     * Verifica se uma célula já foi revelada.
+     *
+     * @param row Linha da célula.
+     * @param col Coluna da célula.
+     * @return true se a célula estiver revelada.
+     */
+    @Override
+    public boolean isUncovered(int row, int col) {
+        Tile tile = findTile(row >>> TILE_SHIFT, col >>> TILE_SHIFT);
+        return tile != null && tile.get(tile.uncovered, localIndex(row, col));
+    }
+
+    /**
+     * Verifica se uma célula tem bandeira. Não gera o bloco se ainda não existir.
+     *
+     * @param row Linha da célula.
+     * @param col Coluna da célula.
+     * @return true se a célula tiver bandeira.
+     */
+    @Override
+    public boolean isFlagged(int row, int col) {
+        Tile tile = findTile(row >>> TILE_SHIFT, col >>> TILE_SHIFT);
+        return tile != null && tile.get(tile.flags, localIndex(row, col));
+    }
+
+    /**
+     * Retorna o número de blocos já gerados, que determina a memória ocupada.
+     *
+     * @return Número de blocos em memória.
+     */
+    public int getGeneratedTileCount() {
+        return tiles.size();
+    }
+
+    /**
+     * Retorna o número de bandeiras ainda disponíveis.
+     *
+     * @return Bandeiras disponíveis.
+     */
+    public long getRemainingFlags() {
+        return remainingFlags;
+    }
+
+    /**
+     * Constrói a representação em string de uma janela do tabuleiro, no formato do {@link GameBoard}.
+     * Só os blocos dentro da janela são gerados.
+     *
+     * @param firstRow Primeira linha da janela.
+     * @param firstCol Primeira coluna da janela.
+     * @param rows Número de linhas da janela.
+     * @param cols Número de colunas da janela.
+     * @return A janela do tabuleiro como uma string.
+     */
+    @Override
+    public String render(int firstRow, int firstCol, int rows, int cols) {
+        int lastRow = Math.min(numRows, firstRow + rows);
+        int lastCol = Math.min(numCols, firstCol + cols);
+        int labelWidth = Coordinates.rowLabelLength(lastRow - 1);
+        StringBuilder sb = new StringBuilder();
+        Coordinates.appendColumnHeader(sb, firstCol, lastCol, labelWidth).append('\n');
+        for (int i = firstRow; i < lastRow; i++) {
+            Coordinates.appendRowPrefix(sb, i, labelWidth);
+            for (int j = firstCol; j < lastCol; j++) {
+                sb.append(cellVisual(i, j)).append("  ");
+            }
+            sb.append('\n');
+        }
+        sb.append('\n').append("\tBandeiras Disponiveis: ").append(remainingFlags).append('\n');
+        return sb.toString();
+    }
+
+    /**
+     * Calcula o caractere de uma célula a partir do seu estado, com as mesmas regras do {@link GameBoard}.
+     */
+    private char cellVisual(int row, int col) {
+        Tile tile = findTile(row >>> TILE_SHIFT, col >>> TILE_SHIFT);
+        if (tile == null)
+            return '*';
+        int index = localIndex(row, col);
+        if (tile.get(tile.flags, index))
+            return 'F';
+        if (!tile.get(tile.uncovered, index))
+            return '*';
+        int adjacent = getAdjacentMines(row, col);
+        return adjacent > 0 ? (char) (adjacent + '0') : '*';
+    }
+
+    /**
+     * Marca uma célula como revelada.
+     */
+    private void markUncovered(int row, int col) {
+        Tile tile = tile(row >>> TILE_SHIFT, col >>> TILE_SHIFT);
+        int index = localIndex(row, col);
+        tile.uncovered[index >>> 6] |= 1L << index;
+    }
+
+    /**
+     * Retorna o bloco indicado, gerando as suas minas se for a primeira vez que é usado.
+     */
+    private Tile tile(int tileRow, int tileCol) {
+        Tile tile = findTile(tileRow, tileCol);
+        if (tile == null) {
+            tile = generateTile(tileRow, tileCol);
+            tiles.put(lastTileKey, tile);
+            lastTile = tile;
+        }
+        return tile;
+    }
+
+    /**
+     * Retorna o bloco indicado se já tiver sido gerado, ou null caso contrário.
+     */
+    private Tile findTile(int tileRow, int tileCol) {
+        long key = tileKey(tileRow, tileCol);
+        if (key != lastTileKey) {
+            lastTileKey = key;
+            lastTile = tiles.get(key);
+        }
+        return lastTile;
+    }
+
+    /**
+     * Retorna as contagens de minas adjacentes do bloco, calculando-as na primeira utilização.
+     * As células da margem consultam as minas dos blocos vizinhos, que são gerados se necessário.
+     */
+    private byte[] adjacency(Tile tile, int row, int col) {
+        if (tile.adjacentMines != null)
+            return tile.adjacentMines;
+
+        // Copia as minas do bloco e de uma margem de uma célula dos vizinhos para uma grelha com moldura
+        int baseRow = row & ~TILE_MASK;
+        int baseCol = col & ~TILE_MASK;
+        int padded = TILE_SIZE + 2;
+        byte[] mines = new byte[padded * padded];
+        for (int i = -1; i <= TILE_SIZE; i++) {
+            int r = baseRow + i;
+            if (r < 0 || r >= numRows)
+                continue;
+            for (int j = -1; j <= TILE_SIZE; j++) {
+                int c = baseCol + j;
+                if (c >= 0 && c < numCols && isMine(r, c))
+                    mines[(i + 1) * padded + j + 1] = 1;
+            }
+        }
+
+        byte[] counts = new byte[TILE_CELLS];
+        for (int i = 0; i < TILE_SIZE; i++) {
+            for (int j = 0; j < TILE_SIZE; j++) {
+                int center = (i + 1) * padded + j + 1;
+                counts[i * TILE_SIZE + j] = (byte) (mines[center - padded - 1] + mines[center - padded] + mines[center - padded + 1]
+                        + mines[center - 1] + mines[center] + mines[center + 1]
+                        + mines[center + padded - 1] + mines[center + padded] + mines[center + padded + 1]);
+            }
+        }
+        tile.adjacentMines = counts;
+        return counts;
+    }
+
+    /**
+     * Gera as minas de um bloco: obtém quantas lhe cabem e sorteia-as com o algoritmo de Floyd.
+     */
+    private Tile generateTile(int tileRow, int tileCol) {
+        Tile tile = new Tile();
+        int height = Math.min(TILE_SIZE, numRows - (tileRow << TILE_SHIFT));
+        int width = Math.min(TILE_SIZE, numCols - (tileCol << TILE_SHIFT));
+        int cells = height * width;
+        long tileIndex = (long) tileRow * tileCols + tileCol;
+        int mines = (int) minesInTile(tileIndex);
+
+        SplittableRandom rand = new SplittableRandom(Seeds.mix(seed, tileIndex));
+        for (int j = cells - mines; j < cells; j++) {
+            int cell = rand.nextInt(j + 1);
+            int index = (cell / width) * TILE_SIZE + cell % width;
+            if (tile.get(tile.mines, index))
+                index = (j / width) * TILE_SIZE + j % width;
+            tile.mines[index >>> 6] |= 1L << index;
+        }
+        return tile;
+    }
+
+    /**
+     * Desce a árvore de divisões desde a raiz até ao bloco. Em cada nó as minas do intervalo de blocos
+     * são repartidas entre as duas metades por uma amostra hipergeométrica determinada pela semente.
+     */
+    private long minesInTile(long tileIndex) {
+        long low = 0;
+        long high = (long) tileRows * tileCols;
+        long mines = totalMines;
+        while (high - low > 1) {
+            long mid = (low + high) >>> 1;
+            long total = cellsBefore(high) - cellsBefore(low);
+            long left = cellsBefore(mid) - cellsBefore(low);
+            SplittableRandom rand = new SplittableRandom(Seeds.mix(Seeds.mix(seed, low), high));
+            long leftMines = sampleHypergeometric(rand, total, mines, left);
+            if (tileIndex < mid) {
+                high = mid;
+                mines = leftMines;
+            } else {
+                low = mid;
+                mines -= leftMines;
+            }
+        }
+        return mines;
+    }
+
+    /**
+     * Número de células nos blocos com índice inferior a {@code tileIndex} (por ordem de linhas).
+     */
+    private long cellsBefore(long tileIndex) {
+        long tileRow = tileIndex / tileCols;
+        long tileCol = tileIndex % tileCols;
+        long rowsBefore = Math.min(tileRow << TILE_SHIFT, numRows);
+        long heightOfRow = Math.min(TILE_SIZE, numRows - rowsBefore);
+        return rowsBefore * numCols + Math.max(0, heightOfRow) * Math.min(tileCol << TILE_SHIFT, numCols);
+    }
+
+    /**
+     * Sorteia quantas de {@code mines} minas, espalhadas por {@code total} células, caem nas primeiras
+     * {@code drawn} células. Para amostras pequenas o sorteio é exato; para grandes usa a aproximação normal.
+     */
+    private static long sampleHypergeometric(SplittableRandom rand, long total, long mines, long drawn) {
+        long min = Math.max(0, mines - (total - drawn));
+        long max = Math.min(mines, drawn);
+        if (min == max)
+            return min;
+
+        if (Math.min(drawn, total - drawn) <= EXACT_SAMPLING_LIMIT) {
+            long small = Math.min(drawn, total - drawn);
+            long hits = 0;
+            long remainingMines = mines;
+            long remainingCells = total;
+            for (long k = 0; k < small; k++) {
+                if (rand.nextLong(remainingCells) < remainingMines) {
+                    hits++;
+                    remainingMines--;
+                }
+                remainingCells--;
+            }
+            return small == drawn ? hits : mines - hits;
+        }
+
+        double p = (double) mines / total;
+        double mean = drawn * p;
+        double variance = drawn * p * (1 - p) * (total - drawn) / (total - 1.0);
+        long sample = Math.round(mean + Math.sqrt(variance) * gaussian(rand));
+        return Math.max(min, Math.min(max, sample));
+    }
+
+    /**
+     * Amostra de uma normal padrão (método de Box-Muller).
+     */
+    private static double gaussian(SplittableRandom rand) {
+        double u = 1.0 - rand.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * rand.nextDouble());
+    }
+
+    private static long tileKey(int tileRow, int tileCol) {
+        return ((long) tileRow << 32) | (tileCol & 0xFFFFFFFFL);
+    }
+
+    private static long pack(int row, int col) {
+        return ((long) row << 32) | (col & 0xFFFFFFFFL);
+    }
+
+    private static int localIndex(int row, int col) {
+        return (row & TILE_MASK) * TILE_SIZE + (col & TILE_MASK);
+    }
+}
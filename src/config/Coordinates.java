@@ -1,5 +1,13 @@
 package config;
 
+/**
+ * Coordenada de uma célula (linha e coluna).
+ * <p>
+ * Nos caminhos frequentes (preenchimento, solucionadores, dicas, bots) as células circulam como um único
+ * {@code int}, o índice {@code linha * colunas + coluna} usado pelos conjuntos de bits; os métodos
+ * estáticos desta classe convertem entre as duas formas sem criar objetos. Os objetos {@code Coordinates}
+ * ficam para as fronteiras com o jogador.
+ */
 public class Coordinates {
     /**
      * Linhas de cordenada
@@ -18,8 +26,231 @@ public class Coordinates {
         this.y = y;
     }
 
+    /**
+     * Cria a coordenada de um índice de célula.
+     *
+     * @param cell Índice da célula ({@code linha * colunas + coluna}).
+     * @param cols Número de colunas do tabuleiro.
+     * @return Coordenada da célula.
+     */
+    public static Coordinates of(int cell, int cols) {
+        return new Coordinates(cell / cols, cell % cols);
+    }
+
+    /**
+     * Retorna a linha da coordenada.
+     *
+     * @return Linha (a partir de 0).
+     */
+    public int getRow() {
+        return x;
+    }
+
+    /**
+     * Retorna a coluna da coordenada.
+     *
+     * @return Coluna (a partir de 0).
+     */
+    public int getCol() {
+        return y;
+    }
+
+    /**
+     * Retorna o índice da célula num tabuleiro.
+     *
+     * @param cols Número de colunas do tabuleiro.
+     * @return Índice da célula ({@code linha * colunas + coluna}).
+     */
+    public int toCell(int cols) {
+        return cell(x, y, cols);
+    }
+
+    /**
+     * Converte uma linha e uma coluna no índice da célula.
+     *
+     * @param row Linha da célula.
+     * @param col Coluna da célula.
+     * @param cols Número de colunas do tabuleiro.
+     * @return Índice da célula ({@code linha * colunas + coluna}).
+     */
+    public static int cell(int row, int col, int cols) {
+        return row * cols + col;
+    }
+
+    /**
+     * Retorna a linha de um índice de célula.
+     *
+     * @param cell Índice da célula.
+     * @param cols Número de colunas do tabuleiro.
+     * @return Linha da célula.
+     */
+    public static int rowOf(int cell, int cols) {
+        return cell / cols;
+    }
+
+    /**
+     * Retorna a coluna de um índice de célula.
+     *
+     * @param cell Índice da célula.
+     * @param cols Número de colunas do tabuleiro.
+     * @return Coluna da célula.
+     */
+    public static int colOf(int cell, int cols) {
+        return cell % cols;
+    }
+
+    /**
+     * Acrescenta a coordenada de um índice de célula a um {@link StringBuilder}, no mesmo formato de
+     * {@link #toString()} ("B 7"), sem criar objetos intermédios.
+     *
+     * @param sb Destino da coordenada.
+     * @param cell Índice da célula.
+     * @param cols Número de colunas do tabuleiro.
+     * @return O mesmo {@link StringBuilder}.
+     */
+    public static StringBuilder appendCell(StringBuilder sb, int cell, int cols) {
+        return appendRowLabel(sb, cell / cols).append(' ').append(cell % cols);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Coordinates other && x == other.x && y == other.y;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * x + y;
+    }
+
     @Override
     public String toString() {
-        return String.format("%c %d", (char)('A' + x), y);
+        return rowLabel(x) + " " + y;
+    }
+
+    /**
+     * Converte o índice de uma linha na sua etiqueta: A..Z, AA..AZ, BA.. (base 26 bijetiva),
+     * o que permite tabuleiros com qualquer número de linhas.
+     *
+     * @param row Índice da linha (a partir de 0).
+     * @return Etiqueta da linha.
+     */
+    public static String rowLabel(int row) {
+        return appendRowLabel(new StringBuilder(4), row).toString();
+    }
+
+    /**
+     * Acrescenta a etiqueta de uma linha a um {@link StringBuilder}, sem criar strings intermédias.
+     *
+     * @param sb Destino da etiqueta.
+     * @param row Índice da linha (a partir de 0).
+     * @return O mesmo {@link StringBuilder}.
+     */
+    public static StringBuilder appendRowLabel(StringBuilder sb, int row) {
+        int length = rowLabelLength(row);
+        int start = sb.length();
+        sb.setLength(start + length);
+        for (int i = length - 1, value = row; i >= 0; i--) {
+            sb.setCharAt(start + i, (char) ('A' + value % 26));
+            value = value / 26 - 1;
+        }
+        return sb;
+    }
+
+    /**
+     * Acrescenta o cabeçalho de uma grelha impressa: o canto "X⠀" seguido dos números das colunas,
+     * alinhados com as células das linhas escritas por {@link #appendRowPrefix}. Não termina a linha.
+     *
+     * @param sb Destino do cabeçalho.
+     * @param firstCol Primeira coluna mostrada.
+     * @param lastCol Coluna a seguir à última mostrada.
+     * @param labelWidth Largura da etiqueta de linha mais comprida da grelha.
+     * @return O mesmo {@link StringBuilder}.
+     */
+    public static StringBuilder appendColumnHeader(StringBuilder sb, int firstCol, int lastCol, int labelWidth) {
+        sb.append("X⠀ ");
+        for (int k = 1; k < labelWidth; k++) {
+            sb.append(' ');
+        }
+        for (int j = firstCol; j < lastCol; j++) {
+            sb.append(j).append("  ");
+        }
+        return sb;
+    }
+
+    /**
+     * Acrescenta o início de uma linha de uma grelha impressa: a etiqueta da linha, completada com espaços
+     * até {@code labelWidth}, e o espaço que a separa das células.
+     *
+     * @param sb Destino do prefixo.
+     * @param row Índice da linha.
+     * @param labelWidth Largura da etiqueta de linha mais comprida da grelha.
+     * @return O mesmo {@link StringBuilder}.
+     */
+    public static StringBuilder appendRowPrefix(StringBuilder sb, int row, int labelWidth) {
+        int labelStart = sb.length();
+        appendRowLabel(sb, row);
+        while (sb.length() - labelStart < labelWidth) {
+            sb.append(' ');
+        }
+        return sb.append("  ");
+    }
+
+    /**
+     * Retorna o número de letras da etiqueta de uma linha.
+     *
+     * @param row Índice da linha (a partir de 0).
+     * @return Comprimento da etiqueta.
+     */
+    public static int rowLabelLength(int row) {
+        int length = 1;
+        for (long limit = 26; row >= limit; limit = (limit + 1) * 26) {
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * Interpreta a linha escrita pelo jogador: uma etiqueta de letras (A, Z, AA, ...) ou um número.
+     *
+     * @param text Texto da linha, sem distinção entre maiúsculas e minúsculas.
+     * @return Índice da linha, ou -1 se o texto não for válido.
+     */
+    public static int parseRow(CharSequence text) {
+        if (text.length() == 0)
+            return -1;
+        if (Character.isDigit(text.charAt(0)))
+            return parseNumber(text);
+
+        long row = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toUpperCase(text.charAt(i));
+            if (c < 'A' || c > 'Z')
+                return -1;
+            row = row * 26 + (c - 'A' + 1);
+            if (row > Integer.MAX_VALUE)
+                return -1;
+        }
+        return (int) row - 1;
+    }
+
+    /**
+     * Interpreta um número não negativo.
+     *
+     * @param text Texto com apenas dígitos.
+     * @return O número, ou -1 se o texto não for válido.
+     */
+    public static int parseNumber(CharSequence text) {
+        if (text.length() == 0)
+            return -1;
+        long value = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9')
+                return -1;
+            value = value * 10 + (c - '0');
+            if (value > Integer.MAX_VALUE)
+                return -1;
+        }
+        return (int) value;
     }
 }
@@ -1,5 +1,6 @@
 package config;
 
+import Enums.Difficulty;
 import Enums.GameStatus;
 
 /**
@@ -9,19 +10,104 @@ import Enums.GameStatus;
 public class Game {
     private GameStatus gameStatus;
     private String nickname;
-    private String board;
+    private BoardSnapshot board; // Desenhado só quando o jogo é mostrado
+    private GameConfiguration settings;
+    private long seed;
+    private long durationMillis;
+    private GameRecording recording; // Jogadas do jogo, para o reproduzir; null nos jogos de versões antigas
 
     /**
      * Construtor para criar uma nova instância de {@code Game}.
      *
      * @param gameStatus o status atual do jogo, representado por {@link GameStatus}.
      * @param nickname o apelido do jogador.
-     * @param board o estado do tabuleiro do jogo.
+     * @param board o estado do tabuleiro do jogo no fim.
+     * @param settings a configuração do tabuleiro.
+     * @param seed a semente com que o tabuleiro foi gerado.
+     * @param durationMillis a duração do jogo em milissegundos.
+     * @param recording a gravação das jogadas do jogo, ou null se não existir.
      */
-    public Game(GameStatus gameStatus, String nickname, String board) {
+    public Game(GameStatus gameStatus, String nickname, BoardSnapshot board, GameConfiguration settings, long seed,
+                long durationMillis, GameRecording recording) {
         this.gameStatus = gameStatus;
         this.nickname = nickname;
         this.board = board;
+        this.settings = settings;
+        this.seed = seed;
+        this.durationMillis = durationMillis;
+        this.recording = recording;
+    }
+
+    /**
+     * Retorna o status do jogo.
+     *
+     * @return o status do jogo.
+     */
+    public GameStatus getGameStatus() {
+        return gameStatus;
+    }
+
+    /**
+     * Retorna o apelido do jogador.
+     *
+     * @return o apelido do jogador.
+     */
+    public String getNickname() {
+        return nickname;
+    }
+
+    /**
+     * Retorna o estado do tabuleiro no fim do jogo.
+     *
+     * @return a fotografia do tabuleiro.
+     */
+    public BoardSnapshot getBoard() {
+        return board;
+    }
+
+    /**
+     * Retorna a configuração do tabuleiro.
+     *
+     * @return a configuração do tabuleiro.
+     */
+    public GameConfiguration getSettings() {
+        return settings;
+    }
+
+    /**
+     * Retorna a dificuldade predefinida do jogo.
+     *
+     * @return a dificuldade, ou null se o tabuleiro tiver uma configuração personalizada.
+     */
+    public Difficulty getDifficulty() {
+        return Difficulty.valueOfSettings(settings);
+    }
+
+    /**
+     * Retorna a semente com que o tabuleiro foi gerado.
+     *
+     * @return a semente do tabuleiro.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Retorna a duração do jogo.
+     *
+     * @return a duração em milissegundos.
+     */
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * Retorna a gravação das jogadas do jogo.
+     *
+     * @return a gravação do jogo, ou null nos jogos guardados antes de as jogadas serem gravadas.
+     */
+    public GameRecording getRecording() {
+        return recording;
     }
 
     /**
@@ -32,6 +118,18 @@ public class Game {
      */
     @Override
     public String toString(){
-        return "\tAlcunha: " + nickname + "\n" + "\tResultado: " + gameStatus + "\n\n" + board;
+        Difficulty difficulty = getDifficulty();
+        StringBuilder sb = new StringBuilder();
+        sb.append("\tAlcunha: ").append(nickname).append('\n');
+        sb.append("\tResultado: ").append(gameStatus).append('\n');
+        sb.append("\tDificuldade: ");
+        if (difficulty != null)
+            sb.append(difficulty);
+        else
+            sb.append(settings.rows()).append('x').append(settings.cols()).append(", ").append(settings.mines()).append(" minas");
+        sb.append('\n').append("\tDuração: ");
+        GameBoard.appendElapsedTime(sb, durationMillis);
+        sb.append("\n\n").append(board.render());
+        return sb.toString();
     }
 }
@@ -1,20 +1,48 @@
 package config;
 
+import metrics.FloodFillEvent;
+import metrics.Metrics;
+import metrics.Probe;
+
+import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
-public class GameBoard {
-    private final char[][] displayGrid;
-    private final int[][] adjacentMinesGrid;
-    private final boolean[][] mineLocations;
-    private final boolean[][] flagLocations;
-    private final boolean[][] uncoveredCells;
+public class GameBoard implements Board {
+    private static final long LEGACY_HINT_STREAM = 0x9E3779B97F4A7C15L; // Afastava as sementes das dicas antigas da semente das minas
+    private static final int DEFAULT_VIEW_ROWS = 26; // Tamanho máximo da janela mostrada por toString
+    private static final int DEFAULT_VIEW_COLS = 40;
+
+    private final byte[] adjacentMines; // Minas na vizinhança 3x3, indexadas como os mapas de bits
+    private final BitBoard mineLocations;  // Um bit por célula, indexado por linha * numCols + coluna
+    private final BitBoard flagLocations;
+    private final BitBoard uncoveredCells;
+    private final IntStack floodStack = new IntStack(64); // Reutilizada entre chamadas a revealCell
+    private final IntStack revealedCells = new IntStack(64); // Células reveladas na última chamada
+    private CellIndexSet coveredSafeCellIndex; // Células seguras por revelar, usadas pelas dicas; criado com as minas
+
+    private final long seed;
+    private long hintDraws; // Dicas aleatórias pedidas até agora; cada uma tem os seus bits, ver nextHintBits
+    private boolean legacyHints; // Dicas sorteadas como nas gravações antigas, ver useLegacyHints
+    private boolean safeFirstClick; // Só muda ao restaurar um jogo guardado
+    private int startCell = -1; // Célula inicial com a vizinhança sem minas, ou -1
+    private boolean minesPlaced;
     private final int numRows;
     private final int numCols;
     private final int totalMines;
     private int remainingFlags;
-    private final long startTime;
+    private int coveredSafeCells; // Contadores mantidos incrementalmente, ver checkWin
+    private int flaggedMines;
+    private int flagsPlaced;
+    private long startTime;
     private boolean isCheatEnabled;
+    private int viewRow; // Canto superior esquerdo e tamanho da janela visível
+    private int viewCol;
+    private final int viewRows;
+    private final int viewCols;
+    private BitBoard dirtyCells; // Só existe com o registo de células alteradas ativo
+    private final IntStack dirtyCellList = new IntStack(64);
 
     /**
      * Constrói um tabuleiro com o número de linhas, colunas e minas especificado.
@@ -24,123 +52,396 @@ public class GameBoard {
      * @param totalMines Número total de minas no tabuleiro.
      */
     public GameBoard(int numRows, int numCols, int totalMines) {
+        this(numRows, numCols, totalMines, ThreadLocalRandom.current().nextLong(), false);
+    }
+
+    /**
+     * Constrói um tabuleiro reprodutível: a mesma semente e configuração geram sempre o mesmo tabuleiro.
+     *
+     * @param settings Configuração do tabuleiro.
+     * @param seed Semente usada para colocar as minas e escolher as dicas.
+     * @param safeFirstClick Se true, as minas só são colocadas na primeira célula revelada, excluindo-a.
+     */
+    public GameBoard(GameConfiguration settings, long seed, boolean safeFirstClick) {
+        this(settings.rows(), settings.cols(), settings.mines(), seed, safeFirstClick);
+    }
+
+    /**
+     * Constrói um tabuleiro reprodutível a partir de uma semente.
+     *
+     * @param numRows Número de linhas do tabuleiro.
+     * @param numCols Número de colunas do tabuleiro.
+     * @param totalMines Número total de minas no tabuleiro.
+     * @param seed Semente usada para colocar as minas e escolher as dicas.
+     * @param safeFirstClick Se true, as minas só são colocadas na primeira célula revelada, excluindo-a.
+     */
+    public GameBoard(int numRows, int numCols, int totalMines, long seed, boolean safeFirstClick) {
+        if (numRows <= 0 || numCols <= 0 || (long) numRows * numCols > Integer.MAX_VALUE || totalMines < 0
+                || totalMines > numRows * numCols)
+            throw new IllegalArgumentException("Configuração de tabuleiro inválida: " + numRows + "x" + numCols + " com " + totalMines + " minas");
+
         this.numRows = numRows;
         this.numCols = numCols;
         this.totalMines = totalMines;
+        this.seed = seed;
+        this.safeFirstClick = safeFirstClick;
         remainingFlags = totalMines;
+        coveredSafeCells = numRows * numCols - totalMines;
+        viewRows = Math.min(numRows, DEFAULT_VIEW_ROWS);
+        viewCols = Math.min(numCols, DEFAULT_VIEW_COLS);
 
         startTime = System.currentTimeMillis();
 
-        displayGrid = new char[numRows][numCols];
-        mineLocations = new boolean[numRows][numCols];
-        uncoveredCells = new boolean[numRows][numCols];
-        flagLocations = new boolean[numRows][numCols];
-        adjacentMinesGrid = new int[numRows][numCols];
+        mineLocations = new BitBoard(numRows * numCols);
+        uncoveredCells = new BitBoard(numRows * numCols);
+        flagLocations = new BitBoard(numRows * numCols);
+        adjacentMines = new byte[numRows * numCols];
+        if (!safeFirstClick)
+            placeMines(new int[0]);
+    }
+
+    /**
+     * Constrói um tabuleiro reprodutível em que a célula inicial e as suas vizinhas não têm minas,
+     * de forma que a primeira célula aberta é sempre um zero. Se não houver espaço para excluir a
+     * vizinhança, só a célula inicial é excluída.
+     *
+     * @param settings Configuração do tabuleiro.
+     * @param seed Semente usada para colocar as minas e escolher as dicas.
+     * @param startRow Linha da célula inicial.
+     * @param startCol Coluna da célula inicial.
+     */
+    public GameBoard(GameConfiguration settings, long seed, int startRow, int startCol) {
+        this(settings.rows(), settings.cols(), settings.mines(), seed, true);
+        if (!isValidCoordinate(startRow, startCol))
+            throw new IllegalArgumentException("Célula inicial inválida: " + startRow + " " + startCol);
 
-        for (int i = 0; i < numRows; i++) {
-            for (int j = 0; j < numCols; j++) {
-                displayGrid[i][j] = '*';
+        startCell = cellIndex(startRow, startCol);
+        IntStack zone = new IntStack(9);
+        for (int i = Math.max(0, startRow - 1); i <= Math.min(numRows - 1, startRow + 1); i++) {
+            for (int j = Math.max(0, startCol - 1); j <= Math.min(numCols - 1, startCol + 1); j++) {
+                zone.push(cellIndex(i, j)); // Já por ordem crescente
             }
         }
-        placeMines();
+        placeMines(numRows * numCols - zone.size() >= totalMines ? zone.toArray() : new int[]{cellIndex(startRow, startCol)});
     }
 
     /**
-     * Coloca minas aleatoriamente no tabuleiro.
+     * Construtor de cópia: o novo tabuleiro tem o mesmo estado, incluindo as dicas que ainda vai sortear,
+     * e evolui de forma independente. O registo de células alteradas não é copiado.
+     *
+     * @param other Tabuleiro a copiar.
      */
-    private void placeMines() {
-        Random rand = new Random();
-        int minesPlaced = 0;
+    public GameBoard(GameBoard other) {
+        numRows = other.numRows;
+        numCols = other.numCols;
+        totalMines = other.totalMines;
+        seed = other.seed;
+        hintDraws = other.hintDraws;
+        legacyHints = other.legacyHints;
+        safeFirstClick = other.safeFirstClick;
+        startCell = other.startCell;
+        minesPlaced = other.minesPlaced;
+        remainingFlags = other.remainingFlags;
+        coveredSafeCells = other.coveredSafeCells;
+        flaggedMines = other.flaggedMines;
+        flagsPlaced = other.flagsPlaced;
+        startTime = other.startTime;
+        isCheatEnabled = other.isCheatEnabled;
+        viewRow = other.viewRow;
+        viewCol = other.viewCol;
+        viewRows = other.viewRows;
+        viewCols = other.viewCols;
+
+        adjacentMines = other.adjacentMines.clone();
+        mineLocations = new BitBoard(other.mineLocations);
+        uncoveredCells = new BitBoard(other.uncoveredCells);
+        flagLocations = new BitBoard(other.flagLocations);
+        coveredSafeCellIndex = other.coveredSafeCellIndex == null ? null
+                : new CellIndexSet(other.coveredSafeCellIndex, mineLocations);
+    }
 
-        while (minesPlaced < totalMines) {
-            int row = rand.nextInt(numRows);
-            int col = rand.nextInt(numCols);
+    /**
+     * Reconstrói um tabuleiro guardado com {@link #writeCells(ByteBuffer)}. Só os conjuntos de minas,
+     * células reveladas e bandeiras vêm do ficheiro; contagens, contadores e índice de células seguras
+     * são recalculados a partir deles.
+     *
+     * @param settings Configuração do tabuleiro.
+     * @param seed Semente do tabuleiro.
+     * @param safeFirstClick Se as minas só são colocadas na primeira célula revelada.
+     * @param startCell Célula inicial, ou -1.
+     * @param hintDraws Dicas aleatórias já sorteadas.
+     * @param minesPlaced Se as minas já foram colocadas.
+     * @param cheat Se o modo de batota está ativo.
+     * @param elapsedMillis Tempo de jogo já decorrido.
+     * @param cells Buffer posicionado no início dos conjuntos de células.
+     * @return Tabuleiro restaurado.
+     */
+    static GameBoard restore(GameConfiguration settings, long seed, boolean safeFirstClick, int startCell, long hintDraws,
+                             boolean minesPlaced, boolean cheat, long elapsedMillis, ByteBuffer cells) {
+        GameBoard board = new GameBoard(settings, seed, true); // Sem colocar minas, que vêm do ficheiro
+        board.safeFirstClick = safeFirstClick;
+        board.startCell = startCell;
+        board.hintDraws = hintDraws;
+        board.isCheatEnabled = cheat;
+        board.mineLocations.readFrom(cells);
+        board.uncoveredCells.readFrom(cells);
+        board.flagLocations.readFrom(cells);
 
-            if (!mineLocations[row][col]) {
-                mineLocations[row][col] = true;
-                minesPlaced++;
+        board.flagsPlaced = board.flagLocations.cardinality();
+        board.remainingFlags = board.totalMines - board.flagsPlaced;
+        if (minesPlaced) {
+            board.minesPlaced = true;
+            board.calculateAdjacentMines();
+            board.coveredSafeCellIndex = new CellIndexSet(board.mineLocations);
+            int cellCount = board.numRows * board.numCols;
+            for (int cell = 0; cell < cellCount; cell++) {
+                if (!board.mineLocations.get(cell) && !board.uncoveredCells.get(cell))
+                    board.coveredSafeCellIndex.add(cell);
             }
+            board.flaggedMines = board.flagLocations.countAnd(board.mineLocations);
         }
+        board.coveredSafeCells = board.numRows * board.numCols - board.totalMines - board.uncoveredCells.cardinality();
+        board.startTime = System.currentTimeMillis() - elapsedMillis;
+        return board;
+    }
 
-        calculateAdjacentMines();
+    /**
+     * Escreve os conjuntos de minas, células reveladas e bandeiras, um bit por célula.
+     *
+     * @param buffer Buffer de destino, com pelo menos {@link #cellStateBytes()} bytes livres.
+     */
+    void writeCells(ByteBuffer buffer) {
+        mineLocations.writeTo(buffer);
+        uncoveredCells.writeTo(buffer);
+        flagLocations.writeTo(buffer);
     }
 
     /**
-     * Calcula o número de minas adjacentes para cada célula.
+     * Retorna o número de bytes escritos por {@link #writeCells(ByteBuffer)}.
+     *
+     * @return Tamanho dos conjuntos de células.
      */
-    private void calculateAdjacentMines() {
-        for (int i = 0; i < numRows; i++) {
-            for (int j = 0; j < numCols; j++) {
-                adjacentMinesGrid[i][j] = countAdjacentMines(i, j);
-            }
-        }
+    int cellStateBytes() {
+        return 3 * mineLocations.serializedSize();
     }
 
     /**
-     * Conta o número de minas adjacentes a uma célula.
+     * Coloca minas aleatoriamente no tabuleiro com o algoritmo de Floyd, que sorteia exatamente
+     * {@code totalMines} células distintas sem rejeições, qualquer que seja a densidade de minas.
      *
-     * @param row Linha da célula.
-     * @param col Coluna da célula.
-     * @return Número de minas adjacentes.
+     * @param excludedCells Índices, por ordem crescente, das células que não podem ter mina.
      */
-    private int countAdjacentMines(int row, int col) {
-        int count = 0;
+    private void placeMines(int[] excludedCells) {
+        int cellCount = numRows * numCols;
+        if (cellCount - excludedCells.length < totalMines)
+            excludedCells = new int[0]; // Não há espaço para excluir células
 
-        for (int i = -1; i <= 1; i++) {
-            for (int j = -1; j <= 1; j++) {
-                int newRow = row + i;
-                int newCol = col + j;
-                if (newRow >= 0 && newRow < numRows && newCol >= 0 && newCol < numCols && mineLocations[newRow][newCol]) {
-                    count++;
-                }
-            }
+        SplittableRandom rand = new SplittableRandom(seed);
+        int candidates = cellCount - excludedCells.length;
+
+        for (int j = candidates - totalMines; j < candidates; j++) {
+            int cell = skipExcluded(rand.nextInt(j + 1), excludedCells);
+            if (mineLocations.get(cell))
+                cell = skipExcluded(j, excludedCells);
+            mineLocations.set(cell);
         }
-        return count;
+        minesPlaced = true;
+
+        calculateAdjacentMines();
+        coveredSafeCellIndex = new CellIndexSet(mineLocations); // As minas já não mudam
+        for (int cell = 0; cell < numRows * numCols; cell++) {
+            if (!mineLocations.get(cell) && !uncoveredCells.get(cell))
+                coveredSafeCellIndex.add(cell);
+        }
+        coveredSafeCells = numRows * numCols - totalMines - uncoveredCells.cardinality();
+        flaggedMines = flagLocations.countAnd(mineLocations);
+        if (isCheatEnabled)
+            markCoveredMinesDirty(); // As minas passam a ser mostradas
+    }
+
+    /**
+     * Converte um índice entre os candidatos no índice da célula, saltando as células excluídas.
+     *
+     * @param candidate Índice entre os candidatos.
+     * @param excludedCells Células excluídas, por ordem crescente.
+     * @return Índice da célula no tabuleiro.
+     */
+    private static int skipExcluded(int candidate, int[] excludedCells) {
+        for (int excluded : excludedCells) {
+            if (candidate >= excluded)
+                candidate++;
+        }
+        return candidate;
+    }
+
+    /**
+     * Calcula o número de minas adjacentes para cada célula, numa só passagem pelo mapa de minas.
+     */
+    private void calculateAdjacentMines() {
+        AdjacencyCounter.count(mineLocations, numRows, numCols, adjacentMines);
     }
 
     /**
      * Revela a célula e as células vizinhas se não houver minas ou minas adjacentes.
+     * Usa uma pilha explícita em vez de recursão: cada célula é marcada como revelada ao entrar
+     * na pilha, por isso é visitada uma única vez e a pilha nunca excede o tamanho da região.
      *
      * @param row Linha da célula.
      * @param col Coluna da célula.
+     * @return Número de células reveladas por esta chamada (ver {@link #getLastRevealedCells()}).
      */
-    public void revealCell(int row, int col) {
-        if (!isValidCoordinate(row, col) || uncoveredCells[row][col] || mineLocations[row][col])
-            return;
+    @Override
+    public long revealCell(int row, int col) {
+        return revealCell(isValidCoordinate(row, col) ? cellIndex(row, col) : -1);
+    }
 
-        uncoveredCells[row][col] = true;
-        updateCellVisual(row, col);
+    /**
+     * Revela uma célula dada pelo seu índice, ver {@link #revealCell(int, int)}.
+     *
+     * @param cell Índice da célula ({@code linha * colunas + coluna}).
+     * @return Número de células reveladas por esta chamada.
+     */
+    public int revealCell(int cell) {
+        long start = Metrics.start();
+        int revealed = floodFill(cell);
+        Metrics.stop(Probe.REVEAL_CELL, start);
+        Metrics.record(Probe.CELLS_REVEALED, revealed);
+        return revealed;
+    }
 
-        if (adjacentMinesGrid[row][col] == 0) {
-            for (int i = -1; i <= 1; i++) {
-                for (int j = -1; j <= 1; j++) {
-                    if (i == 0 && j == 0) continue;
-                    revealCell(row + i, col + j);
+    /**
+     * Revela a célula e a região de zeros à sua volta, ver {@link #revealCell(int, int)}.
+     *
+     * @param cell Índice da célula.
+     * @return Número de células reveladas.
+     */
+    private int floodFill(int cell) {
+        revealedCells.clear();
+        if (!isValidCell(cell))
+            return 0;
+        if (!minesPlaced)
+            placeMines(firstClickExclusions(cell));
+        if (uncoveredCells.get(cell) || mineLocations.get(cell))
+            return 0;
+
+        uncoveredCells.set(cell);
+        floodStack.clear();
+        floodStack.push(cell);
+        FloodFillEvent event = null; // Só criado quando a propagação começa, porque só essas podem ser grandes
+
+        while (!floodStack.isEmpty()) {
+            int current = floodStack.pop();
+            int currentRow = current / numCols;
+            int currentCol = current - currentRow * numCols;
+            revealedCells.push(current);
+            coveredSafeCellIndex.remove(current);
+            markDirty(current);
+
+            if (adjacentMines[current] != 0)
+                continue;
+            if (event == null) {
+                event = new FloodFillEvent();
+                event.begin();
+            }
+
+            for (int i = Math.max(0, currentRow - 1); i <= Math.min(numRows - 1, currentRow + 1); i++) {
+                for (int j = Math.max(0, currentCol - 1); j <= Math.min(numCols - 1, currentCol + 1); j++) {
+                    int neighbour = cellIndex(i, j);
+                    if (!uncoveredCells.get(neighbour) && !mineLocations.get(neighbour)) {
+                        uncoveredCells.set(neighbour);
+                        floodStack.push(neighbour);
+                    }
                 }
             }
         }
+        coveredSafeCells -= revealedCells.size();
+        if (event != null && revealedCells.size() >= FloodFillEvent.LARGE_FILL && event.shouldCommit()) {
+            event.row = cell / numCols;
+            event.col = cell % numCols;
+            event.cells = revealedCells.size();
+            event.commit();
+        }
+        return revealedCells.size();
     }
 
     /**
-     * Atualiza a visualização de uma célula.
+     * Retorna os índices ({@code linha * colunas + coluna}) das células reveladas pela última
+     * chamada a {@link #revealCell(int, int)}. A pilha é reutilizada na chamada seguinte.
      *
-     * @param row Linha da célula.
-     * @param col Coluna da célula.
+     * @return Células reveladas na última chamada.
      */
-    private void updateCellVisual(int row, int col) {
-        if (!uncoveredCells[row][col]) {
-            displayGrid[row][col] = '*';
-            if (isCheatEnabled) {
-                if (mineLocations[row][col]) displayGrid[row][col] = 'X';
-            }
-            if (flagLocations[row][col]) displayGrid[row][col] = 'F';
+    public IntStack getLastRevealedCells() {
+        return revealedCells;
+    }
+
+    /**
+     * Calcula o caractere de uma célula a partir dos mapas de bits e das contagens de minas vizinhas.
+     *
+     * @param cell Índice da célula.
+     * @return Caractere da célula.
+     */
+    private char cellVisual(int cell) {
+        boolean mine = mineLocations.get(cell);
+        if (!uncoveredCells.get(cell)) {
+            if (flagLocations.get(cell)) return 'F';
+            return isCheatEnabled && mine ? 'X' : '*';
+        }
+        if (mine) return 'X';
+        if (flagLocations.get(cell)) return 'F';
+        return adjacentMines[cell] > 0 ? (char) (adjacentMines[cell] + '0') : '*';
+    }
+
+    /**
+     * Regista uma célula cujo caractere pode ter mudado, se o registo de células alteradas estiver ativo.
+     *
+     * @param cell Índice da célula.
+     */
+    private void markDirty(int cell) {
+        if (dirtyCells != null && !dirtyCells.get(cell)) {
+            dirtyCells.set(cell);
+            dirtyCellList.push(cell);
+        }
+    }
+
+    /**
+     * Regista as minas tapadas sem bandeira, as únicas células que o modo de batota muda.
+     */
+    private void markCoveredMinesDirty() {
+        if (dirtyCells == null)
             return;
+        for (int cell = mineLocations.nextSetBit(0); cell >= 0; cell = mineLocations.nextSetBit(cell + 1)) {
+            if (!uncoveredCells.get(cell) && !flagLocations.get(cell))
+                markDirty(cell);
         }
+    }
+
+    /**
+     * Ativa ou desativa o registo das células cujo caractere pode ter mudado, usado pelo {@link AnsiBoardRenderer}.
+     *
+     * @param enabled true para registar as células alteradas.
+     */
+    public void setDirtyTracking(boolean enabled) {
+        dirtyCells = enabled ? new BitBoard(numRows * numCols) : null;
+        dirtyCellList.clear();
+    }
+
+    /**
+     * Retorna os índices das células alteradas desde a última chamada a {@link #clearDirtyCells()}.
+     *
+     * @return Células alteradas, sem repetições.
+     */
+    public IntStack getDirtyCells() {
+        return dirtyCellList;
+    }
 
-        displayGrid[row][col] = '*';
-        if (adjacentMinesGrid[row][col] > 0) displayGrid[row][col] = (char) (adjacentMinesGrid[row][col] + '0');
-        if (flagLocations[row][col]) displayGrid[row][col] = 'F';
-        if (mineLocations[row][col]) displayGrid[row][col] = 'X';
+    /**
+     * Esquece as células alteradas registadas até agora.
+     */
+    public void clearDirtyCells() {
+        for (int i = 0; i < dirtyCellList.size(); i++) {
+            dirtyCells.clear(dirtyCellList.get(i));
+        }
+        dirtyCellList.clear();
     }
 
     /**
@@ -150,17 +451,27 @@ public class GameBoard {
      * @param col Coluna da célula.
      * @return true se a bandeira foi colocada/removida com sucesso.
      */
+    @Override
     public boolean toggleFlag(int row, int col) {
-        if (!flagLocations[row][col] && remainingFlags <= 0)
-            return false;
+        return toggleFlag(cellIndex(row, col));
+    }
 
-        if (!flagLocations[row][col])
-            remainingFlags--;
-        else
-            remainingFlags++;
+    /**
+     * Alterna o status da bandeira de uma célula dada pelo seu índice.
+     *
+     * @param cell Índice da célula ({@code linha * colunas + coluna}).
+     * @return true se a bandeira foi colocada/removida com sucesso.
+     */
+    public boolean toggleFlag(int cell) {
+        if (!flagLocations.get(cell) && remainingFlags <= 0)
+            return false;
 
-        flagLocations[row][col] = !flagLocations[row][col];
-        updateCellVisual(row, col);
+        int delta = flagLocations.flip(cell) ? 1 : -1;
+        remainingFlags -= delta;
+        flagsPlaced += delta;
+        if (mineLocations.get(cell))
+            flaggedMines += delta;
+        markDirty(cell);
         return true;
     }
 
@@ -171,59 +482,442 @@ public class GameBoard {
      * @param col Coluna da célula selecionada.
      */
     public void revealAllMines(int row, int col) {
-        for (int i = 0; i < numRows; i++) {
-            for (int j = 0; j < numCols; j++) {
-                uncoveredCells[i][j] = true;
+        if (dirtyCells != null) {
+            for (int cell = 0; cell < numRows * numCols; cell++) {
+                if (!uncoveredCells.get(cell))
+                    markDirty(cell);
             }
         }
-        updateBoardVisual();
-        displayGrid[row][col] = 'X';
+        uncoveredCells.setAll(); // A célula selecionada é uma mina, por isso passa a ser mostrada como 'X'
+        coveredSafeCells = 0;
+        if (coveredSafeCellIndex != null)
+            coveredSafeCellIndex.clear();
     }
 
     /**
      * Verifica se o jogador venceu o jogo.
+     * Usa os contadores atualizados por revealCell, toggleFlag e revealAllMines, sem percorrer o tabuleiro.
      *
      * @return true se todas as minas estiverem marcadas ou todas as células seguras estiverem reveladas.
      */
+    @Override
     public boolean checkWin() {
-        boolean allMinesFlagged = true;
-        boolean allSafeCellsRevealed = true;
-        for (int i = 0; i < numRows; i++) {
-            for (int j = 0; j < numCols; j++) {
-                if ((mineLocations[i][j] && !flagLocations[i][j]))
-                    allMinesFlagged = false;
-                if ((!mineLocations[i][j] && !uncoveredCells[i][j]))
-                    allSafeCellsRevealed = false;
-            }
-        }
-        return allMinesFlagged || allSafeCellsRevealed;
+        return flaggedMines == totalMines || coveredSafeCells == 0;
+    }
+
+    /**
+     * Retorna os contadores de progresso do tabuleiro.
+     *
+     * @return Estatísticas atuais do tabuleiro.
+     */
+    public BoardStats getStats() {
+        return new BoardStats(coveredSafeCells, flaggedMines, flagsPlaced, remainingFlags, totalMines);
     }
 
     /**
      * Obtém uma coordenada aleatória que não contém uma mina e não foi revelada.
+     * A escolha é feita em tempo constante sobre o índice de células seguras por revelar.
      *
-     * @return Coordenada aleatória.
+     * @return Coordenada aleatória, ou null se já não existirem células seguras por revelar.
      */
     public Coordinates getRandomSafeCoordinate() {
-        Random rand = new Random();
-        int row, col;
-        do {
-            row = rand.nextInt(numRows);
-            col = rand.nextInt(numCols);
-        } while (mineLocations[row][col] || uncoveredCells[row][col] || !isValidCoordinate(row, col));
+        int cell = getRandomSafeCell();
+        return cell < 0 ? null : Coordinates.of(cell, numCols);
+    }
+
+    /**
+     * Obtém uma célula aleatória que não contém uma mina e não foi revelada, sem criar objetos.
+     * Sorteia a mesma célula que {@link #getRandomSafeCoordinate()} sorteria no seu lugar. Antes da primeira
+     * célula aberta num tabuleiro com primeira jogada segura, as minas continuam por colocar e a célula
+     * sugerida fica apenas reservada: não recebe mina quando as minas forem colocadas.
+     *
+     * @return Índice da célula ({@code linha * colunas + coluna}), ou -1 se já não existirem células
+     *         seguras por revelar.
+     */
+    public int getRandomSafeCell() {
+        if (legacyHints)
+            return legacyRandomSafeCell();
+        long bits = nextHintBits();
+        if (!minesPlaced)
+            return preStartHint(bits); // Ainda não há minas; a célula fica reservada para quando forem colocadas
+        int size = coveredSafeCellIndex.size();
+        return size == 0 ? -1 : coveredSafeCellIndex.get(bounded((int) (bits >>> 32), size));
+    }
+
+    /**
+     * Dica sorteada como antes das dicas sem objetos: um {@link SplittableRandom} por dica e, antes da
+     * primeira célula aberta, as minas colocadas logo com a célula sugerida excluída. Numa gravação antiga,
+     * uma dica pedida antes da primeira célula aberta decidiu onde ficaram as minas, por isso só assim a
+     * gravação reproduz o mesmo tabuleiro.
+     *
+     * @return Índice da célula, ou -1 se já não existirem células seguras por revelar.
+     */
+    private int legacyRandomSafeCell() {
+        SplittableRandom random = new SplittableRandom(seed + LEGACY_HINT_STREAM * ++hintDraws);
+        if (!minesPlaced)
+            placeMines(new int[]{random.nextInt(numRows * numCols)}); // A célula sugerida fica sem mina
+        int size = coveredSafeCellIndex.size();
+        return size == 0 ? -1 : coveredSafeCellIndex.get(random.nextInt(size));
+    }
+
+    /**
+     * Passa a sortear as dicas como nas gravações antigas, ver {@link GameRecording#hasLegacyHints()}.
+     */
+    void useLegacyHints() {
+        legacyHints = true;
+    }
+
+    /**
+     * Célula sugerida por uma dica pedida antes da primeira célula aberta. As minas ainda não existem,
+     * por isso qualquer célula serve; {@link #firstClickExclusions(int)} garante depois que nenhuma das
+     * células sugeridas recebe mina.
+     *
+     * @param bits Bits da dica, ver {@link #nextHintBits()}.
+     * @return Índice da célula sugerida.
+     */
+    private int preStartHint(long bits) {
+        return bounded((int) bits, numRows * numCols);
+    }
+
+    /**
+     * Células que ficam sem mina quando as minas são colocadas na primeira célula aberta: essa célula e as
+     * sugeridas pelas dicas pedidas antes dela. Como as dicas só dependem da semente e do número de dicas,
+     * as células sugeridas são sorteadas de novo em vez de serem guardadas. Se não houver espaço para
+     * todas, só a célula aberta é excluída.
+     *
+     * @param cell Célula aberta.
+     * @return Índices, por ordem crescente e sem repetições, das células a excluir.
+     */
+    private int[] firstClickExclusions(int cell) {
+        if (hintDraws == 0)
+            return new int[]{cell};
+        long draws = Math.min(hintDraws, numRows * numCols); // Mais dicas do que células só repetem células
+        int[] cells = new int[(int) draws + 1];
+        cells[0] = cell;
+        for (int draw = 1; draw <= draws; draw++) {
+            cells[draw] = preStartHint(hintBits(draw));
+        }
+        Arrays.sort(cells);
+        int unique = 0;
+        for (int i = 0; i < cells.length; i++) {
+            if (unique == 0 || cells[unique - 1] != cells[i])
+                cells[unique++] = cells[i];
+        }
+        if (numRows * numCols - unique < totalMines)
+            return new int[]{cell};
+        return Arrays.copyOf(cells, unique);
+    }
+
+    /**
+     * Bits aleatórios da próxima dica (SplitMix64). Cada dica depende só da semente do tabuleiro e do
+     * número de dicas já sorteadas, por isso copiar o tabuleiro só exige copiar esse número, e sortear
+     * não cria objetos.
+     *
+     * @return 64 bits aleatórios.
+     */
+    private long nextHintBits() {
+        return hintBits(++hintDraws);
+    }
+
+    /**
+     * Bits aleatórios de uma dica.
+     *
+     * @param draw Número da dica, a contar de 1.
+     * @return 64 bits aleatórios.
+     */
+    private long hintBits(long draw) {
+        return Seeds.mix(seed, draw - 1);
+    }
+
+    /**
+     * Reduz 32 bits aleatórios a um valor entre 0 e {@code bound - 1} com uma multiplicação.
+     */
+    private static int bounded(int bits, int bound) {
+        return (int) (((bits & 0xFFFFFFFFL) * bound) >>> 32);
+    }
+
+    /**
+     * Retorna a semente com que o tabuleiro foi gerado.
+     *
+     * @return Semente do tabuleiro.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Retorna o número de dicas aleatórias já sorteadas.
+     *
+     * @return Número de dicas sorteadas.
+     */
+    long getHintDraws() {
+        return hintDraws;
+    }
+
+    /**
+     * Indica se as minas já foram colocadas.
+     *
+     * @return false num tabuleiro com primeira jogada segura ainda por abrir.
+     */
+    boolean isMinesPlaced() {
+        return minesPlaced;
+    }
+
+    /**
+     * Indica se o modo de batota está ativo.
+     *
+     * @return true se as minas estiverem a ser mostradas.
+     */
+    boolean isCheatEnabled() {
+        return isCheatEnabled;
+    }
+
+    /**
+     * Indica se as minas do tabuleiro só são colocadas na primeira célula revelada.
+     *
+     * @return true se a primeira jogada for segura.
+     */
+    public boolean isSafeFirstClick() {
+        return safeFirstClick;
+    }
+
+    /**
+     * Retorna a célula inicial de um tabuleiro construído com a vizinhança dessa célula sem minas.
+     *
+     * @return Índice da célula inicial, ou -1 se o tabuleiro não tiver célula inicial.
+     */
+    public int getStartCell() {
+        return startCell;
+    }
+
+    /**
+     * Retorna a configuração do tabuleiro.
+     *
+     * @return Linhas, colunas e minas.
+     */
+    public GameConfiguration getSettings() {
+        return new GameConfiguration(numRows, numCols, totalMines);
+    }
+
+    /**
+     * Retorna o número de linhas do tabuleiro.
+     *
+     * @return Número de linhas.
+     */
+    @Override
+    public int getRows() {
+        return numRows;
+    }
+
+    /**
+     * Retorna o número de colunas do tabuleiro.
+     *
+     * @return Número de colunas.
+     */
+    @Override
+    public int getCols() {
+        return numCols;
+    }
+
+    /**
+     * Move a janela visível para que o seu canto superior esquerdo fique na célula indicada,
+     * sem sair dos limites do tabuleiro.
+     *
+     * @param firstRow Primeira linha da janela.
+     * @param firstCol Primeira coluna da janela.
+     */
+    public void setViewport(int firstRow, int firstCol) {
+        viewRow = Math.max(0, Math.min(numRows - viewRows, firstRow));
+        viewCol = Math.max(0, Math.min(numCols - viewCols, firstCol));
+    }
+
+    /**
+     * Desloca a janela visível.
+     *
+     * @param rows Linhas a deslocar (negativo para cima).
+     * @param cols Colunas a deslocar (negativo para a esquerda).
+     */
+    public void panViewport(int rows, int cols) {
+        setViewport(viewRow + rows, viewCol + cols);
+    }
+
+    /**
+     * Centra a janela visível numa célula.
+     *
+     * @param row Linha da célula.
+     * @param col Coluna da célula.
+     */
+    public void centerViewport(int row, int col) {
+        setViewport(row - viewRows / 2, col - viewCols / 2);
+    }
+
+    /**
+     * Retorna a primeira linha da janela visível.
+     *
+     * @return Índice da primeira linha visível.
+     */
+    public int getViewRow() {
+        return viewRow;
+    }
+
+    /**
+     * Retorna a primeira coluna da janela visível.
+     *
+     * @return Índice da primeira coluna visível.
+     */
+    public int getViewCol() {
+        return viewCol;
+    }
+
+    /**
+     * Retorna o número de linhas da janela visível.
+     *
+     * @return Linhas visíveis.
+     */
+    public int getViewRows() {
+        return viewRows;
+    }
+
+    /**
+     * Retorna o número de colunas da janela visível.
+     *
+     * @return Colunas visíveis.
+     */
+    public int getViewCols() {
+        return viewCols;
+    }
+
+    /**
+     * Retorna a largura, em caracteres, da etiqueta de linha e do espaço que a separa das células.
+     *
+     * @return Largura do prefixo de cada linha em {@link #toString()}.
+     */
+    public int getRowPrefixWidth() {
+        return Coordinates.rowLabelLength(viewRow + viewRows - 1) + 2;
+    }
+
+    /**
+     * Retorna o caractere mostrado numa célula.
+     *
+     * @param row Linha da célula.
+     * @param col Coluna da célula.
+     * @return Caractere da célula ('*', 'F', 'X' ou o número de minas adjacentes).
+     */
+    public char getCellVisual(int row, int col) {
+        return cellVisual(cellIndex(row, col));
+    }
+
+    /**
+     * Retorna o número de bandeiras ainda disponíveis.
+     *
+     * @return Bandeiras disponíveis.
+     */
+    public int getRemainingFlags() {
+        return remainingFlags;
+    }
+
+    /**
+     * Retorna o tempo decorrido desde o início do jogo.
+     *
+     * @return Tempo decorrido em milissegundos.
+     */
+    public long getElapsedTime() {
+        return System.currentTimeMillis() - startTime;
+    }
+
+    /**
+     * Reinicia o relógio do jogo. Usado quando o tabuleiro foi gerado antes de o jogo começar.
+     */
+    public void startClock() {
+        startTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Verifica se uma célula já foi revelada.
+     *
+     * @param row Linha da célula.
+     * @param col Coluna da célula.
+     * @return true se a célula estiver revelada.
+     */
+    @Override
+    public boolean isUncovered(int row, int col) {
+        return uncoveredCells.get(cellIndex(row, col));
+    }
+
+    /**
+     * Verifica se uma célula, dada pelo seu índice, já foi revelada.
+     *
+     * @param cell Índice da célula ({@code linha * colunas + coluna}).
+     * @return true se a célula estiver revelada.
+     */
+    public boolean isUncovered(int cell) {
+        return uncoveredCells.get(cell);
+    }
+
+    /**
+     * Verifica se uma célula tem bandeira.
+     *
+     * @param row Linha da célula.
+     * @param col Coluna da célula.
+     * @return true se a célula tiver bandeira.
+     */
+    @Override
+    public boolean isFlagged(int row, int col) {
+        return flagLocations.get(cellIndex(row, col));
+    }
+
+    /**
+     * Verifica se uma célula, dada pelo seu índice, tem bandeira.
+     *
+     * @param cell Índice da célula ({@code linha * colunas + coluna}).
+     * @return true se a célula tiver bandeira.
+     */
+    public boolean isFlagged(int cell) {
+        return flagLocations.get(cell);
+    }
 
-        return new Coordinates(row, col);
+    /**
+     * Retorna o número de minas adjacentes de uma célula revelada, ou seja, a informação visível ao jogador.
+     *
+     * @param row Linha da célula.
+     * @param col Coluna da célula.
+     * @return Número de minas adjacentes, ou -1 se a célula ainda estiver tapada.
+     */
+    public int getAdjacentMines(int row, int col) {
+        return getAdjacentMines(cellIndex(row, col));
+    }
+
+    /**
+     * Retorna o número de minas adjacentes de uma célula revelada, dada pelo seu índice.
+     *
+     * @param cell Índice da célula ({@code linha * colunas + coluna}).
+     * @return Número de minas adjacentes, ou -1 se a célula ainda estiver tapada.
+     */
+    public int getAdjacentMines(int cell) {
+        return uncoveredCells.get(cell) ? adjacentMines[cell] : -1;
     }
 
     /**
      * Verifica se uma célula contém uma mina.
+     * Antes da primeira célula revelada num tabuleiro com primeira jogada segura, nenhuma célula tem mina.
      *
      * @param row Linha da célula.
      * @param col Coluna da célula.
      * @return true se a célula contiver uma mina.
      */
+    @Override
     public boolean isMine(int row, int col) {
-        return mineLocations[row][col];
+        return mineLocations.get(cellIndex(row, col));
+    }
+
+    /**
+     * Verifica se uma célula, dada pelo seu índice, contém uma mina.
+     *
+     * @param cell Índice da célula ({@code linha * colunas + coluna}).
+     * @return true se a célula contiver uma mina.
+     */
+    public boolean isMine(int cell) {
+        return mineLocations.get(cell);
     }
 
     /**
@@ -233,7 +927,8 @@ public class GameBoard {
      */
     public boolean toggleCheat() {
         isCheatEnabled = !isCheatEnabled;
-        updateBoardVisual();
+        if (minesPlaced)
+            markCoveredMinesDirty();
         return isCheatEnabled;
     }
 
@@ -244,53 +939,106 @@ public class GameBoard {
      * @param col Coluna da coordenada.
      * @return true se a coordenada estiver dentro dos limites.
      */
+    @Override
     public boolean isValidCoordinate(int row, int col) {
         return (row >= 0 && row < numRows && col >= 0 && col < numCols);
     }
 
     /**
-     * Atualiza a visualização de todo o tabuleiro.
+     * Verifica se um índice de célula é válido.
+     *
+     * @param cell Índice da célula ({@code linha * colunas + coluna}).
+     * @return true se o índice estiver dentro do tabuleiro.
      */
-    private void updateBoardVisual() {
-        for (int i = 0; i < numRows; i++) {
-            for (int j = 0; j < numCols; j++) {
-                updateCellVisual(i, j);
-            }
-        }
+    public boolean isValidCell(int cell) {
+        return cell >= 0 && cell < numRows * numCols;
     }
 
     /**
-     * Constrói uma representação em string do tabuleiro, com estatísticas.
+     * Converte uma coordenada no índice linear usado pelos conjuntos de bits.
+     *
+     * @param row Linha da célula.
+     * @param col Coluna da célula.
+     * @return Índice da célula.
+     */
+    private int cellIndex(int row, int col) {
+        return row * numCols + col;
+    }
+
+    /**
+     * Constrói uma representação em string da janela visível do tabuleiro, com estatísticas.
+     * O custo depende do tamanho da janela e não do tamanho do tabuleiro.
      *
      * @return O tabuleiro como uma string.
      */
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
-        sb.append("X⠀ ");
-        for (int i = 0; i < numCols; i++) {
-            sb.append((i)).append("  ");
+        int lastRow = viewRow + viewRows;
+        int lastCol = viewCol + viewCols;
+        appendGrid(sb, viewRow, viewCol, lastRow, lastCol, getRowPrefixWidth() - 2);
+        sb.append('\n').append("\tTempo decorrido: ");
+        appendElapsedTime(sb, getElapsedTime());
+        if (viewRows < numRows || viewCols < numCols) {
+            sb.append('\n').append("\tJanela: linhas ");
+            Coordinates.appendRowLabel(sb, viewRow).append('-');
+            Coordinates.appendRowLabel(sb, lastRow - 1).append(" de ").append(numRows);
+            sb.append(", colunas ").append(viewCol).append('-').append(lastCol - 1).append(" de ").append(numCols);
         }
         sb.append('\n');
-        for (int i = 0; i < numRows; i++) {
-            sb.append((char) ('A' + i)).append("  ");
-            for (int j = 0; j < numCols; j++) {
-                sb.append(displayGrid[i][j]).append("  ");
+        return sb.toString();
+    }
+
+    /**
+     * Constrói a representação em string de uma janela qualquer do tabuleiro, com as bandeiras disponíveis.
+     * Ao contrário de {@link #toString()}, não depende da janela visível nem mostra o tempo.
+     *
+     * @param firstRow Primeira linha da janela.
+     * @param firstCol Primeira coluna da janela.
+     * @param rows Número de linhas da janela.
+     * @param cols Número de colunas da janela.
+     * @return A janela do tabuleiro como uma string.
+     */
+    @Override
+    public String render(int firstRow, int firstCol, int rows, int cols) {
+        int lastRow = Math.min(numRows, firstRow + rows);
+        int lastCol = Math.min(numCols, firstCol + cols);
+        StringBuilder sb = new StringBuilder();
+        return appendGrid(sb, firstRow, firstCol, lastRow, lastCol, Coordinates.rowLabelLength(lastRow - 1))
+                .append('\n').toString();
+    }
+
+    /**
+     * Acrescenta as linhas e colunas indicadas, seguidas das bandeiras disponíveis, sem terminar a última linha.
+     */
+    private StringBuilder appendGrid(StringBuilder sb, int firstRow, int firstCol, int lastRow, int lastCol, int labelWidth) {
+        Coordinates.appendColumnHeader(sb, firstCol, lastCol, labelWidth).append('\n');
+        for (int i = firstRow; i < lastRow; i++) {
+            Coordinates.appendRowPrefix(sb, i, labelWidth);
+            int cell = cellIndex(i, firstCol);
+            for (int j = firstCol; j < lastCol; j++) {
+                sb.append(cellVisual(cell++)).append("  ");
             }
             sb.append('\n');
         }
+        return sb.append('\n').append("\tBandeiras Disponiveis: ").append(remainingFlags);
+    }
 
-        sb.append('\n').append("\tBandeiras Disponiveis: ").append(remainingFlags);
-
-        long elapsedTime = System.currentTimeMillis() - startTime;
-        String formattedTime = String.format("%02d:%02d:%02d",
-                TimeUnit.MILLISECONDS.toHours(elapsedTime),
-                TimeUnit.MILLISECONDS.toMinutes(elapsedTime) % 60,
-                TimeUnit.MILLISECONDS.toSeconds(elapsedTime) % 60
-        );
+    /**
+     * Acrescenta o tempo decorrido no formato hh:mm:ss, sem criar strings intermédias.
+     *
+     * @param sb Destino do texto.
+     * @param elapsedTime Tempo decorrido em milissegundos.
+     */
+    static void appendElapsedTime(StringBuilder sb, long elapsedTime) {
+        appendTwoDigits(sb, TimeUnit.MILLISECONDS.toHours(elapsedTime)).append(':');
+        appendTwoDigits(sb, TimeUnit.MILLISECONDS.toMinutes(elapsedTime) % 60).append(':');
+        appendTwoDigits(sb, TimeUnit.MILLISECONDS.toSeconds(elapsedTime) % 60);
+    }
 
-        sb.append('\n').append("\tTempo decorrido: ").append(formattedTime);
-        sb.append('\n');
-        return sb.toString();
+    private static StringBuilder appendTwoDigits(StringBuilder sb, long value) {
+        if (value < 10)
+            sb.append('0');
+        return sb.append(value);
     }
 }
\ No newline at end of file
@@ -0,0 +1,488 @@
+package config;
+
+import Enums.Difficulty;
+import Enums.GameStatus;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Histórico persistente de jogos terminados, só com escritas no fim dos ficheiros.
+ * <p>
+ * O ficheiro de dados ({@code .dat}) guarda os registos uns a seguir aos outros, cada um precedido do seu
+ * tamanho. O ficheiro de índice ({@code .idx}) tem uma entrada de tamanho fixo por jogo, com a posição do
+ * registo e o jogo anterior do mesmo jogador; a entrada do jogo n está na posição
+ * {@code HEADER_SIZE + n * INDEX_ENTRY_SIZE}, por isso ler os últimos N jogos custa sempre o mesmo,
+ * qualquer que seja o tamanho do histórico.
+ * <p>
+ * Cada jogo é entregue ao sistema operativo assim que é acrescentado, os dados antes do índice, para que
+ * uma entrada do índice nunca aponte para um registo incompleto; uma falha do processo não perde jogos.
+ * Só a sincronização com o disco ({@code force}) é feita em lotes. Ao abrir, entradas e registos cortados
+ * por uma falha do sistema são descartados.
+ * <p>
+ * Um histórico de uma versão anterior é convertido ao abrir e os ficheiros antigos ficam ao lado, com o
+ * sufixo {@code .v<versão>}; os de versões que já não é possível ler só são postos de lado.
+ */
+public class GameHistoryLog implements Closeable {
+    private static final int DATA_MAGIC = 0x4D534844;  // "MSHD"
+    private static final int INDEX_MAGIC = 0x4D534849; // "MSHI"
+    private static final int VERSION = 4; // 2: tabuleiro como BoardSnapshot; 3: gravação das jogadas; 4: gravação opcional, dicas novas
+    private static final int OLDEST_READABLE_VERSION = 2; // A versão 1 guardava o tabuleiro como texto
+    private static final int HAS_RECORDING = 1; // Bit das opções do registo
+    private static final int NO_FILE = 0; // Versão de um ficheiro inexistente ou vazio, que é criado na versão atual
+    private static final int UNKNOWN_VERSION = -1; // Versão de um ficheiro que não é do histórico
+    private static final int HEADER_SIZE = 8;
+    private static final int INDEX_ENTRY_SIZE = 24; // Posição, tamanho, hash do jogador, jogo anterior do jogador
+    private static final int SYNC_BATCH = 16; // Jogos escritos entre cada force
+
+    private final FileChannel dataChannel;
+    private final FileChannel indexChannel;
+    private final ByteBuffer indexEntry = ByteBuffer.allocate(INDEX_ENTRY_SIZE);
+    private ByteBuffer recordBuffer = ByteBuffer.allocate(1024);
+    private long dataEnd;
+    private long gameCount;
+    private int unsyncedGames; // Jogos escritos desde o último force
+    private final IntLongMap lastGameByPlayer = new IntLongMap(64); // Hash do jogador -> último jogo, ver findLastOfPlayer
+    private long scannedFrom; // Os jogos a partir desta posição já estão no mapa de jogadores
+    private String upgradeNotice; // Descrição da conversão feita ao abrir, ou null
+
+    /**
+     * Abre o histórico, criando os ficheiros se não existirem.
+     *
+     * @param basePath Caminho base; são usados {@code basePath.dat} e {@code basePath.idx}.
+     * @return Histórico aberto.
+     * @throws IOException Se os ficheiros não puderem ser abertos ou convertidos.
+     */
+    public static GameHistoryLog open(Path basePath) throws IOException {
+        Path dataPath = basePath.resolveSibling(basePath.getFileName() + ".dat");
+        Path indexPath = basePath.resolveSibling(basePath.getFileName() + ".idx");
+        int dataVersion = readVersion(dataPath, DATA_MAGIC);
+        int indexVersion = readVersion(indexPath, INDEX_MAGIC);
+        if ((dataVersion == VERSION || dataVersion == NO_FILE) && (indexVersion == VERSION || indexVersion == NO_FILE))
+            return openCurrent(dataPath, indexPath);
+        // Os dois ficheiros têm de ser da mesma versão para os registos poderem ser lidos
+        int version = dataVersion == indexVersion ? dataVersion : UNKNOWN_VERSION;
+        return upgrade(basePath, dataPath, indexPath, version);
+    }
+
+    /**
+     * Abre ficheiros que já estão na versão atual, ou cria-os.
+     */
+    private static GameHistoryLog openCurrent(Path dataPath, Path indexPath) throws IOException {
+        FileChannel data = FileChannel.open(dataPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileChannel index;
+        try {
+            index = FileChannel.open(indexPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            data.close();
+            throw e;
+        }
+        try {
+            return new GameHistoryLog(data, index);
+        } catch (IOException e) {
+            data.close();
+            index.close();
+            throw e;
+        }
+    }
+
+    private GameHistoryLog(FileChannel dataChannel, FileChannel indexChannel) throws IOException {
+        this.dataChannel = dataChannel;
+        this.indexChannel = indexChannel;
+        checkHeader(dataChannel, DATA_MAGIC);
+        checkHeader(indexChannel, INDEX_MAGIC);
+        recover();
+    }
+
+    /**
+     * Escreve o cabeçalho num ficheiro novo ou valida o de um ficheiro existente.
+     */
+    private static void checkHeader(FileChannel channel, int magic) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        if (channel.size() < HEADER_SIZE) {
+            header.putInt(magic).putInt(VERSION).flip();
+            writeFully(channel, header, 0);
+            return;
+        }
+        readFully(channel, header, 0);
+        if (header.getInt(0) != magic || header.getInt(4) != VERSION)
+            throw new IOException("Ficheiro de histórico inválido ou de outra versão");
+    }
+
+    /**
+     * Lê a versão de um ficheiro do histórico.
+     *
+     * @return A versão, {@link #NO_FILE} se o ficheiro não existir ou não tiver cabeçalho, ou
+     * {@link #UNKNOWN_VERSION} se não for um ficheiro do histórico.
+     */
+    private static int readVersion(Path path, int magic) throws IOException {
+        if (!Files.exists(path) || Files.size(path) < HEADER_SIZE)
+            return NO_FILE;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            readFully(channel, header, 0);
+        }
+        return header.getInt(0) == magic ? header.getInt(4) : UNKNOWN_VERSION;
+    }
+
+    /**
+     * Converte um histórico de uma versão anterior. Os jogos são copiados para ficheiros temporários na versão
+     * atual, que só substituem os antigos no fim; os antigos ficam ao lado, com o sufixo {@code .v<versão>}.
+     * Se a versão não puder ser lida, os ficheiros só são postos de lado e começa um histórico novo.
+     */
+    private static GameHistoryLog upgrade(Path basePath, Path dataPath, Path indexPath, int version) throws IOException {
+        Path tempBase = basePath.resolveSibling(basePath.getFileName() + ".conversao");
+        Path tempData = tempBase.resolveSibling(tempBase.getFileName() + ".dat");
+        Path tempIndex = tempBase.resolveSibling(tempBase.getFileName() + ".idx");
+        Files.deleteIfExists(tempData);
+        Files.deleteIfExists(tempIndex);
+
+        boolean readable = version >= OLDEST_READABLE_VERSION && version < VERSION;
+        long converted = 0;
+        if (readable) {
+            try (GameHistoryLog target = openCurrent(tempData, tempIndex);
+                 FileChannel data = FileChannel.open(dataPath, StandardOpenOption.READ);
+                 FileChannel index = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+                converted = copyGames(data, index, version, target);
+            }
+        }
+
+        String suffix = version == UNKNOWN_VERSION ? ".antigo" : ".v" + version;
+        Path oldData = dataPath.resolveSibling(dataPath.getFileName() + suffix);
+        if (Files.exists(dataPath))
+            Files.move(dataPath, oldData, StandardCopyOption.REPLACE_EXISTING);
+        if (Files.exists(indexPath))
+            Files.move(indexPath, indexPath.resolveSibling(indexPath.getFileName() + suffix), StandardCopyOption.REPLACE_EXISTING);
+        if (readable) {
+            Files.move(tempData, dataPath, StandardCopyOption.ATOMIC_MOVE);
+            Files.move(tempIndex, indexPath, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        GameHistoryLog log = openCurrent(dataPath, indexPath);
+        log.upgradeNotice = readable
+                ? "O histórico foi convertido para a versão " + VERSION + " (" + converted + " jogos); a cópia antiga ficou em " + oldData.getFileName() + "."
+                : "O histórico existente " + (version == UNKNOWN_VERSION ? "não é reconhecido" : "é da versão " + version + ", que já não é suportada")
+                        + "; foi posto de lado em " + oldData.getFileName() + " e começou um histórico novo.";
+        return log;
+    }
+
+    /**
+     * Copia para o histórico indicado todos os jogos completos de ficheiros de uma versão anterior.
+     *
+     * @return Número de jogos copiados.
+     */
+    private static long copyGames(FileChannel data, FileChannel index, int version, GameHistoryLog target) throws IOException {
+        long dataSize = data.size();
+        long entries = (index.size() - HEADER_SIZE) / INDEX_ENTRY_SIZE;
+        ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_SIZE);
+        long copied = 0;
+        for (; copied < entries; copied++) {
+            entry.clear();
+            readFully(index, entry, indexPosition(copied));
+            long position = entry.getLong(0);
+            int length = entry.getInt(8);
+            if (position + length > dataSize)
+                break; // Registo cortado por uma falha, como em recover
+            ByteBuffer record = ByteBuffer.allocate(length);
+            readFully(data, record, position);
+            target.append(decode(record.flip(), version));
+        }
+        return copied;
+    }
+
+    /**
+     * Descarta entradas do índice incompletas ou que apontam para dados que não chegaram ao disco,
+     * e os dados escritos depois do último registo indexado.
+     */
+    private void recover() throws IOException {
+        long dataSize = dataChannel.size();
+        long entries = (indexChannel.size() - HEADER_SIZE) / INDEX_ENTRY_SIZE;
+        dataEnd = HEADER_SIZE;
+        ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_SIZE);
+        while (entries > 0) {
+            entry.clear();
+            readFully(indexChannel, entry, indexPosition(entries - 1));
+            long end = entry.getLong(0) + entry.getInt(8);
+            if (end <= dataSize) {
+                dataEnd = end;
+                break;
+            }
+            entries--;
+        }
+        gameCount = entries;
+        scannedFrom = entries;
+        indexChannel.truncate(indexPosition(entries));
+        dataChannel.truncate(dataEnd);
+    }
+
+    /**
+     * Acrescenta um jogo ao histórico. O registo e a entrada do índice são escritos de imediato; a
+     * sincronização com o disco é feita a cada {@value #SYNC_BATCH} jogos.
+     *
+     * @param game Jogo terminado.
+     * @throws IOException Se a escrita falhar.
+     */
+    public synchronized void append(Game game) throws IOException {
+        ByteBuffer record = encode(game);
+        int length = record.remaining();
+        int playerHash = game.getNickname().hashCode();
+        long previous = findLastOfPlayer(playerHash);
+
+        writeFully(dataChannel, record, dataEnd); // Os dados antes do índice
+        indexEntry.clear();
+        indexEntry.putLong(dataEnd).putInt(length).putInt(playerHash).putLong(previous).flip();
+        writeFully(indexChannel, indexEntry, indexPosition(gameCount));
+        lastGameByPlayer.put(playerHash, gameCount);
+        dataEnd += length;
+        gameCount++;
+
+        if (++unsyncedGames >= SYNC_BATCH)
+            sync();
+    }
+
+    /**
+     * Espera que os jogos já escritos fiquem gravados no disco.
+     *
+     * @throws IOException Se a sincronização falhar.
+     */
+    public synchronized void sync() throws IOException {
+        dataChannel.force(false);
+        indexChannel.force(false);
+        unsyncedGames = 0;
+    }
+
+    /**
+     * Retorna o número de jogos no histórico.
+     *
+     * @return Número de jogos.
+     */
+    public synchronized long size() {
+        return gameCount;
+    }
+
+    /**
+     * Lê os últimos jogos, do mais antigo para o mais recente.
+     *
+     * @param count Número máximo de jogos.
+     * @return Jogos lidos.
+     * @throws IOException Se a leitura falhar.
+     */
+    public synchronized List<Game> readLast(int count) throws IOException {
+        long first = Math.max(0, gameCount - count);
+        int entries = (int) (gameCount - first);
+        List<Game> games = new ArrayList<>(entries);
+        if (entries == 0)
+            return games;
+        ByteBuffer index = ByteBuffer.allocate(entries * INDEX_ENTRY_SIZE);
+        readFully(indexChannel, index, indexPosition(first));
+        for (int i = 0; i < entries; i++) {
+            int base = i * INDEX_ENTRY_SIZE;
+            games.add(readRecord(index.getLong(base), index.getInt(base + 8)));
+        }
+        return games;
+    }
+
+    /**
+     * Lê os últimos jogos de um jogador, do mais antigo para o mais recente, seguindo a cadeia de
+     * jogos do jogador no índice.
+     *
+     * @param nickname Alcunha do jogador.
+     * @param count Número máximo de jogos.
+     * @return Jogos lidos.
+     * @throws IOException Se a leitura falhar.
+     */
+    public synchronized List<Game> readLastOfPlayer(String nickname, int count) throws IOException {
+        int playerHash = nickname.hashCode();
+        List<Game> games = new ArrayList<>();
+        ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_SIZE);
+        long game = findLastOfPlayer(playerHash);
+        while (game >= 0 && games.size() < count) {
+            entry.clear();
+            readFully(indexChannel, entry, indexPosition(game));
+            Game candidate = readRecord(entry.getLong(0), entry.getInt(8));
+            if (candidate.getNickname().equals(nickname)) // Jogadores diferentes podem ter o mesmo hash
+                games.add(candidate);
+            game = entry.getLong(16);
+        }
+        Collections.reverse(games);
+        return games;
+    }
+
+    /**
+     * Percorre todos os jogos do histórico, do mais antigo para o mais recente, lendo o índice por blocos.
+     *
+     * @param action Ação aplicada a cada jogo.
+     * @throws IOException Se a leitura falhar.
+     */
+    public void forEach(Consumer<Game> action) throws IOException {
+        forEach(0, action);
+    }
+
+    /**
+     * Percorre os jogos do histórico a partir de uma posição, do mais antigo para o mais recente, lendo
+     * o índice por blocos.
+     *
+     * @param from Posição do primeiro jogo (0 é o mais antigo).
+     * @param action Ação aplicada a cada jogo.
+     * @throws IOException Se a leitura falhar.
+     */
+    public synchronized void forEach(long from, Consumer<Game> action) throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocate(INDEX_ENTRY_SIZE * 4096);
+        for (long first = Math.max(0, from); first < gameCount; first += 4096) {
+            int entries = (int) Math.min(4096, gameCount - first);
+            chunk.clear().limit(entries * INDEX_ENTRY_SIZE);
+            readFully(indexChannel, chunk, indexPosition(first));
+            for (int i = 0; i < entries; i++) {
+                int base = i * INDEX_ENTRY_SIZE;
+                action.accept(readRecord(chunk.getLong(base), chunk.getInt(base + 8)));
+            }
+        }
+    }
+
+    /**
+     * Sincroniza os jogos com o disco e fecha os ficheiros. Fechar um histórico já fechado não faz nada,
+     * por isso pode ser chamado tanto ao sair pelo menu como por um gancho de encerramento.
+     *
+     * @throws IOException Se a sincronização falhar.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!dataChannel.isOpen())
+            return;
+        try {
+            sync();
+        } finally {
+            dataChannel.close();
+            indexChannel.close();
+        }
+    }
+
+    /**
+     * Descreve a conversão de um histórico antigo feita ao abrir, para ser mostrada ao jogador.
+     *
+     * @return Mensagem sobre a conversão, ou null se os ficheiros já estavam na versão atual.
+     */
+    public String getUpgradeNotice() {
+        return upgradeNotice;
+    }
+
+    /**
+     * Último jogo de um jogador. O índice é lido do fim para o início, por blocos, só até encontrar o jogador,
+     * e cada jogador visto fica no mapa com o seu jogo mais recente; os jogos acrescentados entram no mapa
+     * ao serem escritos. Assim um jogador ativo é encontrado nos últimos blocos, e o índice nunca é lido mais
+     * do que uma vez, mesmo que o jogador não exista.
+     */
+    private long findLastOfPlayer(int playerHash) throws IOException {
+        long last = lastGameByPlayer.get(playerHash, -1);
+        if (last >= 0 || scannedFrom == 0)
+            return last;
+        ByteBuffer chunk = ByteBuffer.allocate(INDEX_ENTRY_SIZE * (int) Math.min(4096, scannedFrom));
+        while (scannedFrom > 0) {
+            long first = Math.max(0, scannedFrom - 4096);
+            int entries = (int) (scannedFrom - first);
+            chunk.clear().limit(entries * INDEX_ENTRY_SIZE);
+            readFully(indexChannel, chunk, indexPosition(first));
+            for (int i = entries - 1; i >= 0; i--) {
+                int hash = chunk.getInt(i * INDEX_ENTRY_SIZE + 12);
+                if (!lastGameByPlayer.containsKey(hash))
+                    lastGameByPlayer.put(hash, first + i);
+            }
+            scannedFrom = first;
+            last = lastGameByPlayer.get(playerHash, -1);
+            if (last >= 0)
+                return last;
+        }
+        return -1;
+    }
+
+    private Game readRecord(long position, int length) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(length);
+        readFully(dataChannel, record, position);
+        record.flip();
+        return decode(record, VERSION);
+    }
+
+    /**
+     * Registo: tamanho, estado, dificuldade (0 se personalizada), alcunha, linhas, colunas, minas,
+     * semente, duração, opções, fotografia do tabuleiro e, se as opções o indicarem, gravação das jogadas.
+     */
+    private ByteBuffer encode(Game game) {
+        byte[] nickname = game.getNickname().getBytes(StandardCharsets.UTF_8);
+        BoardSnapshot board = game.getBoard();
+        if (nickname.length > Short.MAX_VALUE)
+            throw new IllegalArgumentException("Alcunha demasiado longa: " + nickname.length + " bytes");
+        GameRecording recording = game.getRecording();
+        int length = 4 + 1 + 1 + 2 + nickname.length + 12 + 16 + 1 + board.serializedSize()
+                + (recording == null ? 0 : recording.serializedSize());
+        if (recordBuffer.capacity() < length)
+            recordBuffer = ByteBuffer.allocate(Math.max(length, recordBuffer.capacity() * 2));
+        Difficulty difficulty = game.getDifficulty();
+        GameConfiguration settings = game.getSettings();
+        recordBuffer.clear();
+        recordBuffer.putInt(length)
+                .put((byte) game.getGameStatus().ordinal())
+                .put((byte) (difficulty == null ? 0 : difficulty.getValue()))
+                .putShort((short) nickname.length).put(nickname)
+                .putInt(settings.rows()).putInt(settings.cols()).putInt(settings.mines())
+                .putLong(game.getSeed()).putLong(game.getDurationMillis())
+                .put((byte) (recording == null ? 0 : HAS_RECORDING));
+        board.writeTo(recordBuffer);
+        if (recording != null)
+            recording.writeTo(recordBuffer);
+        return recordBuffer.flip();
+    }
+
+    /**
+     * Lê um registo de qualquer versão a partir da 2. Antes da versão 4 não havia opções: a versão 2
+     * não tinha gravação e a 3 tinha sempre, feita com as dicas antigas.
+     */
+    private static Game decode(ByteBuffer record, int version) {
+        record.getInt(); // Tamanho
+        GameStatus status = GameStatus.values()[record.get()];
+        record.get(); // Dificuldade; a configuração abaixo é suficiente para a obter
+        byte[] nickname = new byte[record.getShort()];
+        record.get(nickname);
+        GameConfiguration settings = new GameConfiguration(record.getInt(), record.getInt(), record.getInt());
+        long seed = record.getLong();
+        long duration = record.getLong();
+        int options = version >= 4 ? record.get() : version == 3 ? HAS_RECORDING : 0;
+        BoardSnapshot board = BoardSnapshot.readFrom(record);
+        GameRecording recording = (options & HAS_RECORDING) != 0 ? GameRecording.readFrom(record) : null;
+        if (recording != null && version < 4)
+            recording.markLegacyHints(); // Continua marcada depois da conversão, no byte de modo da gravação
+        return new Game(status, new String(nickname, StandardCharsets.UTF_8), board, settings, seed, duration, recording);
+    }
+
+    private static long indexPosition(long game) {
+        return HEADER_SIZE + game * INDEX_ENTRY_SIZE;
+    }
+
+    private static int writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer, position + written);
+        }
+        return written;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, offset);
+            if (read < 0)
+                throw new IOException("Histórico truncado na posição " + offset);
+            offset += read;
+        }
+    }
+}
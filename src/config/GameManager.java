@@ -2,20 +2,50 @@ package config;
 
 import Enums.Difficulty;
 import Enums.GameStatus;
+import metrics.GameEndEvent;
+import metrics.GameStartEvent;
+import metrics.Metrics;
+import metrics.Probe;
+import solver.ConstraintSolver;
+import solver.NoGuessGenerator;
+import solver.ProbabilityEngine;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class GameManager {
+    private static final long NO_GUESS_TIME_BUDGET = 2000; // Milissegundos de procura antes do tabuleiro de recurso
+    private static final int POOL_DEPTH = 2; // Tabuleiros preparados por configuração
+    private static final long POOL_MAX_BYTES = 64L * 1024 * 1024;
+    private static final int LEADERBOARD_SIZE = 10; // Jogadores mostrados por dificuldade
+    private static final Path HISTORY_PATH = Path.of("historico"); // historico.dat e historico.idx
+    private static final Path SAVE_PATH = Path.of("jogo_guardado.sav"); // Jogo suspenso com /save
+    private static final Path LEADERBOARD_PATH = Path.of("quadro.dat"); // Quadro gravado, para não reler o histórico
 
     private final int LAST_GAME_AMOUNT;
     private GameBoard gameBoard;
+    private ConstraintSolver solver; // Deduções para o /hint, atualizadas a cada jogada
+    private ProbabilityEngine probabilityEngine; // Mapa de calor do /prob, com cache por região da fronteira
     private int gameCount = 1;
     private int wonGameCount = 0;
     private GameStatus currentGameStatus; // Usando o Enum GameStatus
-    private Game[] lastWonGames;
+    private final GameHistoryLog history; // Jogos terminados, guardados entre execuções
+    private final Leaderboard leaderboard = new Leaderboard(LEADERBOARD_SIZE);
+    private long leaderboardGames; // Jogos do histórico incluídos no quadro gravado
+    private GameConfiguration currentSettings;
+    private GameRecording recording; // Jogadas do jogo atual, guardadas com o jogo
     private String playerNickname;
     private boolean isGameRunning = false;
     private Scanner inputScanner = new Scanner(System.in);
+    private AnsiBoardRenderer boardRenderer; // null = tabuleiro completo impresso com toString
+    private NoGuessGenerator noGuessGenerator; // null = tabuleiros normais, com minas colocadas no primeiro clique
+    private NoGuessGenerator refillGenerator; // Mesmo modo, com threads próprias de baixa prioridade para a reserva
+    private BoardPool boardPool; // Tabuleiros gerados em segundo plano; criada depois das opções, ver startBoardPool
 
     /**
      * Construtor da classe GameManager.
@@ -24,19 +54,87 @@ public class GameManager {
      */
     public GameManager(int lastGameAmount) {
         this.LAST_GAME_AMOUNT = lastGameAmount;
-        this.lastWonGames = new Game[LAST_GAME_AMOUNT]; // Inicializa o array de últimos jogos
+        try {
+            this.history = GameHistoryLog.open(HISTORY_PATH);
+            if (history.getUpgradeNotice() != null)
+                System.out.println(history.getUpgradeNotice());
+            // Só os jogos acrescentados depois do quadro gravado; sem quadro válido, o histórico inteiro
+            leaderboardGames = Math.max(0, leaderboard.load(LEADERBOARD_PATH, history.size()));
+            history.forEach(leaderboardGames, leaderboard::record);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        saveLeaderboard();
+        // Fecha o histórico também quando o processo termina sem passar pela opção Sair (Ctrl+C, fim da entrada)
+        Runtime.getRuntime().addShutdownHook(new Thread(this::closeHistory, "history-close"));
+    }
+
+    /**
+     * Ativa o desenho incremental do tabuleiro com sequências ANSI, que só reescreve as células alteradas.
+     *
+     * @param enabled true para usar o desenho incremental.
+     */
+    public void setIncrementalRendering(boolean enabled) {
+        boardRenderer = enabled ? new AnsiBoardRenderer(System.out) : null;
+    }
+
+    /**
+     * Ativa a geração de tabuleiros que se resolvem só por dedução, começando com o centro já aberto.
+     *
+     * @param enabled true para gerar tabuleiros sem adivinhas.
+     */
+    public void setNoGuessBoards(boolean enabled) {
+        noGuessGenerator = enabled ? new NoGuessGenerator(NO_GUESS_TIME_BUDGET) : null;
+        refillGenerator = enabled ? new NoGuessGenerator(Runtime.getRuntime().availableProcessors(),
+                NO_GUESS_TIME_BUDGET, Thread.MIN_PRIORITY) : null;
+        if (boardPool != null) {
+            // Os tabuleiros já preparados foram gerados no outro modo
+            boardPool.close();
+            boardPool = null;
+            startBoardPool();
+        }
+    }
+
+    /**
+     * Cria a reserva de tabuleiros com os geradores atuais e começa a preparar as dificuldades predefinidas.
+     * Só é chamado depois de aplicadas as opções, por isso a reserva é criada uma única vez.
+     */
+    private void startBoardPool() {
+        if (boardPool != null)
+            return;
+        NoGuessGenerator generator = noGuessGenerator;
+        NoGuessGenerator background = refillGenerator;
+        boardPool = new BoardPool(settings -> generateBoard(generator, settings),
+                settings -> generateBoard(background, settings), POOL_DEPTH, POOL_MAX_BYTES, 1);
+        boardPool.warmUpPresets();
+    }
+
+    /**
+     * Gera um tabuleiro novo com uma semente aleatória.
+     *
+     * @param generator Gerador sem adivinhas, ou null para um tabuleiro normal.
+     * @param settings Configuração do tabuleiro.
+     * @return Tabuleiro novo.
+     */
+    private static GameBoard generateBoard(NoGuessGenerator generator, GameConfiguration settings) {
+        long seed = ThreadLocalRandom.current().nextLong();
+        return generator != null ? generator.generate(settings, seed) : new GameBoard(settings, seed, false);
     }
 
     /**
      * Exibe o menu inicial e gerencia as escolhas do usuário.
      */
     public void displayStartMenu() {
+        startBoardPool(); // As opções já foram aplicadas
         int choice;
         while (true) {
             System.out.println("#### MENU ####");
             System.out.println("1. Começar Jogo");
             System.out.println("2. Mostrar últimos " + LAST_GAME_AMOUNT + " jogos");
-            System.out.println("3. Sair");
+            System.out.println("3. Melhores tempos");
+            System.out.println("4. Rever um jogo");
+            System.out.println("5. Continuar jogo guardado");
+            System.out.println("6. Sair");
             System.out.print("Escolha uma opção: ");
             choice = inputScanner.nextInt();
             inputScanner.nextLine(); // Consome a nova linha
@@ -49,7 +147,17 @@ public class GameManager {
                     displayLastGames();
                     break;
                 case 3:
+                    displayLeaderboard();
+                    break;
+                case 4:
+                    replayGame();
+                    break;
+                case 5:
+                    resumeGame();
+                    break;
+                case 6:
                     System.out.println("Obrigado por jogar Campo Minado!");
+                    closeHistory();
                     System.exit(0);
                     return;
                 default:
@@ -95,12 +203,66 @@ public class GameManager {
             playerNickname = "Anonymous " + gameCount; // Define um nome padrão se o campo estiver vazio
         }
 
-        gameBoard = new GameBoard(settings.rows(), settings.cols(), settings.mines());
+        currentSettings = settings;
+        startBoardPool();
+        gameBoard = boardPool.take(settings); // Gerado na hora se a reserva estiver vazia
+        recording = GameRecording.start(gameBoard);
+        GameStartEvent startEvent = new GameStartEvent();
+        if (startEvent.shouldCommit()) {
+            startEvent.rows = settings.rows();
+            startEvent.cols = settings.cols();
+            startEvent.mines = settings.mines();
+            startEvent.seed = gameBoard.getSeed();
+            startEvent.commit();
+        }
+        playGame();
+    }
+
+    /**
+     * Retoma o jogo suspenso com /save. O ficheiro é apagado ao retomar, por isso cada jogo guardado
+     * só pode ser retomado uma vez.
+     */
+    public void resumeGame() {
+        if (!Files.exists(SAVE_PATH)) {
+            System.out.println("Não há nenhum jogo guardado.");
+            return;
+        }
+        try {
+            SavedGame saved = SavedGame.read(SAVE_PATH);
+            GameConfiguration settings = saved.getSettings();
+            StringBuilder sb = new StringBuilder("A retomar o jogo de ").append(saved.getNickname()).append(" (")
+                    .append(settings.rows()).append('x').append(settings.cols()).append(", ")
+                    .append(settings.mines()).append(" minas, ");
+            GameBoard.appendElapsedTime(sb, saved.getElapsedMillis());
+            System.out.println(sb.append(")..."));
+
+            GameBoard board = saved.restoreBoard();
+            Files.delete(SAVE_PATH); // O jogo só passa a ser o atual depois de deixar de estar guardado
+            gameBoard = board;
+            playerNickname = saved.getNickname();
+            currentSettings = settings;
+            recording = saved.getRecording();
+            recording.continueFrom(saved.getElapsedMillis());
+        } catch (IOException e) {
+            System.out.println("Não foi possível retomar o jogo: " + e.getMessage());
+            return;
+        }
+        playGame();
+    }
+
+    /**
+     * Joga o jogo atual até ser ganho, perdido, abandonado ou guardado, e volta ao menu.
+     */
+    private void playGame() {
+        solver = new ConstraintSolver(gameBoard, false);
+        probabilityEngine = new ProbabilityEngine(gameBoard, solver);
         currentGameStatus = GameStatus.PLAYING;// Reinicializa o estado do jogo
 
-        System.out.println(gameBoard);
+        displayBoard();
         isGameRunning = true;
         interpretCommands();
+        if (boardRenderer != null)
+            boardRenderer.reset();
 
         // Verifica o estado do jogo após o término
         if (currentGameStatus == GameStatus.LOST) {
@@ -108,29 +270,156 @@ public class GameManager {
         } else if (currentGameStatus == GameStatus.WON) {
             System.out.println("Jogo ganho. Voltando ao menu principal...");
         }
-
-        displayStartMenu(); // Retorna ao menu inicial
+        // O ciclo de displayStartMenu continua a partir daqui, sem chamadas recursivas
     }
 
     /**
      * Exibe os últimos jogos ganhos ou perdidos.
      */
     public void displayLastGames() {
-        if (wonGameCount == 0 && gameCount == 1) {
+        List<Game> games;
+        try {
+            games = history.readLast(LAST_GAME_AMOUNT);
+        } catch (IOException e) {
+            System.out.println("Não foi possível ler o histórico: " + e.getMessage());
+            return;
+        }
+        if (games.isEmpty()) {
             System.out.println("Nenhum jogo registrado ainda.");
             return;
         }
 
         System.out.println("=== ÚLTIMOS " + LAST_GAME_AMOUNT + " JOGOS ===");
-        for (int i = 0; i < LAST_GAME_AMOUNT; i++) {
-            Game game = lastWonGames[i];
-            if (game != null) {
-                System.out.println("==========================================");
-                System.out.println(game);
+        for (Game game : games) {
+            System.out.println("==========================================");
+            System.out.println(game);
+        }
+    }
+
+    /**
+     * Exibe os melhores tempos de cada dificuldade e, se já houver um jogador, o seu recorde pessoal.
+     */
+    public void displayLeaderboard() {
+        for (Difficulty difficulty : Difficulty.values()) {
+            System.out.println("=== MELHORES TEMPOS: " + difficulty + " ===");
+            List<Leaderboard.Entry> entries = leaderboard.getBestTimes(difficulty);
+            if (entries.isEmpty())
+                System.out.println("\tNenhum jogo ganho ainda.");
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < entries.size(); i++) {
+                sb.setLength(0);
+                sb.append('\t').append(i + 1).append(". ");
+                GameBoard.appendElapsedTime(sb, entries.get(i).timeMillis());
+                sb.append("  ").append(entries.get(i).nickname());
+                System.out.println(sb);
+            }
+            if (playerNickname != null) {
+                long best = leaderboard.getPersonalBest(difficulty, playerNickname);
+                if (best >= 0) {
+                    sb.setLength(0);
+                    sb.append("\tRecorde pessoal de ").append(playerNickname).append(": ");
+                    GameBoard.appendElapsedTime(sb, best);
+                    System.out.println(sb);
+                }
             }
         }
     }
 
+    /**
+     * Reproduz um dos últimos jogos a partir da sua gravação, jogada a jogada, e confirma no fim que o
+     * tabuleiro reconstruído é igual ao que foi guardado.
+     */
+    public void replayGame() {
+        List<Game> games;
+        try {
+            games = history.readLast(LAST_GAME_AMOUNT);
+        } catch (IOException e) {
+            System.out.println("Não foi possível ler o histórico: " + e.getMessage());
+            return;
+        }
+        if (games.isEmpty()) {
+            System.out.println("Nenhum jogo registrado ainda.");
+            return;
+        }
+
+        for (int i = 0; i < games.size(); i++) {
+            Game game = games.get(games.size() - 1 - i); // Do mais recente para o mais antigo
+            System.out.println((i + 1) + ". " + game.getNickname() + " - " + game.getGameStatus() + " - "
+                    + (game.getRecording() == null ? "sem gravação" : game.getRecording().size() + " jogadas"));
+        }
+        System.out.print("Escolha o jogo: ");
+        int choice = inputScanner.nextInt();
+        System.out.print("Velocidade (0 = sem pausas, 1 = ritmo original): ");
+        double speed = inputScanner.nextDouble();
+        inputScanner.nextLine(); // Consome a nova linha
+        if (choice < 1 || choice > games.size()) {
+            System.out.println("Opção inválida.");
+            return;
+        }
+
+        Game game = games.get(games.size() - choice);
+        if (game.getRecording() == null) {
+            System.out.println("Este jogo foi guardado por uma versão antiga, sem as jogadas, e não pode ser revisto.");
+            return;
+        }
+        GameReplay replay = new GameReplay(game.getRecording());
+        GameRecording moves = game.getRecording();
+        int cols = game.getSettings().cols();
+        StringBuilder sb = new StringBuilder();
+        try {
+            replay.play(speed, move -> {
+                sb.setLength(0);
+                sb.append("Jogada ").append(move + 1).append(": ");
+                int cell = moves.getCell(move);
+                switch (moves.getType(move)) {
+                    case GameRecording.OPEN -> sb.append("/open ");
+                    case GameRecording.FLAG -> sb.append("/flag ");
+                    case GameRecording.CHEAT -> sb.append("/cheat");
+                    default -> sb.append("/hint");
+                }
+                if (cell >= 0 && moves.getType(move) <= GameRecording.FLAG)
+                    Coordinates.appendCell(sb, cell, cols);
+                System.out.println(sb);
+                System.out.println(replay.getBoard());
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        boolean matches = BoardSnapshot.capture(replay.getBoard()).render().equals(game.getBoard().render());
+        System.out.println("Resultado reproduzido: " + replay.getStatus() + (matches
+                ? ". O tabuleiro é igual ao guardado."
+                : ". O tabuleiro é diferente do guardado!"));
+    }
+
+    /**
+     * Grava o quadro de melhores tempos, se tiver jogos que o ficheiro ainda não inclui.
+     */
+    private synchronized void saveLeaderboard() {
+        long games = history.size();
+        if (games == leaderboardGames)
+            return;
+        try {
+            leaderboard.save(LEADERBOARD_PATH, games);
+            leaderboardGames = games;
+        } catch (IOException e) {
+            System.out.println("Não foi possível gravar o quadro de melhores tempos: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Grava no disco os jogos ainda pendentes e o quadro de melhores tempos, e fecha o histórico.
+     */
+    private void closeHistory() {
+        saveLeaderboard();
+        try {
+            history.close();
+        } catch (IOException e) {
+            System.out.println("Não foi possível gravar o histórico: " + e.getMessage());
+        }
+    }
+
 
     /**
      * Interpreta e executa os comandos inseridos pelo usuário durante o jogo.
@@ -144,9 +433,10 @@ public class GameManager {
 
             int row = -1;
             int col = -1;
-            if (commandParts.length > 1) {
-                row = convertAscii(commandParts[1].toUpperCase().charAt(0));
-                col = Integer.parseInt(commandParts[2]);
+            if (commandParts.length > 1 && !commandParts[0].equals("/pan")) {
+                // Linhas: A..Z, AA, AB, ... ou um número; colunas: número
+                row = Coordinates.parseRow(commandParts[1]);
+                col = commandParts.length > 2 ? Coordinates.parseNumber(commandParts[2]) : -1;
 
                 // Verifica se as coordenadas são válidas
                 if (!gameBoard.isValidCoordinate(row, col)) {
@@ -157,7 +447,10 @@ public class GameManager {
 
             System.out.print("\n");
             boolean toggled;
-            switch (commandParts[0].substring(1)) {
+            String commandName = commandParts[0].substring(1);
+            Probe probe = Probe.ofCommand(commandName); // null para /quit e comandos inválidos
+            long start = Metrics.start();
+            switch (commandName) {
                 case "help":
                     displayHelp();
                     break;
@@ -166,14 +459,44 @@ public class GameManager {
                     break;
                 case "flag":
                     toggled = gameBoard.toggleFlag(row, col);
+                    recording.record(GameRecording.FLAG, Coordinates.cell(row, col, gameBoard.getCols()));
+                    solver.onFlagToggled(row, col);
                     System.out.println("Bandeira " + (toggled ? "colocada" : "removida"));
                     break;
                 case "hint":
-                    Coordinates safeCoord = gameBoard.getRandomSafeCoordinate();
-                    System.out.println("Dica: A célula " + safeCoord + " não tem mina.");
+                    int safeCell = solver.nextSafeCell();
+                    if (safeCell >= 0) {
+                        recording.record(GameRecording.HINT, safeCell);
+                        Coordinates deduced = Coordinates.of(safeCell, gameBoard.getCols());
+                        System.out.println("Dica: A célula " + deduced + " não tem mina (deduzido pelos números visíveis).");
+                        break;
+                    }
+                    int randomCell = gameBoard.getRandomSafeCell();
+                    recording.record(GameRecording.RANDOM_HINT, randomCell); // Reproduzida sorteando de novo com a mesma semente
+                    if (randomCell < 0)
+                        System.out.println("Dica: Não restam células sem mina por revelar.");
+                    else
+                        System.out.println("Dica: Nada pode ser deduzido; a célula "
+                                + Coordinates.of(randomCell, gameBoard.getCols()) + " não tem mina.");
+                    break;
+                case "prob":
+                    System.out.print(probabilityEngine.compute().toHeatmap());
+                    break;
+                case "view":
+                    gameBoard.centerViewport(row, col);
+                    break;
+                case "pan":
+                    panViewport(commandParts);
+                    break;
+                case "stats":
+                    displayStats();
+                    break;
+                case "save":
+                    suspendGame();
                     break;
                 case "cheat":
                     toggled = gameBoard.toggleCheat();
+                    recording.record(GameRecording.CHEAT, -1);
                     System.out.println("Modo de batota " + (toggled ? "ativado" : "desativado"));
                     break;
                 case "quit":
@@ -182,6 +505,7 @@ public class GameManager {
                     inputScanner.nextLine(); // Consome a nova linha
                     if (choice == 'Y') {
                         isGameRunning = false;
+                        commitGameEnd("Abandonado");
                         System.out.println("Jogo terminado. Voltando ao menu principal...");
                         return;
                     }
@@ -191,8 +515,18 @@ public class GameManager {
                     break;
             }
 
+            if (probe != null)
+                Metrics.stop(probe, start);
+
+            // O jogo pode ter terminado ao abrir uma mina; nesse caso não há vitória a verificar
+            if (!isGameRunning)
+                return;
+
             // Verifica se o jogador venceu
-            if (gameBoard.checkWin()) {
+            long checkStart = Metrics.start();
+            boolean won = gameBoard.checkWin();
+            Metrics.stop(Probe.CHECK_WIN, checkStart);
+            if (won) {
                 currentGameStatus = GameStatus.WON; // Define o estado do jogo como Won
                 saveGame();
                 System.out.println("Parabéns, você venceu!");
@@ -200,7 +534,63 @@ public class GameManager {
                 return;
             }
 
+            displayBoard();
+        }
+    }
+
+    /**
+     * Mostra o tabuleiro atual, de forma incremental se estiver ativo o desenho ANSI.
+     */
+    private void displayBoard() {
+        long start = Metrics.start();
+        if (boardRenderer != null)
+            boardRenderer.render(gameBoard);
+        else
             System.out.println(gameBoard);
+        Metrics.stop(Probe.RENDER, start);
+    }
+
+    /**
+     * Mostra os tempos medidos de cada comando e das operações internas, e o estado da reserva de tabuleiros.
+     */
+    private void displayStats() {
+        if (!Metrics.isEnabled()) {
+            System.out.println("A instrumentação está desativada. Inicie o jogo com --metrics para a ativar.");
+            if (boardPool != null)
+                System.out.print(boardPool.appendReport(new StringBuilder())); // Contada mesmo sem instrumentação
+            return;
+        }
+        System.out.println("=== ESTATÍSTICAS (tempos em µs) ===");
+        System.out.print(Metrics.appendReport(new StringBuilder()));
+    }
+
+    /**
+     * Desloca a janela visível do tabuleiro: /pan &lt;cima|baixo|esquerda|direita&gt; [quantidade].
+     *
+     * @param commandParts Partes do comando escrito pelo jogador.
+     */
+    private void panViewport(String[] commandParts) {
+        if (commandParts.length < 2) {
+            System.out.println("Indique a direção: cima, baixo, esquerda ou direita.");
+            return;
+        }
+        int amount = commandParts.length > 2 ? Coordinates.parseNumber(commandParts[2]) : -1;
+        switch (commandParts[1].toLowerCase()) {
+            case "cima":
+                gameBoard.panViewport(-(amount < 0 ? gameBoard.getViewRows() / 2 : amount), 0);
+                break;
+            case "baixo":
+                gameBoard.panViewport(amount < 0 ? gameBoard.getViewRows() / 2 : amount, 0);
+                break;
+            case "esquerda":
+                gameBoard.panViewport(0, -(amount < 0 ? gameBoard.getViewCols() / 2 : amount));
+                break;
+            case "direita":
+                gameBoard.panViewport(0, amount < 0 ? gameBoard.getViewCols() / 2 : amount);
+                break;
+            default:
+                System.out.println("Direção inválida. Use cima, baixo, esquerda ou direita.");
+                break;
         }
     }
 
@@ -211,37 +601,75 @@ public class GameManager {
      * @param col Coluna da célula.
      */
     private void openCell(int row, int col) {
-        if (gameBoard.isMine(row, col)) {
+        int cell = Coordinates.cell(row, col, gameBoard.getCols());
+        recording.record(GameRecording.OPEN, cell);
+        if (gameBoard.isMine(cell)) {
             gameBoard.revealAllMines(row, col);
-            System.out.println(gameBoard);
+            displayBoard();
             System.out.println("Você acertou uma mina! Fim de jogo.");
             currentGameStatus = GameStatus.LOST; // Define o estado do jogo como Lost
             saveGame();
             isGameRunning = false;
             return;
         }
-        gameBoard.revealCell(row, col);
+        gameBoard.revealCell(cell);
+        solver.onCellsRevealed(gameBoard.getLastRevealedCells());
     }
 
     /**
-     * Salva o jogo na lista de últimos jogos (ganhos ou perdidos).
-     * Se o array estiver cheio, substitui o jogo mais antigo.
+     * Acrescenta o jogo terminado ao histórico (ganho ou perdido).
      */
     private void saveGame() {
-        Game game = new Game(currentGameStatus, playerNickname, gameBoard.toString());
-
-        // Adiciona o jogo ao array (substitui o mais antigo se necessário)
-        int index = (wonGameCount + gameCount - 1) % LAST_GAME_AMOUNT;
-        lastWonGames[index] = game;
+        commitGameEnd(currentGameStatus.toString());
+        Game game = new Game(currentGameStatus, playerNickname, BoardSnapshot.capture(gameBoard), currentSettings,
+                gameBoard.getSeed(), gameBoard.getElapsedTime(), recording);
+        try {
+            history.append(game);
+        } catch (IOException e) {
+            System.out.println("Não foi possível salvar o jogo: " + e.getMessage());
+            return;
+        }
 
         if (currentGameStatus == GameStatus.WON) {
             wonGameCount++;
+            if (leaderboard.record(game))
+                System.out.println("Novo tempo no quadro: " + leaderboard.getRank(game.getDifficulty(), playerNickname) + "º lugar!");
+            saveLeaderboard(); // Os jogos perdidos não mudam o quadro; ficam para a gravação ao sair
         }
 
         gameCount++;
         System.out.println("Jogo salvo com sucesso!");
     }
 
+    /**
+     * Guarda o jogo atual em disco e volta ao menu. Se a escrita falhar, o jogo continua.
+     */
+    private void suspendGame() {
+        try {
+            SavedGame.write(SAVE_PATH, playerNickname, gameBoard, recording);
+        } catch (IOException e) {
+            System.out.println("Não foi possível guardar o jogo: " + e.getMessage());
+            return;
+        }
+        isGameRunning = false;
+        System.out.println("Jogo guardado. Use a opção 5 do menu para o continuar.");
+    }
+
+    /**
+     * Grava o evento JFR do fim do jogo, se houver uma gravação JFR ativa.
+     *
+     * @param status Resultado do jogo.
+     */
+    private void commitGameEnd(String status) {
+        GameEndEvent event = new GameEndEvent();
+        if (event.shouldCommit()) {
+            event.status = status;
+            event.gameDuration = gameBoard.getElapsedTime();
+            event.moves = recording.size();
+            event.commit();
+        }
+    }
+
     /**
      * Method displayHelp
      * Exibe a lista de comandos disponíveis.
@@ -251,23 +679,13 @@ public class GameManager {
         System.out.println("/help : Apresenta a lista de comandos, a sua função e utilização.\n");
         System.out.println("/open <linha> <coluna> : Abre a célula nas coordenadas de tabuleiro - linha/coluna, e.g., /open A 2.\n");
         System.out.println("/flag <linha> <coluna> : Marca a célula nas coordenadas de tabuleiro linha/coluna com uma bandeira. Se já existir uma bandeira nessa célula, remove-a.\n");
-        System.out.println("/hint : Sugere de forma aleatória, uma célula que não contém minas.\n");
+        System.out.println("/hint : Sugere uma célula que não contém minas, deduzida pelos números visíveis sempre que possível.\n");
+        System.out.println("/prob : Mostra a probabilidade de cada célula tapada conter uma mina, calculada a partir dos números visíveis.\n");
+        System.out.println("/view <linha> <coluna> : Centra a parte visível do tabuleiro na célula indicada, e.g., /view AB 120.\n");
+        System.out.println("/pan <cima|baixo|esquerda|direita> [quantidade] : Desloca a parte visível do tabuleiro.\n");
+        System.out.println("/stats : Mostra os tempos medidos de cada comando e das operações internas (requer --metrics) e a reserva de tabuleiros.\n");
         System.out.println("/cheat : Comuta o jogo para modo de \"batota\", onde as minas são reveladas a cada mostragem do tabuleiro.\n");
+        System.out.println("/save : Guarda o jogo e volta ao menu principal; pode ser continuado mais tarde com a opção 5 do menu.\n");
         System.out.println("/quit : Termina o jogo e volta para o menu principal. Um jogo assim terminado não entra na lista de vitórias.\n");
     }
-
-
-    /**
-     * Converte um caractere (A-Z ou 0-9) em um número.
-     *
-     * @param character Caractere a ser convertido.
-     * @return Número correspondente ao caractere.
-     */
-    private int convertAscii(int character) {
-        if (character >= 65) // Converte letras (A-Z) para números (0-25)
-            character -= 65;
-        else // Converte números (0-9) para inteiros
-            character = (character - '0');
-        return character;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,278 @@
+package config;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Gravação de um jogo: a origem do tabuleiro (configuração, semente e modo de colocação das minas) e a
+ * lista das jogadas com o instante em que foram feitas. Como o tabuleiro é reprodutível a partir da
+ * semente, isto basta para reconstruir o estado exato em qualquer jogada, ver {@link GameReplay}.
+ * <p>
+ * As jogadas ficam em vetores de tipos primitivos. Serializadas, cada jogada ocupa um byte de tipo,
+ * a célula e o intervalo desde a jogada anterior em inteiros de comprimento variável, normalmente
+ * entre 3 e 6 bytes.
+ */
+public class GameRecording {
+    /** Abre uma célula; se tiver mina, revela todas as minas. */
+    public static final byte OPEN = 0;
+    /** Coloca ou remove uma bandeira. */
+    public static final byte FLAG = 1;
+    /** Dica deduzida pelos números visíveis; não altera o tabuleiro. */
+    public static final byte HINT = 2;
+    /**
+     * Dica sorteada pelo tabuleiro, que avança o gerador das dicas; a célula sorteada é só informativa.
+     * Antes da primeira célula aberta, a célula sugerida fica sem mina, por isso a dica pode decidir onde
+     * ficam as minas; a reprodução tem de sortear as dicas da mesma forma que o jogo, ver {@link #hasLegacyHints()}.
+     */
+    public static final byte RANDOM_HINT = 3;
+    /** Comuta o modo de batota. */
+    public static final byte CHEAT = 4;
+
+    private static final int SAFE_FIRST_CLICK = 1; // Bits do byte de modo
+    private static final int LEGACY_HINTS = 2;
+
+    private final GameConfiguration settings;
+    private final long seed;
+    private final boolean safeFirstClick;
+    private final int startCell;
+    private boolean legacyHints; // Gravada com as dicas antigas, ver hasLegacyHints
+    private long startMillis; // Só usado durante a gravação
+    private byte[] types;
+    private int[] cells; // -1 nas jogadas sem célula
+    private int[] times; // Milissegundos desde o início do jogo
+    private int size;
+
+    private GameRecording(GameConfiguration settings, long seed, boolean safeFirstClick, int startCell, int capacity) {
+        this.settings = settings;
+        this.seed = seed;
+        this.safeFirstClick = safeFirstClick;
+        this.startCell = startCell;
+        this.startMillis = System.currentTimeMillis();
+        types = new byte[capacity];
+        cells = new int[capacity];
+        times = new int[capacity];
+    }
+
+    /**
+     * Começa a gravar um jogo sobre um tabuleiro ainda por jogar. Se o tabuleiro já vier com a célula
+     * inicial aberta, como os do {@link solver.NoGuessGenerator}, essa abertura é a primeira jogada.
+     *
+     * @param board Tabuleiro do jogo.
+     * @return Gravação vazia.
+     */
+    public static GameRecording start(GameBoard board) {
+        GameRecording recording = new GameRecording(board.getSettings(), board.getSeed(), board.isSafeFirstClick(),
+                board.getStartCell(), 64);
+        int start = recording.startCell;
+        if (start >= 0 && board.isUncovered(start)) {
+            recording.types[0] = OPEN;
+            recording.cells[0] = start;
+            recording.size = 1;
+        }
+        return recording;
+    }
+
+    /**
+     * Cria um tabuleiro igual ao do início do jogo gravado, antes de qualquer jogada.
+     *
+     * @return Tabuleiro novo.
+     */
+    public GameBoard createBoard() {
+        GameBoard board = startCell >= 0
+                ? new GameBoard(settings, seed, startCell / settings.cols(), startCell % settings.cols())
+                : new GameBoard(settings, seed, safeFirstClick);
+        if (legacyHints)
+            board.useLegacyHints();
+        return board;
+    }
+
+    /**
+     * Indica se o jogo foi gravado antes de as dicas aleatórias passarem a ser sorteadas sem objetos.
+     * Essas dicas sorteavam outras células e, antes da primeira célula aberta, colocavam logo as minas;
+     * o tabuleiro de {@link #createBoard()} sorteia-as da mesma forma para a reprodução dar o mesmo jogo.
+     *
+     * @return true se a gravação usar as dicas antigas.
+     */
+    public boolean hasLegacyHints() {
+        return legacyHints;
+    }
+
+    /**
+     * Marca a gravação como feita com as dicas antigas; usado ao ler formatos anteriores a essa mudança.
+     */
+    void markLegacyHints() {
+        legacyHints = true;
+    }
+
+    /**
+     * Acrescenta uma jogada, com o instante atual.
+     *
+     * @param type Tipo da jogada, por exemplo {@link #OPEN}.
+     * @param cell Índice da célula ({@code linha * colunas + coluna}), ou -1 se a jogada não tiver célula.
+     */
+    public void record(byte type, int cell) {
+        if (size == types.length) {
+            int capacity = size * 2;
+            types = Arrays.copyOf(types, capacity);
+            cells = Arrays.copyOf(cells, capacity);
+            times = Arrays.copyOf(times, capacity);
+        }
+        types[size] = type;
+        cells[size] = cell;
+        times[size] = (int) Math.min(Integer.MAX_VALUE, System.currentTimeMillis() - startMillis);
+        size++;
+    }
+
+    /**
+     * Continua a gravação de um jogo retomado, com os instantes das novas jogadas a seguir aos já gravados.
+     *
+     * @param elapsedMillis Tempo de jogo decorrido até o jogo ter sido guardado.
+     */
+    public void continueFrom(long elapsedMillis) {
+        startMillis = System.currentTimeMillis() - elapsedMillis;
+    }
+
+    /**
+     * Retorna o número de jogadas gravadas.
+     *
+     * @return Número de jogadas.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Retorna o tipo de uma jogada.
+     *
+     * @param move Índice da jogada, a contar de 0.
+     * @return Tipo da jogada.
+     */
+    public byte getType(int move) {
+        return types[move];
+    }
+
+    /**
+     * Retorna a célula de uma jogada.
+     *
+     * @param move Índice da jogada, a contar de 0.
+     * @return Índice da célula, ou -1 se a jogada não tiver célula.
+     */
+    public int getCell(int move) {
+        return cells[move];
+    }
+
+    /**
+     * Retorna o instante de uma jogada.
+     *
+     * @param move Índice da jogada, a contar de 0.
+     * @return Milissegundos desde o início do jogo.
+     */
+    public int getTime(int move) {
+        return times[move];
+    }
+
+    /**
+     * Retorna a configuração do tabuleiro gravado.
+     *
+     * @return Configuração do tabuleiro.
+     */
+    public GameConfiguration getSettings() {
+        return settings;
+    }
+
+    /**
+     * Retorna a semente do tabuleiro gravado.
+     *
+     * @return Semente do tabuleiro.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Retorna o número de bytes escritos por {@link #writeTo(ByteBuffer)}.
+     *
+     * @return Tamanho serializado.
+     */
+    public int serializedSize() {
+        int length = 12 + 8 + 1 + 4 + 4;
+        int previous = 0;
+        for (int i = 0; i < size; i++) {
+            length += 1 + varIntSize(cells[i] + 1) + varIntSize(times[i] - previous);
+            previous = times[i];
+        }
+        return length;
+    }
+
+    /**
+     * Escreve a gravação num buffer: configuração, semente, modo (primeira jogada segura, dicas antigas),
+     * célula inicial, número de jogadas e jogadas (tipo, célula mais um e intervalo desde a jogada anterior).
+     *
+     * @param buffer Buffer de destino, com pelo menos {@link #serializedSize()} bytes livres.
+     */
+    public void writeTo(ByteBuffer buffer) {
+        buffer.putInt(settings.rows()).putInt(settings.cols()).putInt(settings.mines())
+                .putLong(seed).put((byte) ((safeFirstClick ? SAFE_FIRST_CLICK : 0) | (legacyHints ? LEGACY_HINTS : 0)))
+                .putInt(startCell).putInt(size);
+        int previous = 0;
+        for (int i = 0; i < size; i++) {
+            buffer.put(types[i]);
+            putVarInt(buffer, cells[i] + 1);
+            putVarInt(buffer, times[i] - previous); // Os instantes nunca diminuem
+            previous = times[i];
+        }
+    }
+
+    /**
+     * Lê uma gravação escrita por {@link #writeTo(ByteBuffer)}.
+     *
+     * @param buffer Buffer de origem.
+     * @return Gravação lida.
+     */
+    public static GameRecording readFrom(ByteBuffer buffer) {
+        GameConfiguration settings = new GameConfiguration(buffer.getInt(), buffer.getInt(), buffer.getInt());
+        long seed = buffer.getLong();
+        int mode = buffer.get();
+        int startCell = buffer.getInt();
+        int size = buffer.getInt();
+        GameRecording recording = new GameRecording(settings, seed, (mode & SAFE_FIRST_CLICK) != 0, startCell, Math.max(size, 1));
+        recording.legacyHints = (mode & LEGACY_HINTS) != 0;
+        int time = 0;
+        for (int i = 0; i < size; i++) {
+            recording.types[i] = buffer.get();
+            recording.cells[i] = getVarInt(buffer) - 1;
+            time += getVarInt(buffer);
+            recording.times[i] = time;
+        }
+        recording.size = size;
+        return recording;
+    }
+
+    private static int varIntSize(int value) {
+        int bytes = 1;
+        while ((value >>>= 7) != 0) {
+            bytes++;
+        }
+        return bytes;
+    }
+
+    private static void putVarInt(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static int getVarInt(ByteBuffer buffer) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+}
@@ -0,0 +1,167 @@
+package config;
+
+import Enums.GameStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Reconstrói o estado de um jogo gravado em qualquer jogada, aplicando as jogadas de um
+ * {@link GameRecording} a um tabuleiro criado com a mesma semente.
+ * <p>
+ * Enquanto avança, guarda uma cópia do tabuleiro a intervalos regulares de jogadas. Recuar ou saltar
+ * para a jogada N parte da cópia mais próxima antes de N, por isso nunca aplica mais do que um intervalo
+ * de jogadas depois de a gravação ter sido percorrida uma vez. Uma cópia custa o tamanho do tabuleiro e
+ * uma jogada quase nada, por isso o intervalo cresce com o tabuleiro.
+ */
+public class GameReplay {
+    private static final int MIN_SNAPSHOT_INTERVAL = 256;
+    private static final int CELLS_PER_SNAPSHOT_MOVE = 16; // Intervalo = células / 16, no mínimo 256
+
+    private final GameRecording recording;
+    private final int snapshotInterval;
+    private final List<GameBoard> snapshots = new ArrayList<>(); // Estado depois de k * snapshotInterval jogadas
+    private GameBoard board;
+    private int position; // Jogadas já aplicadas ao tabuleiro
+    private GameStatus status = GameStatus.PLAYING;
+    private GameStatus snapshotStatus = GameStatus.PLAYING; // Só muda na última jogada, que termina o jogo
+
+    /**
+     * Prepara a reprodução, com o tabuleiro antes da primeira jogada.
+     *
+     * @param recording Gravação a reproduzir.
+     */
+    public GameReplay(GameRecording recording) {
+        this.recording = recording;
+        board = recording.createBoard();
+        GameConfiguration settings = recording.getSettings();
+        snapshotInterval = Math.max(MIN_SNAPSHOT_INTERVAL, settings.rows() * settings.cols() / CELLS_PER_SNAPSHOT_MOVE);
+        snapshots.add(new GameBoard(board));
+    }
+
+    /**
+     * Aplica a próxima jogada.
+     *
+     * @return false se já não houver jogadas.
+     */
+    public boolean step() {
+        if (position >= recording.size())
+            return false;
+        status = apply(board, recording.getType(position), recording.getCell(position));
+        position++;
+        if (position % snapshotInterval == 0 && snapshots.size() == position / snapshotInterval) {
+            snapshots.add(new GameBoard(board));
+            snapshotStatus = status;
+        }
+        return true;
+    }
+
+    /**
+     * Coloca o tabuleiro no estado em que ficou depois de um número de jogadas.
+     *
+     * @param move Número de jogadas a aplicar, entre 0 e {@link GameRecording#size()}.
+     * @return Tabuleiro nesse estado; é alterado pelas chamadas seguintes.
+     */
+    public GameBoard seek(int move) {
+        if (move < 0 || move > recording.size())
+            throw new IllegalArgumentException("Jogada fora da gravação: " + move);
+        int snapshot = Math.min(move / snapshotInterval, snapshots.size() - 1);
+        if (move < position || snapshot * snapshotInterval > position) {
+            board = new GameBoard(snapshots.get(snapshot));
+            position = snapshot * snapshotInterval;
+            status = position == recording.size() ? snapshotStatus : GameStatus.PLAYING;
+        }
+        while (position < move) {
+            step();
+        }
+        return board;
+    }
+
+    /**
+     * Reproduz as jogadas que faltam ao ritmo gravado, multiplicado por uma velocidade.
+     *
+     * @param speed 1 para o ritmo original, 2 para o dobro; 0 ou menos reproduz sem pausas.
+     * @param afterMove Chamado depois de cada jogada, com o índice da jogada aplicada.
+     * @throws InterruptedException Se a thread for interrompida durante uma pausa.
+     */
+    public void play(double speed, IntConsumer afterMove) throws InterruptedException {
+        while (position < recording.size()) {
+            if (speed > 0 && position > 0) {
+                long pause = (long) ((recording.getTime(position) - recording.getTime(position - 1)) / speed);
+                if (pause > 0)
+                    Thread.sleep(pause);
+            }
+            step();
+            afterMove.accept(position - 1);
+        }
+    }
+
+    /**
+     * Aplica uma jogada a um tabuleiro com as regras do {@link GameManager}.
+     *
+     * @param board Tabuleiro do jogo.
+     * @param type Tipo da jogada.
+     * @param cell Célula da jogada, ou -1.
+     * @return Estado do jogo depois da jogada.
+     */
+    static GameStatus apply(GameBoard board, byte type, int cell) {
+        switch (type) {
+            case GameRecording.OPEN:
+                if (board.isMine(cell)) {
+                    board.revealAllMines(cell / board.getCols(), cell % board.getCols());
+                    return GameStatus.LOST;
+                }
+                board.revealCell(cell);
+                break;
+            case GameRecording.FLAG:
+                board.toggleFlag(cell);
+                break;
+            case GameRecording.RANDOM_HINT:
+                board.getRandomSafeCell(); // Sorteia de novo com a mesma semente e o mesmo gerador, ver createBoard
+                break;
+            case GameRecording.CHEAT:
+                board.toggleCheat();
+                break;
+            default:
+                break; // As dicas deduzidas não alteram o tabuleiro
+        }
+        return board.checkWin() ? GameStatus.WON : GameStatus.PLAYING;
+    }
+
+    /**
+     * Retorna o tabuleiro na posição atual.
+     *
+     * @return Tabuleiro reconstruído.
+     */
+    public GameBoard getBoard() {
+        return board;
+    }
+
+    /**
+     * Retorna o número de jogadas já aplicadas.
+     *
+     * @return Posição na gravação.
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Retorna o estado do jogo na posição atual.
+     *
+     * @return Estado do jogo.
+     */
+    public GameStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Retorna a gravação reproduzida.
+     *
+     * @return Gravação.
+     */
+    public GameRecording getRecording() {
+        return recording;
+    }
+}
@@ -0,0 +1,136 @@
+package config;
+
+import Enums.GameStatus;
+
+/**
+ * A classe {@code HeadlessGame} joga diretamente sobre um {@link GameBoard}, sem consola.
+ * Aplica as mesmas regras que o {@link GameManager} e serve para simulações, bots e testes em lote.
+ */
+public class HeadlessGame {
+    private final GameBoard board;
+    private GameStatus status = GameStatus.PLAYING;
+    private int moveCount;
+
+    /**
+     * Cria um jogo sobre um tabuleiro reprodutível.
+     *
+     * @param settings Configuração do tabuleiro.
+     * @param seed Semente do tabuleiro.
+     * @param safeFirstClick Se true, a primeira célula aberta nunca tem mina.
+     */
+    public HeadlessGame(GameConfiguration settings, long seed, boolean safeFirstClick) {
+        this(new GameBoard(settings, seed, safeFirstClick));
+    }
+
+    /**
+     * Cria um jogo sobre um tabuleiro já construído.
+     *
+     * @param board Tabuleiro do jogo.
+     */
+    public HeadlessGame(GameBoard board) {
+        this.board = board;
+    }
+
+    /**
+     * Abre uma célula. Abrir uma mina perde o jogo; revelar todas as células seguras ganha-o.
+     *
+     * @param row Linha da célula.
+     * @param col Coluna da célula.
+     * @return Estado do jogo depois da jogada.
+     */
+    public GameStatus open(int row, int col) {
+        return open(board.isValidCoordinate(row, col) ? Coordinates.cell(row, col, board.getCols()) : -1);
+    }
+
+    /**
+     * Abre uma célula dada pelo seu índice, ver {@link #open(int, int)}.
+     *
+     * @param cell Índice da célula ({@code linha * colunas + coluna}).
+     * @return Estado do jogo depois da jogada.
+     */
+    public GameStatus open(int cell) {
+        if (status != GameStatus.PLAYING || !board.isValidCell(cell))
+            return status;
+        moveCount++;
+        if (board.isMine(cell)) {
+            status = GameStatus.LOST;
+            return status;
+        }
+        board.revealCell(cell);
+        if (board.checkWin())
+            status = GameStatus.WON;
+        return status;
+    }
+
+    /**
+     * Coloca ou remove uma bandeira.
+     *
+     * @param row Linha da célula.
+     * @param col Coluna da célula.
+     * @return Estado do jogo depois da jogada.
+     */
+    public GameStatus toggleFlag(int row, int col) {
+        return toggleFlag(board.isValidCoordinate(row, col) ? Coordinates.cell(row, col, board.getCols()) : -1);
+    }
+
+    /**
+     * Coloca ou remove uma bandeira numa célula dada pelo seu índice.
+     *
+     * @param cell Índice da célula ({@code linha * colunas + coluna}).
+     * @return Estado do jogo depois da jogada.
+     */
+    public GameStatus toggleFlag(int cell) {
+        if (status != GameStatus.PLAYING || !board.isValidCell(cell))
+            return status;
+        moveCount++;
+        board.toggleFlag(cell);
+        if (board.checkWin())
+            status = GameStatus.WON;
+        return status;
+    }
+
+    /**
+     * Pede uma dica ao tabuleiro.
+     *
+     * @return Célula sem mina por revelar, ou null se não restar nenhuma.
+     */
+    public Coordinates hint() {
+        return board.getRandomSafeCoordinate();
+    }
+
+    /**
+     * Pede uma dica ao tabuleiro, sem criar objetos.
+     *
+     * @return Índice de uma célula sem mina por revelar, ou -1 se não restar nenhuma.
+     */
+    public int hintCell() {
+        return board.getRandomSafeCell();
+    }
+
+    /**
+     * Retorna o estado atual do jogo.
+     *
+     * @return Estado do jogo.
+     */
+    public GameStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Retorna o número de jogadas (aberturas e bandeiras) feitas até agora.
+     *
+     * @return Número de jogadas.
+     */
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * Retorna o tabuleiro do jogo.
+     *
+     * @return Tabuleiro do jogo.
+     */
+    public GameBoard getBoard() {
+        return board;
+    }
+}
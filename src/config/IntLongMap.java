@@ -0,0 +1,112 @@
+package config;
+
+/**
+ * Mapa de chaves {@code int} para valores {@code long} sem boxing, com endereçamento aberto e
+ * sondagem linear. Não permite remoções, que nenhum dos usos precisa.
+ */
+public class IntLongMap {
+    private int[] keys;
+    private long[] values;
+    private boolean[] used;
+    private int size;
+
+    /**
+     * Cria um mapa vazio com espaço para o número de entradas indicado antes de crescer.
+     *
+     * @param expectedSize Número de entradas esperado.
+     */
+    public IntLongMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize) * 2 - 1) << 1;
+        keys = new int[capacity];
+        values = new long[capacity];
+        used = new boolean[capacity];
+    }
+
+    /**
+     * Retorna o valor associado a uma chave.
+     *
+     * @param key Chave a procurar.
+     * @param missing Valor a retornar se a chave não existir.
+     * @return Valor associado, ou {@code missing}.
+     */
+    public long get(int key, long missing) {
+        int mask = keys.length - 1;
+        for (int slot = slot(key, mask); used[slot]; slot = (slot + 1) & mask) {
+            if (keys[slot] == key)
+                return values[slot];
+        }
+        return missing;
+    }
+
+    /**
+     * Verifica se a chave existe no mapa.
+     *
+     * @param key Chave a procurar.
+     * @return true se a chave tiver um valor associado.
+     */
+    public boolean containsKey(int key) {
+        int mask = keys.length - 1;
+        for (int slot = slot(key, mask); used[slot]; slot = (slot + 1) & mask) {
+            if (keys[slot] == key)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Associa um valor a uma chave, substituindo o anterior.
+     *
+     * @param key Chave.
+     * @param value Valor a guardar.
+     */
+    public void put(int key, long value) {
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        used[slot] = true;
+        if (++size * 2 > keys.length)
+            grow();
+    }
+
+    /**
+     * Retorna o número de chaves no mapa.
+     *
+     * @return Tamanho do mapa.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Duplica a capacidade, mantendo o mapa no máximo meio cheio.
+     */
+    private void grow() {
+        int[] oldKeys = keys;
+        long[] oldValues = values;
+        boolean[] oldUsed = used;
+        keys = new int[oldKeys.length * 2];
+        values = new long[oldKeys.length * 2];
+        used = new boolean[oldKeys.length * 2];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i])
+                put(oldKeys[i], oldValues[i]);
+        }
+    }
+
+    /**
+     * Espalha os bits da chave, porque os hashes de strings parecidas diferem pouco nos bits baixos.
+     */
+    private static int slot(int key, int mask) {
+        int hash = key * 0x9E3779B9;
+        return (hash ^ hash >>> 16) & mask;
+    }
+}
@@ -0,0 +1,87 @@
+package config;
+
+import java.util.Arrays;
+
+/**
+ * Pilha de inteiros sem boxing, usada para guardar índices de células.
+ * O vetor interno é reutilizado entre utilizações e só cresce quando necessário.
+ */
+public class IntStack {
+    private int[] elements;
+    private int size;
+
+    /**
+     * Cria uma pilha vazia com a capacidade inicial indicada.
+     *
+     * @param initialCapacity Capacidade inicial.
+     */
+    public IntStack(int initialCapacity) {
+        elements = new int[Math.max(1, initialCapacity)];
+    }
+
+    /**
+     * Coloca um valor no topo da pilha.
+     *
+     * @param value Valor a guardar.
+     */
+    public void push(int value) {
+        if (size == elements.length)
+            elements = Arrays.copyOf(elements, size * 2);
+        elements[size++] = value;
+    }
+
+    /**
+     * Remove e retorna o valor no topo da pilha.
+     *
+     * @return Valor removido.
+     */
+    public int pop() {
+        return elements[--size];
+    }
+
+    /**
+     * Retorna o valor na posição indicada, a contar da base da pilha.
+     *
+     * @param index Posição do valor.
+     * @return Valor guardado.
+     */
+    public int get(int index) {
+        if (index >= size)
+            throw new IndexOutOfBoundsException(index);
+        return elements[index];
+    }
+
+    /**
+     * Retorna o número de valores na pilha.
+     *
+     * @return Tamanho da pilha.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Verifica se a pilha está vazia.
+     *
+     * @return true se não houver valores.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Copia os valores para um novo vetor, pela ordem em que foram colocados.
+     *
+     * @return Vetor com os valores da pilha.
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    /**
+     * Esvazia a pilha mantendo o vetor interno.
+     */
+    public void clear() {
+        size = 0;
+    }
+}
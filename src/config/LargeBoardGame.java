@@ -0,0 +1,163 @@
+package config;
+
+import Enums.GameStatus;
+
+import java.util.Scanner;
+
+/**
+ * Jogo na consola sobre qualquer {@link Board}, para tabuleiros grandes demais para o {@link GameBoard}.
+ * <p>
+ * Só tem os comandos que não dependem do tabuleiro inteiro em memória: abrir, marcar e mover a janela
+ * visível. Os jogos não entram no histórico nem na tabela de classificação.
+ */
+public class LargeBoardGame {
+    private static final int VIEW_ROWS = 26; // Tamanho da janela mostrada, como no GameBoard
+    private static final int VIEW_COLS = 40;
+
+    private final Board board;
+    private final Scanner inputScanner;
+    private GameStatus status = GameStatus.PLAYING;
+    private int viewRow;
+    private int viewCol;
+
+    /**
+     * Cria um jogo sobre um tabuleiro já construído.
+     *
+     * @param board Tabuleiro do jogo.
+     * @param inputScanner Origem dos comandos do jogador.
+     */
+    public LargeBoardGame(Board board, Scanner inputScanner) {
+        this.board = board;
+        this.inputScanner = inputScanner;
+    }
+
+    /**
+     * Lê e executa comandos até o jogo ser ganho, perdido ou abandonado, ou a entrada terminar.
+     *
+     * @return Estado do jogo no fim; {@link GameStatus#PLAYING} se foi abandonado.
+     */
+    public GameStatus play() {
+        displayBoard();
+        while (status == GameStatus.PLAYING) {
+            System.out.println("[Escreva /help para ver os comandos]");
+            System.out.print("Comando > ");
+            if (!inputScanner.hasNextLine())
+                break;
+            String[] commandParts = inputScanner.nextLine().trim().split(" ");
+
+            // Linhas: A..Z, AA, AB, ... ou um número; colunas: número
+            int row = commandParts.length > 1 ? Coordinates.parseRow(commandParts[1]) : -1;
+            int col = commandParts.length > 2 ? Coordinates.parseNumber(commandParts[2]) : -1;
+            boolean needsCell = commandParts[0].equals("/open") || commandParts[0].equals("/flag") || commandParts[0].equals("/view");
+            if (needsCell && !board.isValidCoordinate(row, col)) {
+                System.out.println("Coordenadas inválidas!");
+                continue;
+            }
+
+            System.out.print("\n");
+            switch (commandParts[0]) {
+                case "/help":
+                    displayHelp();
+                    break;
+                case "/open":
+                    if (board.isMine(row, col)) {
+                        status = GameStatus.LOST;
+                        System.out.println("Você acertou uma mina! Fim de jogo.");
+                    } else {
+                        System.out.println(board.revealCell(row, col) + " células reveladas.");
+                    }
+                    break;
+                case "/flag":
+                    if (!board.toggleFlag(row, col))
+                        System.out.println("Não há bandeiras disponíveis.");
+                    else
+                        System.out.println("Bandeira " + (board.isFlagged(row, col) ? "colocada" : "removida"));
+                    break;
+                case "/view":
+                    setViewport(row - VIEW_ROWS / 2, col - VIEW_COLS / 2);
+                    break;
+                case "/pan":
+                    panViewport(commandParts);
+                    break;
+                case "/quit":
+                    System.out.println("Jogo terminado.");
+                    return status;
+                default:
+                    System.out.println("Comando inválido. Use /help para ver os comandos disponíveis.");
+                    break;
+            }
+
+            if (status == GameStatus.PLAYING && board.checkWin()) {
+                status = GameStatus.WON;
+                System.out.println("Parabéns, você venceu!");
+            }
+            displayBoard();
+        }
+        return status;
+    }
+
+    /**
+     * Mostra a janela visível do tabuleiro.
+     */
+    private void displayBoard() {
+        System.out.print(board.render(viewRow, viewCol, VIEW_ROWS, VIEW_COLS));
+        System.out.println("\tJanela: linhas " + Coordinates.rowLabel(viewRow) + "-"
+                + Coordinates.rowLabel(Math.min(board.getRows(), viewRow + VIEW_ROWS) - 1) + " de " + board.getRows()
+                + ", colunas " + viewCol + "-" + (Math.min(board.getCols(), viewCol + VIEW_COLS) - 1) + " de " + board.getCols());
+    }
+
+    /**
+     * Move a janela visível sem sair dos limites do tabuleiro.
+     *
+     * @param firstRow Primeira linha da janela.
+     * @param firstCol Primeira coluna da janela.
+     */
+    private void setViewport(int firstRow, int firstCol) {
+        viewRow = Math.max(0, Math.min(board.getRows() - VIEW_ROWS, firstRow));
+        viewCol = Math.max(0, Math.min(board.getCols() - VIEW_COLS, firstCol));
+    }
+
+    /**
+     * Desloca a janela visível: /pan &lt;cima|baixo|esquerda|direita&gt; [quantidade].
+     *
+     * @param commandParts Partes do comando escrito pelo jogador.
+     */
+    private void panViewport(String[] commandParts) {
+        if (commandParts.length < 2) {
+            System.out.println("Indique a direção: cima, baixo, esquerda ou direita.");
+            return;
+        }
+        int amount = commandParts.length > 2 ? Coordinates.parseNumber(commandParts[2]) : -1;
+        int rows = amount < 0 ? VIEW_ROWS / 2 : amount;
+        int cols = amount < 0 ? VIEW_COLS / 2 : amount;
+        switch (commandParts[1].toLowerCase()) {
+            case "cima":
+                setViewport(viewRow - rows, viewCol);
+                break;
+            case "baixo":
+                setViewport(viewRow + rows, viewCol);
+                break;
+            case "esquerda":
+                setViewport(viewRow, viewCol - cols);
+                break;
+            case "direita":
+                setViewport(viewRow, viewCol + cols);
+                break;
+            default:
+                System.out.println("Direção inválida. Use cima, baixo, esquerda ou direita.");
+                break;
+        }
+    }
+
+    /**
+     * Exibe a lista de comandos disponíveis.
+     */
+    private void displayHelp() {
+        System.out.println("\n=== COMANDOS DISPONIVEIS ===");
+        System.out.println("/open <linha> <coluna> : Abre a célula nas coordenadas de tabuleiro - linha/coluna, e.g., /open A 2.\n");
+        System.out.println("/flag <linha> <coluna> : Marca a célula com uma bandeira, ou remove-a se já existir.\n");
+        System.out.println("/view <linha> <coluna> : Centra a parte visível do tabuleiro na célula indicada, e.g., /view AB 120.\n");
+        System.out.println("/pan <cima|baixo|esquerda|direita> [quantidade] : Desloca a parte visível do tabuleiro.\n");
+        System.out.println("/quit : Termina o jogo.\n");
+    }
+}
@@ -0,0 +1,289 @@
+package config;
+
+import Enums.Difficulty;
+import Enums.GameStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Quadro dos melhores tempos de cada {@link Difficulty}.
+ * <p>
+ * Cada dificuldade guarda os {@code capacity} melhores jogadores numa árvore ordenada por tempo, com no
+ * máximo uma entrada por jogador, e um mapa com o melhor tempo pessoal de todos os jogadores. Inserir
+ * custa O(log K); as consultas nunca percorrem o histórico. Cada dificuldade tem o seu próprio bloqueio,
+ * por isso jogos de dificuldades diferentes não esperam uns pelos outros.
+ * <p>
+ * O quadro é gravado num ficheiro próprio com o número de jogos do histórico que já inclui; ao arrancar
+ * basta ler esse ficheiro e registar os jogos acrescentados depois dele.
+ */
+public class Leaderboard {
+    private static final int MAGIC = 0x4D534C42; // "MSLB"
+    private static final int VERSION = 1;
+
+    private final int capacity;
+    private final Map<Difficulty, Ranking> rankings = new EnumMap<>(Difficulty.class);
+
+    /**
+     * Entrada do quadro.
+     *
+     * @param nickname Alcunha do jogador.
+     * @param timeMillis Tempo do jogo em milissegundos.
+     */
+    public record Entry(String nickname, long timeMillis) {
+    }
+
+    /**
+     * Entrada com a ordem de chegada, que desempata tempos iguais a favor de quem chegou primeiro.
+     */
+    private record Slot(String nickname, long timeMillis, long sequence) {
+    }
+
+    /**
+     * Quadro de uma dificuldade. A árvore e o mapa de membros só são usados com o bloqueio do objeto.
+     */
+    private static final class Ranking {
+        final TreeSet<Slot> top = new TreeSet<>(Comparator.comparingLong(Slot::timeMillis).thenComparingLong(Slot::sequence));
+        final Map<String, Slot> members = new HashMap<>();
+        final Map<String, Long> personalBest = new ConcurrentHashMap<>();
+        long nextSequence;
+
+        /**
+         * Substitui o conteúdo deste quadro pelo de outro, lido de um ficheiro.
+         */
+        synchronized void replaceWith(Ranking other) {
+            top.clear();
+            members.clear();
+            for (Slot slot : other.top) {
+                top.add(slot);
+                members.put(slot.nickname(), slot);
+            }
+            personalBest.clear();
+            personalBest.putAll(other.personalBest);
+            nextSequence = other.nextSequence;
+        }
+    }
+
+    /**
+     * Cria um quadro vazio.
+     *
+     * @param capacity Número de jogadores guardados por dificuldade.
+     */
+    public Leaderboard(int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Capacidade do quadro inválida: " + capacity);
+        this.capacity = capacity;
+        for (Difficulty difficulty : Difficulty.values()) {
+            rankings.put(difficulty, new Ranking());
+        }
+    }
+
+    /**
+     * Regista um jogo terminado. Só contam os jogos ganhos numa dificuldade predefinida.
+     *
+     * @param game Jogo terminado.
+     * @return true se o jogo entrou no quadro.
+     */
+    public boolean record(Game game) {
+        Difficulty difficulty = game.getDifficulty();
+        if (game.getGameStatus() != GameStatus.WON || difficulty == null)
+            return false;
+        return record(difficulty, game.getNickname(), game.getDurationMillis());
+    }
+
+    /**
+     * Regista o tempo de um jogo ganho.
+     *
+     * @param difficulty Dificuldade do jogo.
+     * @param nickname Alcunha do jogador.
+     * @param timeMillis Tempo do jogo em milissegundos.
+     * @return true se o tempo entrou no quadro.
+     */
+    public boolean record(Difficulty difficulty, String nickname, long timeMillis) {
+        Ranking ranking = rankings.get(difficulty);
+        ranking.personalBest.merge(nickname, timeMillis, Math::min);
+        synchronized (ranking) {
+            Slot previous = ranking.members.get(nickname);
+            if (previous != null && previous.timeMillis() <= timeMillis)
+                return false; // Não melhora o tempo que o jogador já tem no quadro
+            if (previous == null && ranking.top.size() >= capacity && ranking.top.last().timeMillis() <= timeMillis)
+                return false; // Pior do que o último do quadro cheio
+
+            Slot slot = new Slot(nickname, timeMillis, ranking.nextSequence++);
+            if (previous != null)
+                ranking.top.remove(previous);
+            ranking.top.add(slot);
+            ranking.members.put(nickname, slot);
+            if (ranking.top.size() > capacity)
+                ranking.members.remove(ranking.top.pollLast().nickname());
+            return true;
+        }
+    }
+
+    /**
+     * Retorna os melhores tempos de uma dificuldade, do melhor para o pior.
+     *
+     * @param difficulty Dificuldade.
+     * @return Entradas do quadro.
+     */
+    public List<Entry> getBestTimes(Difficulty difficulty) {
+        Ranking ranking = rankings.get(difficulty);
+        synchronized (ranking) {
+            List<Entry> entries = new ArrayList<>(ranking.top.size());
+            for (Slot slot : ranking.top) {
+                entries.add(new Entry(slot.nickname(), slot.timeMillis()));
+            }
+            return entries;
+        }
+    }
+
+    /**
+     * Retorna a posição de um jogador no quadro de uma dificuldade.
+     *
+     * @param difficulty Dificuldade.
+     * @param nickname Alcunha do jogador.
+     * @return Posição a contar de 1, ou -1 se o jogador não estiver no quadro.
+     */
+    public int getRank(Difficulty difficulty, String nickname) {
+        Ranking ranking = rankings.get(difficulty);
+        synchronized (ranking) {
+            Slot slot = ranking.members.get(nickname);
+            return slot == null ? -1 : ranking.top.headSet(slot).size() + 1;
+        }
+    }
+
+    /**
+     * Retorna o melhor tempo de um jogador numa dificuldade, mesmo que não esteja no quadro.
+     *
+     * @param difficulty Dificuldade.
+     * @param nickname Alcunha do jogador.
+     * @return Tempo em milissegundos, ou -1 se o jogador nunca ganhou nessa dificuldade.
+     */
+    public long getPersonalBest(Difficulty difficulty, String nickname) {
+        Long best = rankings.get(difficulty).personalBest.get(nickname);
+        return best == null ? -1 : best;
+    }
+
+    /**
+     * Grava o quadro num ficheiro. O ficheiro é escrito ao lado e só substitui o anterior depois de
+     * estar completo em disco.
+     *
+     * @param file Ficheiro de destino.
+     * @param games Número de jogos do histórico já registados no quadro.
+     * @throws IOException Se o ficheiro não puder ser escrito.
+     */
+    public void save(Path file, long games) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(capacity);
+        out.writeLong(games);
+        for (Difficulty difficulty : Difficulty.values()) {
+            Ranking ranking = rankings.get(difficulty);
+            Map<String, Long> personalBest;
+            synchronized (ranking) {
+                out.writeByte(difficulty.getValue());
+                out.writeLong(ranking.nextSequence);
+                out.writeInt(ranking.top.size());
+                for (Slot slot : ranking.top) {
+                    out.writeUTF(slot.nickname());
+                    out.writeLong(slot.timeMillis());
+                    out.writeLong(slot.sequence());
+                }
+                personalBest = new HashMap<>(ranking.personalBest); // Cópia para o número e as entradas coincidirem
+            }
+            out.writeInt(personalBest.size());
+            for (Map.Entry<String, Long> best : personalBest.entrySet()) {
+                out.writeUTF(best.getKey());
+                out.writeLong(best.getValue());
+            }
+        }
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Substitui o conteúdo do quadro pelo de um ficheiro gravado com {@link #save}. O quadro só é alterado
+     * se o ficheiro for lido por inteiro; um ficheiro de outra versão ou capacidade, corrompido, ou que diga
+     * incluir mais jogos do que o histórico tem (histórico truncado ou substituído) é ignorado.
+     *
+     * @param file Ficheiro do quadro.
+     * @param historySize Número de jogos do histórico atual.
+     * @return Número de jogos do histórico já incluídos no quadro, ou -1 se o ficheiro não existir ou
+     * tiver sido ignorado.
+     * @throws IOException Se o ficheiro existir mas não puder ser lido.
+     */
+    public long load(Path file, long historySize) throws IOException {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(file);
+        } catch (NoSuchFileException e) {
+            return -1;
+        }
+        Map<Difficulty, Ranking> loaded = new EnumMap<>(Difficulty.class);
+        long games;
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readInt() != capacity)
+                return -1;
+            games = in.readLong();
+            if (games < 0 || games > historySize)
+                return -1;
+            for (Difficulty difficulty : Difficulty.values()) {
+                if (in.readByte() != difficulty.getValue())
+                    return -1;
+                Ranking ranking = new Ranking();
+                ranking.nextSequence = in.readLong();
+                int size = in.readInt();
+                if (size < 0 || size > capacity)
+                    return -1;
+                for (int i = 0; i < size; i++) {
+                    ranking.top.add(new Slot(in.readUTF(), in.readLong(), in.readLong()));
+                }
+                int players = in.readInt();
+                if (players < 0)
+                    return -1;
+                for (int i = 0; i < players; i++) {
+                    ranking.personalBest.put(in.readUTF(), in.readLong());
+                }
+                loaded.put(difficulty, ranking);
+            }
+            if (in.available() != 0)
+                return -1;
+        } catch (IOException e) {
+            return -1; // Ficheiro truncado ou com texto inválido: o quadro é reconstruído
+        }
+
+        for (Difficulty difficulty : Difficulty.values()) {
+            rankings.get(difficulty).replaceWith(loaded.get(difficulty));
+        }
+        return games;
+    }
+}
@@ -0,0 +1,486 @@
+package config;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Tabuleiro guardado fora da heap, num ficheiro mapeado em memória com um byte por célula.
+ * <p>
+ * Cada byte guarda os bits {@code mina}, {@code bandeira}, {@code revelada}, {@code pendente} e, nos quatro
+ * bits superiores, o número de minas na vizinhança 3x3. Os contadores do jogo ficam no cabeçalho do ficheiro,
+ * por isso reabrir o ficheiro retoma o tabuleiro sem o reconstruir. A heap usada não depende do tamanho do tabuleiro.
+ * Jogado com {@link LargeBoardGame}, a partir da opção {@code --mapped} da linha de comandos.
+ */
+public class MappedGameBoard implements Board, Closeable {
+    private static final int MAGIC = 0x4D535742; // "MSWB"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int SEGMENT_SHIFT = 30; // Cada mapeamento cobre 1 GiB
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+    private static final int MAX_STACK = 1 << 20; // Limite da pilha do preenchimento, ver revealCell
+
+    private static final int MINE = 1;
+    private static final int FLAG = 1 << 1;
+    private static final int UNCOVERED = 1 << 2;
+    private static final int PENDING = 1 << 3; // Célula revelada cuja vizinhança ainda falta expandir
+    private static final int ADJACENT_SHIFT = 4;
+
+    // Posições dos campos no cabeçalho
+    private static final int ROWS_OFFSET = 8;
+    private static final int COLS_OFFSET = 12;
+    private static final int MINES_OFFSET = 16;
+    private static final int SEED_OFFSET = 24;
+    private static final int REMAINING_FLAGS_OFFSET = 32;
+    private static final int REVEALED_OFFSET = 40;
+    private static final int FLAGGED_MINES_OFFSET = 48;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final int numRows;
+    private final int numCols;
+    private final long totalMines;
+    private long[] floodStack = new long[64]; // Cresce até MAX_STACK, ver revealCell
+
+    /**
+     * Mapeia o ficheiro em segmentos. O cabeçalho já foi escrito ou verificado.
+     */
+    private MappedGameBoard(FileChannel channel, long fileSize) throws IOException {
+        this.channel = channel;
+        int segmentCount = (int) ((fileSize + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+        segments = new MappedByteBuffer[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            long position = (long) i << SEGMENT_SHIFT;
+            segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, position, Math.min(1L << SEGMENT_SHIFT, fileSize - position));
+        }
+        this.numRows = segments[0].getInt(ROWS_OFFSET);
+        this.numCols = segments[0].getInt(COLS_OFFSET);
+        this.totalMines = segments[0].getLong(MINES_OFFSET);
+    }
+
+    /**
+     * Cria um novo tabuleiro no ficheiro indicado, colocando as minas e as contagens de minas adjacentes.
+     *
+     * @param path Caminho do ficheiro (substituído se existir).
+     * @param settings Configuração do tabuleiro.
+     * @param seed Semente usada para colocar as minas.
+     * @return O tabuleiro criado.
+     * @throws IOException Se o ficheiro não puder ser criado ou mapeado.
+     */
+    public static MappedGameBoard create(Path path, GameConfiguration settings, long seed) throws IOException {
+        int numRows = settings.rows();
+        int numCols = settings.cols();
+        long cells = (long) numRows * numCols;
+        if (numRows <= 0 || numCols <= 0 || settings.mines() < 0 || settings.mines() > cells)
+            throw new IllegalArgumentException("Configuração de tabuleiro inválida: " + numRows + "x" + numCols + " com " + settings.mines() + " minas");
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long fileSize = HEADER_SIZE + cells;
+        MappedGameBoard board;
+        try {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            header.putInt(0, MAGIC).putInt(4, VERSION).putInt(ROWS_OFFSET, numRows).putInt(COLS_OFFSET, numCols)
+                    .putLong(MINES_OFFSET, settings.mines()).putLong(SEED_OFFSET, seed)
+                    .putLong(REMAINING_FLAGS_OFFSET, settings.mines()).putLong(REVEALED_OFFSET, 0).putLong(FLAGGED_MINES_OFFSET, 0);
+            channel.truncate(fileSize);
+            channel.write(ByteBuffer.allocate(1), fileSize - 1); // Garante o tamanho final do ficheiro
+            board = new MappedGameBoard(channel, fileSize);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        board.placeMines(seed);
+        board.calculateAdjacentMines();
+        return board;
+    }
+
+    /**
+     * Reabre um tabuleiro guardado, sem o reconstruir.
+     *
+     * @param path Caminho do ficheiro.
+     * @return O tabuleiro no estado em que foi deixado.
+     * @throws IOException Se o ficheiro não existir ou não for um tabuleiro válido.
+     */
+    public static MappedGameBoard open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long fileSize = channel.size();
+            checkHeader(channel, fileSize, path);
+            return new MappedGameBoard(channel, fileSize);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Lê o cabeçalho sem mapear o ficheiro e verifica-o, incluindo se o tamanho corresponde às dimensões.
+     */
+    private static void checkHeader(FileChannel channel, long fileSize, Path path) throws IOException {
+        if (fileSize < HEADER_SIZE)
+            throw new IOException("Ficheiro de tabuleiro inválido: " + path);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0)
+                throw new IOException("Ficheiro de tabuleiro inválido: " + path);
+        }
+        int numRows = header.getInt(ROWS_OFFSET);
+        int numCols = header.getInt(COLS_OFFSET);
+        long totalMines = header.getLong(MINES_OFFSET);
+        if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION || numRows <= 0 || numCols <= 0
+                || fileSize != HEADER_SIZE + (long) numRows * numCols
+                || totalMines < 0 || totalMines > (long) numRows * numCols)
+            throw new IOException("Ficheiro de tabuleiro inválido: " + path);
+    }
+
+    /**
+     * Coloca as minas com o algoritmo de Floyd, usando o próprio ficheiro como conjunto de células escolhidas.
+     */
+    private void placeMines(long seed) {
+        SplittableRandom rand = new SplittableRandom(seed);
+        long cells = (long) numRows * numCols;
+        for (long j = cells - totalMines; j < cells; j++) {
+            // Usa nextInt enquanto possível para gerar o mesmo tabuleiro que o GameBoard com a mesma semente
+            long cell = j < Integer.MAX_VALUE ? rand.nextInt((int) (j + 1)) : rand.nextLong(j + 1);
+            if ((cell(cell) & MINE) != 0)
+                cell = j;
+            setCell(cell, cell(cell) | MINE);
+        }
+    }
+
+    /**
+     * Calcula as contagens de minas adjacentes linha a linha, com três linhas de somas horizontais na heap.
+     */
+    private void calculateAdjacentMines() {
+        int[] above = new int[numCols];
+        int[] current = new int[numCols];
+        int[] below = new int[numCols];
+        horizontalSums(0, current);
+        for (int i = 0; i < numRows; i++) {
+            if (i + 1 < numRows)
+                horizontalSums(i + 1, below);
+            else
+                Arrays.fill(below, 0);
+
+            long base = (long) i * numCols;
+            for (int j = 0; j < numCols; j++) {
+                int count = above[j] + current[j] + below[j];
+                setCell(base + j, (cell(base + j) & 0x0F) | (count << ADJACENT_SHIFT));
+            }
+
+            // Roda as três linhas sem alocar
+            int[] recycled = above;
+            above = current;
+            current = below;
+            below = recycled;
+        }
+    }
+
+    /**
+     * Soma, para cada coluna de uma linha, as minas nessa coluna e nas duas vizinhas.
+     */
+    private void horizontalSums(int row, int[] sums) {
+        long base = (long) row * numCols;
+        for (int j = 0; j < numCols; j++) {
+            int count = 0;
+            for (int c = Math.max(0, j - 1); c <= Math.min(numCols - 1, j + 1); c++) {
+                count += cell(base + c) & MINE;
+            }
+            sums[j] = count;
+        }
+    }
+
+    /**
+     * Retorna o número de linhas do tabuleiro.
+     *
+     * @return Número de linhas.
+     */
+    @Override
+    public int getRows() {
+        return numRows;
+    }
+
+    /**
+     * Retorna o número de colunas do tabuleiro.
+     *
+     * @return Número de colunas.
+     */
+    @Override
+    public int getCols() {
+        return numCols;
+    }
+
+    /**
+     * Verifica se uma célula contém uma mina.
+     *
+     * @param row Linha da célula.
+     * @param col Coluna da célula.
+     * @return true se a célula contiver uma mina.
+     */
+    @Override
+    public boolean isMine(int row, int col) {
+        return (cell(cellIndex(row, col)) & MINE) != 0;
+    }
+
+    /**
+     * Verifica se uma célula já foi revelada.
+     *
+     * @param row Linha da célula.
+     * @param col Coluna da célula.
+     * @return true se a célula estiver revelada.
+     */
+    @Override
+    public boolean isUncovered(int row, int col) {
+        return (cell(cellIndex(row, col)) & UNCOVERED) != 0;
+    }
+
+    /**
+     * Verifica se uma célula tem bandeira.
+     *
+     * @param row Linha da célula.
+     * @param col Coluna da célula.
+     * @return true se a célula tiver bandeira.
+     */
+    @Override
+    public boolean isFlagged(int row, int col) {
+        return (cell(cellIndex(row, col)) & FLAG) != 0;
+    }
+
+    /**
+     * Retorna o número de minas na vizinhança 3x3 da célula (incluindo a própria), como no {@link GameBoard}.
+     *
+     * @param row Linha da célula.
+     * @param col Coluna da célula.
+     * @return Número de minas adjacentes.
+     */
+    public int getAdjacentMines(int row, int col) {
+        return cell(cellIndex(row, col)) >>> ADJACENT_SHIFT;
+    }
+
+    /**
+     * Revela a célula e as células vizinhas se não houver minas adjacentes, escrevendo diretamente no ficheiro.
+     * A pilha do preenchimento cresce com a região até {@value #MAX_STACK} células; a partir daí as células
+     * seguintes ficam marcadas como pendentes no próprio ficheiro e são retomadas depois, por isso a heap
+     * usada tem um limite fixo e só o atinge quem revela regiões enormes.
+     *
+     * @param row Linha da célula.
+     * @param col Coluna da célula.
+     * @return Número de células reveladas.
+     */
+    @Override
+    public long revealCell(int row, int col) {
+        if (!isValidCoordinate(row, col))
+            return 0;
+        long start = cellIndex(row, col);
+        int state = cell(start);
+        if ((state & (UNCOVERED | MINE)) != 0)
+            return 0;
+
+        long revealed = 0;
+        long pendingFrom = Long.MAX_VALUE; // Menor índice marcado como pendente
+        int stackSize = 0;
+        setCell(start, state | UNCOVERED);
+        floodStack[stackSize++] = start;
+
+        while (stackSize > 0) {
+            long current = floodStack[--stackSize];
+            revealed++;
+            if ((cell(current) >>> ADJACENT_SHIFT) == 0) {
+                int currentRow = (int) (current / numCols);
+                int currentCol = (int) (current - (long) currentRow * numCols);
+                for (int i = Math.max(0, currentRow - 1); i <= Math.min(numRows - 1, currentRow + 1); i++) {
+                    for (int j = Math.max(0, currentCol - 1); j <= Math.min(numCols - 1, currentCol + 1); j++) {
+                        long neighbour = cellIndex(i, j);
+                        int neighbourState = cell(neighbour);
+                        if ((neighbourState & (UNCOVERED | MINE)) != 0)
+                            continue;
+                        if (stackSize < MAX_STACK) {
+                            setCell(neighbour, neighbourState | UNCOVERED);
+                            ensureStackCapacity(stackSize);
+                            floodStack[stackSize++] = neighbour;
+                        } else {
+                            setCell(neighbour, neighbourState | UNCOVERED | PENDING);
+                            pendingFrom = Math.min(pendingFrom, neighbour);
+                        }
+                    }
+                }
+            }
+
+            // Pilha vazia: retoma as células pendentes a partir do menor índice marcado
+            if (stackSize == 0 && pendingFrom != Long.MAX_VALUE) {
+                long cells = (long) numRows * numCols;
+                long next = Long.MAX_VALUE;
+                for (long index = pendingFrom; index < cells; index++) {
+                    int pendingState = cell(index);
+                    if ((pendingState & PENDING) == 0)
+                        continue;
+                    if (stackSize == MAX_STACK) {
+                        next = index;
+                        break;
+                    }
+                    setCell(index, pendingState & ~PENDING);
+                    ensureStackCapacity(stackSize);
+                    floodStack[stackSize++] = index;
+                }
+                pendingFrom = next;
+            }
+        }
+        putHeaderLong(REVEALED_OFFSET, getHeaderLong(REVEALED_OFFSET) + revealed);
+        return revealed;
+    }
+
+    /**
+     * Alterna o status da bandeira em uma célula.
+     *
+     * @param row Linha da célula.
+     * @param col Coluna da célula.
+     * @return true se a bandeira foi colocada/removida com sucesso.
+     */
+    @Override
+    public boolean toggleFlag(int row, int col) {
+        long index = cellIndex(row, col);
+        int state = cell(index);
+        long remainingFlags = getRemainingFlags();
+        boolean flagged = (state & FLAG) != 0;
+        if (!flagged && remainingFlags <= 0)
+            return false;
+
+        setCell(index, state ^ FLAG);
+        int delta = flagged ? -1 : 1;
+        putHeaderLong(REMAINING_FLAGS_OFFSET, remainingFlags - delta);
+        if ((state & MINE) != 0)
+            putHeaderLong(FLAGGED_MINES_OFFSET, getHeaderLong(FLAGGED_MINES_OFFSET) + delta);
+        return true;
+    }
+
+    /**
+     * Verifica se o jogador venceu o jogo, a partir dos contadores do cabeçalho.
+     *
+     * @return true se todas as minas estiverem marcadas ou todas as células seguras estiverem reveladas.
+     */
+    @Override
+    public boolean checkWin() {
+        return getHeaderLong(FLAGGED_MINES_OFFSET) == totalMines
+                || getHeaderLong(REVEALED_OFFSET) == (long) numRows * numCols - totalMines;
+    }
+
+    /**
+     * Verifica se uma coordenada é válida.
+     *
+     * @param row Linha da coordenada.
+     * @param col Coluna da coordenada.
+     * @return true se a coordenada estiver dentro dos limites.
+     */
+    @Override
+    public boolean isValidCoordinate(int row, int col) {
+        return (row >= 0 && row < numRows && col >= 0 && col < numCols);
+    }
+
+    /**
+     * Retorna o número de bandeiras ainda disponíveis.
+     *
+     * @return Bandeiras disponíveis.
+     */
+    public long getRemainingFlags() {
+        return getHeaderLong(REMAINING_FLAGS_OFFSET);
+    }
+
+    /**
+     * Retorna a semente com que o tabuleiro foi gerado.
+     *
+     * @return Semente do tabuleiro.
+     */
+    public long getSeed() {
+        return getHeaderLong(SEED_OFFSET);
+    }
+
+    /**
+     * Constrói a representação em string de uma janela do tabuleiro, no formato do {@link GameBoard}.
+     *
+     * @param firstRow Primeira linha da janela.
+     * @param firstCol Primeira coluna da janela.
+     * @param rows Número de linhas da janela.
+     * @param cols Número de colunas da janela.
+     * @return A janela do tabuleiro como uma string.
+     */
+    @Override
+    public String render(int firstRow, int firstCol, int rows, int cols) {
+        int lastRow = Math.min(numRows, firstRow + rows);
+        int lastCol = Math.min(numCols, firstCol + cols);
+        int labelWidth = Coordinates.rowLabelLength(lastRow - 1);
+        StringBuilder sb = new StringBuilder();
+        Coordinates.appendColumnHeader(sb, firstCol, lastCol, labelWidth).append('\n');
+        for (int i = firstRow; i < lastRow; i++) {
+            Coordinates.appendRowPrefix(sb, i, labelWidth);
+            for (int j = firstCol; j < lastCol; j++) {
+                int state = cell(cellIndex(i, j));
+                char visual = '*';
+                if ((state & FLAG) != 0)
+                    visual = 'F';
+                else if ((state & UNCOVERED) != 0 && (state >>> ADJACENT_SHIFT) > 0)
+                    visual = (char) ((state >>> ADJACENT_SHIFT) + '0');
+                sb.append(visual).append("  ");
+            }
+            sb.append('\n');
+        }
+        sb.append('\n').append("\tBandeiras Disponiveis: ").append(getRemainingFlags()).append('\n');
+        return sb.toString();
+    }
+
+    /**
+     * Escreve no disco todas as alterações ainda em memória.
+     */
+    public void force() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+
+    /**
+     * Escreve as alterações no disco e fecha o ficheiro.
+     *
+     * @throws IOException Se o ficheiro não puder ser fechado.
+     */
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    /**
+     * Duplica a pilha do preenchimento, sem passar de {@value #MAX_STACK}, se estiver cheia.
+     */
+    private void ensureStackCapacity(int stackSize) {
+        if (stackSize == floodStack.length)
+            floodStack = Arrays.copyOf(floodStack, Math.min(MAX_STACK, stackSize * 2));
+    }
+
+    private long cellIndex(int row, int col) {
+        return (long) row * numCols + col;
+    }
+
+    private int cell(long index) {
+        long position = HEADER_SIZE + index;
+        return segments[(int) (position >>> SEGMENT_SHIFT)].get((int) (position & SEGMENT_MASK)) & 0xFF;
+    }
+
+    private void setCell(long index, int state) {
+        long position = HEADER_SIZE + index;
+        segments[(int) (position >>> SEGMENT_SHIFT)].put((int) (position & SEGMENT_MASK), (byte) state);
+    }
+
+    private long getHeaderLong(int offset) {
+        return segments[0].getLong(offset);
+    }
+
+    private void putHeaderLong(int offset, long value) {
+        segments[0].putLong(offset, value);
+    }
+}
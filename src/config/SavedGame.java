@@ -0,0 +1,210 @@
+package config;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Jogo a meio guardado em disco, para ser retomado mais tarde.
+ * <p>
+ * O ficheiro tem um cabeçalho com a versão, a configuração, a semente, o estado do jogo (modo de batota,
+ * bandeiras disponíveis, tempo decorrido, janela visível), a alcunha e a gravação das jogadas, seguido dos
+ * conjuntos de minas, células reveladas e bandeiras, um bit por célula, alinhados a 8 bytes. Ao ler, o
+ * ficheiro é copiado por inteiro para a heap e fechado, para poder ser apagado logo a seguir (num ficheiro
+ * mapeado isso falha em alguns sistemas); só o cabeçalho é interpretado e os conjuntos de células só são
+ * convertidos quando o tabuleiro é restaurado.
+ */
+public class SavedGame {
+    private static final int MAGIC = 0x4D535356; // "MSSV"
+    private static final int VERSION = 2; // 2: dicas novas; a gravação de um ficheiro da versão 1 usa as antigas
+    private static final int SAFE_FIRST_CLICK = 1; // Bits do byte de opções
+    private static final int MINES_PLACED = 2;
+    private static final int CHEAT = 4;
+
+    private final String nickname;
+    private final GameConfiguration settings;
+    private final long seed;
+    private final int options;
+    private final int startCell;
+    private final long hintDraws;
+    private final int remainingFlags;
+    private final long elapsedMillis;
+    private final int viewRow;
+    private final int viewCol;
+    private final GameRecording recording;
+    private final ByteBuffer cells; // Vista sobre o conteúdo do ficheiro, lida só ao restaurar
+
+    private SavedGame(String nickname, GameConfiguration settings, long seed, int options, int startCell, long hintDraws,
+                      int remainingFlags, long elapsedMillis, int viewRow, int viewCol, GameRecording recording, ByteBuffer cells) {
+        this.nickname = nickname;
+        this.settings = settings;
+        this.seed = seed;
+        this.options = options;
+        this.startCell = startCell;
+        this.hintDraws = hintDraws;
+        this.remainingFlags = remainingFlags;
+        this.elapsedMillis = elapsedMillis;
+        this.viewRow = viewRow;
+        this.viewCol = viewCol;
+        this.recording = recording;
+        this.cells = cells;
+    }
+
+    /**
+     * Guarda um jogo a meio. O ficheiro é escrito ao lado e só substitui o anterior depois de estar
+     * completo em disco.
+     *
+     * @param file Ficheiro de destino.
+     * @param nickname Alcunha do jogador.
+     * @param board Tabuleiro do jogo.
+     * @param recording Gravação das jogadas até agora.
+     * @throws IOException Se o ficheiro não puder ser escrito.
+     */
+    public static void write(Path file, String nickname, GameBoard board, GameRecording recording) throws IOException {
+        byte[] name = nickname.getBytes(StandardCharsets.UTF_8);
+        if (name.length > Short.MAX_VALUE)
+            throw new IllegalArgumentException("Alcunha demasiado longa: " + name.length + " bytes");
+        int headerLength = 69 + 2 + name.length + recording.serializedSize();
+        long cellsOffset = (headerLength + 7) & ~7L;
+        int options = (board.isSafeFirstClick() ? SAFE_FIRST_CLICK : 0) | (board.isMinesPlaced() ? MINES_PLACED : 0)
+                | (board.isCheatEnabled() ? CHEAT : 0);
+
+        ByteBuffer header = ByteBuffer.allocate((int) cellsOffset);
+        header.putInt(MAGIC).putInt(VERSION)
+                .putInt(board.getRows()).putInt(board.getCols()).putInt(board.getStats().totalMines())
+                .putLong(board.getSeed()).put((byte) options).putInt(board.getStartCell()).putLong(board.getHintDraws())
+                .putInt(board.getRemainingFlags()).putLong(board.getElapsedTime())
+                .putInt(board.getViewRow()).putInt(board.getViewCol()).putLong(cellsOffset)
+                .putShort((short) name.length).put(name);
+        recording.writeTo(header);
+        header.clear(); // O resto até ao alinhamento fica a zero
+
+        ByteBuffer body = ByteBuffer.allocateDirect(board.cellStateBytes());
+        board.writeCells(body);
+        body.flip();
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer[] buffers = {header, body};
+            while (body.hasRemaining()) {
+                channel.write(buffers);
+            }
+            channel.force(false);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Lê um jogo guardado e interpreta o cabeçalho; os conjuntos de células ficam por converter até
+     * {@link #restoreBoard()}. O ficheiro já está fechado quando este método retorna.
+     *
+     * @param file Ficheiro do jogo guardado.
+     * @return Jogo guardado.
+     * @throws IOException Se o ficheiro não puder ser lido, for de outra versão ou estiver incompleto.
+     */
+    public static SavedGame read(Path file) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE)
+                throw new IOException("Ficheiro de jogo guardado demasiado grande: " + size + " bytes");
+            buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0)
+                    throw new IOException("Ficheiro de jogo guardado incompleto");
+            }
+            buffer.flip();
+        }
+        try {
+            int version = buffer.getInt() == MAGIC ? buffer.getInt() : -1;
+            if (version != 1 && version != VERSION)
+                throw new IOException("Ficheiro de jogo guardado inválido ou de outra versão");
+            GameConfiguration settings = new GameConfiguration(buffer.getInt(), buffer.getInt(), buffer.getInt());
+            long seed = buffer.getLong();
+            int options = buffer.get();
+            int startCell = buffer.getInt();
+            long hintDraws = buffer.getLong();
+            int remainingFlags = buffer.getInt();
+            long elapsedMillis = buffer.getLong();
+            int viewRow = buffer.getInt();
+            int viewCol = buffer.getInt();
+            long cellsOffset = buffer.getLong();
+            byte[] name = new byte[buffer.getShort()];
+            buffer.get(name);
+            GameRecording recording = GameRecording.readFrom(buffer);
+            if (version == 1)
+                recording.markLegacyHints();
+
+            long cellCount = (long) settings.rows() * settings.cols();
+            long cellBytes = 3 * ((cellCount + 63) / 64) * Long.BYTES;
+            if (settings.rows() <= 0 || settings.cols() <= 0 || cellsOffset < buffer.position()
+                    || cellsOffset + cellBytes != buffer.capacity())
+                throw new IOException("Ficheiro de jogo guardado incompleto");
+            ByteBuffer cells = buffer.slice((int) cellsOffset, (int) cellBytes);
+            return new SavedGame(new String(name, StandardCharsets.UTF_8), settings, seed, options, startCell, hintDraws,
+                    remainingFlags, elapsedMillis, viewRow, viewCol, recording, cells);
+        } catch (RuntimeException e) {
+            // Valores sem sentido (tamanhos negativos, fim do ficheiro) num ficheiro corrompido
+            throw new IOException("Ficheiro de jogo guardado corrompido", e);
+        }
+    }
+
+    /**
+     * Reconstrói o tabuleiro guardado, lendo os conjuntos de células do ficheiro.
+     *
+     * @return Tabuleiro no estado em que foi guardado, com o relógio a continuar do tempo guardado.
+     * @throws IOException Se o estado lido não for coerente com o cabeçalho.
+     */
+    public GameBoard restoreBoard() throws IOException {
+        GameBoard board = GameBoard.restore(settings, seed, (options & SAFE_FIRST_CLICK) != 0, startCell, hintDraws,
+                (options & MINES_PLACED) != 0, (options & CHEAT) != 0, elapsedMillis, cells.duplicate());
+        if (board.getRemainingFlags() != remainingFlags)
+            throw new IOException("Ficheiro de jogo guardado corrompido: bandeiras não coincidem");
+        if (recording.hasLegacyHints())
+            board.useLegacyHints(); // As dicas que faltam têm de ser sorteadas como as da gravação
+        board.setViewport(viewRow, viewCol);
+        return board;
+    }
+
+    /**
+     * Retorna a alcunha do jogador.
+     *
+     * @return Alcunha do jogador.
+     */
+    public String getNickname() {
+        return nickname;
+    }
+
+    /**
+     * Retorna a configuração do tabuleiro guardado.
+     *
+     * @return Configuração do tabuleiro.
+     */
+    public GameConfiguration getSettings() {
+        return settings;
+    }
+
+    /**
+     * Retorna o tempo de jogo decorrido até o jogo ter sido guardado.
+     *
+     * @return Tempo em milissegundos.
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Retorna a gravação das jogadas feitas até o jogo ter sido guardado.
+     *
+     * @return Gravação das jogadas.
+     */
+    public GameRecording getRecording() {
+        return recording;
+    }
+}
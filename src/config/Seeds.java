@@ -0,0 +1,27 @@
+package config;
+
+/**
+ * Derivação de sementes independentes a partir de uma semente e de um número (função de mistura do SplitMix64).
+ * <p>
+ * Usada onde cada elemento de uma série precisa dos seus próprios números aleatórios sem os sortear por ordem:
+ * os jogos de uma simulação, os blocos do {@link ChunkedGameBoard} e as dicas do {@link GameBoard}.
+ */
+public final class Seeds {
+
+    private Seeds() {
+    }
+
+    /**
+     * Mistura uma semente com um número. Valores próximos dão resultados sem relação entre si.
+     *
+     * @param seed Semente de origem.
+     * @param value Número do elemento da série.
+     * @return 64 bits aleatórios determinados por {@code seed} e {@code value}.
+     */
+    public static long mix(long seed, long value) {
+        long z = seed + (value + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,28 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento JFR de um {@code revealCell} que revelou pelo menos {@link #LARGE_FILL} células. A duração do
+ * evento é a da propagação.
+ */
+@Name("campominado.FloodFill")
+@Label("Propagação grande")
+@Category("Campo Minado")
+@Description("Uma abertura revelou muitas células de uma vez")
+public class FloodFillEvent extends Event {
+    public static final int LARGE_FILL = 1024;
+
+    @Label("Linha")
+    public int row;
+
+    @Label("Coluna")
+    public int col;
+
+    @Label("Células reveladas")
+    public int cells;
+}
@@ -0,0 +1,27 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Evento JFR do fim de um jogo, ganho, perdido ou abandonado.
+ */
+@Name("campominado.GameEnd")
+@Label("Fim de jogo")
+@Category("Campo Minado")
+@Description("Um jogo terminou")
+public class GameEndEvent extends Event {
+    @Label("Resultado")
+    public String status;
+
+    @Label("Duração do jogo")
+    @Timespan(Timespan.MILLISECONDS)
+    public long gameDuration;
+
+    @Label("Jogadas")
+    public int moves;
+}
@@ -0,0 +1,28 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento JFR do início de um jogo.
+ */
+@Name("campominado.GameStart")
+@Label("Início de jogo")
+@Category("Campo Minado")
+@Description("Um jogo começou")
+public class GameStartEvent extends Event {
+    @Label("Linhas")
+    public int rows;
+
+    @Label("Colunas")
+    public int cols;
+
+    @Label("Minas")
+    public int mines;
+
+    @Label("Semente")
+    public long seed;
+}
@@ -0,0 +1,116 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de valores não negativos com intervalos log-lineares: cada potência de 2 é dividida em 16
+ * intervalos iguais, o que dá um erro relativo inferior a 1/16 em qualquer escala, de nanossegundos a
+ * horas, com 960 contadores fixos. Registar um valor é um incremento atómico, sem alocações nem
+ * bloqueios, e pode ser feito por várias threads ao mesmo tempo.
+ */
+public class Histogram {
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS; // Intervalos por potência de 2
+    private static final int BUCKETS = (64 - SUB_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Regista um valor. Valores negativos contam como 0.
+     *
+     * @param value Valor a registar.
+     */
+    public void record(long value) {
+        value = Math.max(0, value);
+        counts.incrementAndGet(bucketOf(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        if (value > max.get())
+            max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Retorna o número de valores registados.
+     *
+     * @return Número de valores.
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Retorna a média dos valores registados.
+     *
+     * @return Média, ou 0 se não houver valores.
+     */
+    public double getMean() {
+        long n = count.get();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+
+    /**
+     * Retorna o maior valor registado.
+     *
+     * @return Máximo, ou 0 se não houver valores.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Retorna um percentil, arredondado ao limite superior do intervalo onde cai.
+     *
+     * @param fraction Fração entre 0 e 1, por exemplo 0.99.
+     * @return Valor do percentil, ou 0 se não houver valores.
+     */
+    public long getPercentile(double fraction) {
+        long n = count.get();
+        if (n == 0)
+            return 0;
+        long target = Math.max(1, (long) Math.ceil(n * fraction));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= target)
+                return Math.min(upperBound(bucket), max.get());
+        }
+        return max.get(); // Registos concorrentes entre a leitura do total e dos contadores
+    }
+
+    /**
+     * Esquece todos os valores registados.
+     */
+    public void reset() {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            counts.set(bucket, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    /**
+     * Intervalo de um valor: os valores abaixo de 16 têm um intervalo cada; acima, o expoente escolhe a
+     * potência de 2 e os 4 bits seguintes ao mais alto escolhem o intervalo dentro dela.
+     */
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int mantissa = (int) (value >>> (exponent - SUB_BITS)); // Entre 16 e 31
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + mantissa - SUB_BUCKETS;
+    }
+
+    private static long upperBound(int bucket) {
+        int power = bucket / SUB_BUCKETS;
+        if (power == 0)
+            return bucket;
+        int shift = power - 1;
+        long low = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return low + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,215 @@
+package metrics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Instrumentação do jogo: um {@link Histogram} por {@link Probe}, partilhado por todas as threads.
+ * <p>
+ * Desativada por omissão. Nesse caso cada ponto medido custa só a leitura de um campo e um salto, sem
+ * chamadas ao relógio, por isso as chamadas podem ficar no código de produção. Os eventos JFR
+ * ({@link GameStartEvent}, {@link GameEndEvent}, {@link FloodFillEvent}) são independentes desta classe e
+ * só são gravados quando há uma gravação JFR ativa.
+ */
+public final class Metrics {
+    private static final Probe[] PROBES = Probe.values();
+    private static final Histogram[] HISTOGRAMS = new Histogram[PROBES.length];
+    private static final List<Consumer<StringBuilder>> SECTIONS = new CopyOnWriteArrayList<>(); // Ver addReportSection
+    private static volatile boolean enabled;
+    private static ScheduledExecutorService dumper;
+    private static volatile Path dumpFile; // Ficheiro da escrita periódica, escrito também à saída
+    private static boolean shutdownHookInstalled;
+
+    static {
+        for (int i = 0; i < HISTOGRAMS.length; i++) {
+            HISTOGRAMS[i] = new Histogram();
+        }
+    }
+
+    private Metrics() {
+    }
+
+    /**
+     * Ativa ou desativa a instrumentação. Os valores já registados mantêm-se.
+     *
+     * @param value true para medir.
+     */
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    /**
+     * Indica se a instrumentação está ativa.
+     *
+     * @return true se os pontos estiverem a ser medidos.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Início de uma medição.
+     *
+     * @return Instante atual em nanossegundos, ou 0 se a instrumentação estiver desativada.
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Fim de uma medição começada com {@link #start()}; não faz nada se essa medição não foi feita.
+     *
+     * @param probe Ponto medido.
+     * @param start Valor devolvido por {@link #start()}.
+     */
+    public static void stop(Probe probe, long start) {
+        if (start != 0 && enabled)
+            HISTOGRAMS[probe.ordinal()].record(System.nanoTime() - start);
+    }
+
+    /**
+     * Regista um valor que não é um tempo, por exemplo o número de células reveladas.
+     *
+     * @param probe Ponto medido.
+     * @param value Valor a registar.
+     */
+    public static void record(Probe probe, long value) {
+        if (enabled)
+            HISTOGRAMS[probe.ordinal()].record(value);
+    }
+
+    /**
+     * Retorna o histograma de um ponto.
+     *
+     * @param probe Ponto medido.
+     * @return Histograma do ponto.
+     */
+    public static Histogram get(Probe probe) {
+        return HISTOGRAMS[probe.ordinal()];
+    }
+
+    /**
+     * Esquece todos os valores registados.
+     */
+    public static void reset() {
+        for (Histogram histogram : HISTOGRAMS) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Acrescenta uma secção ao fim do relatório, para contadores que não são histogramas.
+     *
+     * @param section Função que escreve as linhas da secção.
+     */
+    public static void addReportSection(Consumer<StringBuilder> section) {
+        SECTIONS.add(section);
+    }
+
+    /**
+     * Retira uma secção acrescentada com {@link #addReportSection(Consumer)}.
+     *
+     * @param section A mesma função que foi acrescentada.
+     */
+    public static void removeReportSection(Consumer<StringBuilder> section) {
+        SECTIONS.remove(section);
+    }
+
+    /**
+     * Escreve uma tabela com o número de medições, média, percentis 50, 99 e 99.9 e máximo de cada
+     * ponto com medições, seguida das secções acrescentadas. Os tempos estão em microssegundos.
+     *
+     * @param sb Destino da tabela.
+     * @return O mesmo {@link StringBuilder}.
+     */
+    public static StringBuilder appendReport(StringBuilder sb) {
+        sb.append(String.format("%-24s %10s %10s %10s %10s %10s %10s%n", "", "n", "média", "p50", "p99", "p99.9", "máx"));
+        for (Probe probe : PROBES) {
+            Histogram histogram = HISTOGRAMS[probe.ordinal()];
+            if (histogram.getCount() == 0)
+                continue;
+            double scale = probe.isTimed() ? 1000.0 : 1.0; // Nanossegundos para microssegundos
+            sb.append(String.format("%-24s %10d %10.1f %10.1f %10.1f %10.1f %10.1f%n", probe, histogram.getCount(),
+                    histogram.getMean() / scale, histogram.getPercentile(0.50) / scale,
+                    histogram.getPercentile(0.99) / scale, histogram.getPercentile(0.999) / scale,
+                    histogram.getMax() / scale));
+        }
+        for (Consumer<StringBuilder> section : SECTIONS) {
+            section.accept(sb);
+        }
+        return sb;
+    }
+
+    /**
+     * Escreve periodicamente o relatório num ficheiro, numa thread de fundo, e uma última vez quando a
+     * aplicação termina. O ficheiro é substituído de uma só vez, por isso quem o lê nunca vê um relatório
+     * a meio.
+     *
+     * @param file Ficheiro do relatório.
+     * @param periodSeconds Intervalo entre escritas, em segundos.
+     */
+    public static synchronized void startDump(Path file, long periodSeconds) {
+        if (periodSeconds <= 0)
+            throw new IllegalArgumentException("Intervalo de escrita inválido: " + periodSeconds);
+        stopDump();
+        dumpFile = file;
+        if (!shutdownHookInstalled) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                Path last = dumpFile;
+                if (last != null)
+                    dump(last);
+            }, "metrics-final-dump"));
+            shutdownHookInstalled = true;
+        }
+        dumper = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumper.scheduleAtFixedRate(() -> {
+            try {
+                dump(file);
+            } catch (UncheckedIOException e) {
+                System.err.println("Não foi possível escrever as métricas: " + e.getMessage());
+            }
+        }, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Para a escrita periódica começada com {@link #startDump(Path, long)}.
+     */
+    public static synchronized void stopDump() {
+        if (dumper != null)
+            dumper.shutdownNow();
+        dumper = null;
+        dumpFile = null;
+    }
+
+    /**
+     * Escreve o relatório atual num ficheiro.
+     *
+     * @param file Ficheiro do relatório.
+     */
+    public static void dump(Path file) {
+        StringBuilder sb = new StringBuilder("# ").append(LocalDateTime.now()).append('\n');
+        appendReport(sb);
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.writeString(temporary, sb, StandardCharsets.UTF_8);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
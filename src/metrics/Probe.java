@@ -0,0 +1,70 @@
+package metrics;
+
+/**
+ * Pontos medidos pela instrumentação. Os comandos do jogo têm o nome do comando; os restantes medem
+ * operações internas. Todos são tempos em nanossegundos, exceto {@link #CELLS_REVEALED}, que conta células.
+ */
+public enum Probe {
+    OPEN("/open"),
+    FLAG("/flag"),
+    HINT("/hint"),
+    PROB("/prob"),
+    VIEW("/view"),
+    PAN("/pan"),
+    CHEAT("/cheat"),
+    HELP("/help"),
+    STATS("/stats"),
+    SAVE("/save"),
+    REVEAL_CELL("revealCell"),
+    CELLS_REVEALED("células por revealCell"),
+    CHECK_WIN("checkWin"),
+    RENDER("desenho do tabuleiro"),
+    BOARD_GENERATION("geração de tabuleiro");
+
+    private final String label;
+
+    Probe(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Retorna o ponto medido de um comando do jogo.
+     *
+     * @param command Comando sem a barra, por exemplo "open".
+     * @return Ponto do comando, ou null se o comando não existir.
+     */
+    public static Probe ofCommand(String command) {
+        return switch (command) {
+            case "open" -> OPEN;
+            case "flag" -> FLAG;
+            case "hint" -> HINT;
+            case "prob" -> PROB;
+            case "view" -> VIEW;
+            case "pan" -> PAN;
+            case "cheat" -> CHEAT;
+            case "help" -> HELP;
+            case "stats" -> STATS;
+            case "save" -> SAVE;
+            default -> null;
+        };
+    }
+
+    /**
+     * Indica se o ponto mede tempos.
+     *
+     * @return true para tempos em nanossegundos, false para contagens.
+     */
+    public boolean isTimed() {
+        return this != CELLS_REVEALED;
+    }
+
+    /**
+     * Retorna o nome mostrado nos relatórios.
+     *
+     * @return Nome do ponto.
+     */
+    @Override
+    public String toString() {
+        return label;
+    }
+}
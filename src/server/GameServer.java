@@ -0,0 +1,323 @@
+package server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servidor TCP com muitos jogos em simultâneo, um por ligação.
+ * <p>
+ * Em vez de uma thread por ligação, um pequeno número de ciclos de eventos ({@link Selector}) serve todas
+ * as ligações com canais não bloqueantes; cada ligação pertence sempre ao mesmo ciclo, por isso a sua
+ * sessão nunca é usada por duas threads. Uma ligação sem pedidos não ocupa nenhuma thread, apenas a sessão
+ * e um buffer de leitura pequeno. As sessões ativas ficam num mapa concorrente, indexadas pelo identificador.
+ */
+public class GameServer implements Closeable {
+    private static final int READ_BUFFER_SIZE = 256;
+    private static final int MAX_LINE_LENGTH = 256;
+
+    private final InetSocketAddress address;
+    private final EventLoop[] loops;
+    private final Map<Long, GameSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextSessionId = new AtomicLong(1);
+    private ServerSocketChannel serverChannel;
+    private Thread acceptor;
+    private volatile boolean running;
+
+    /**
+     * Cria o servidor, sem o iniciar.
+     *
+     * @param address Endereço e porta; porta 0 escolhe uma porta livre.
+     * @param eventLoops Número de ciclos de eventos, normalmente o número de processadores.
+     */
+    public GameServer(InetSocketAddress address, int eventLoops) {
+        if (eventLoops <= 0)
+            throw new IllegalArgumentException("Número de ciclos de eventos inválido: " + eventLoops);
+        this.address = address;
+        this.loops = new EventLoop[eventLoops];
+    }
+
+    /**
+     * Abre a porta e inicia a thread que aceita ligações e os ciclos de eventos.
+     *
+     * @throws IOException Se a porta não puder ser aberta.
+     */
+    public void start() throws IOException {
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address, 1024);
+        running = true;
+        for (int i = 0; i < loops.length; i++) {
+            loops[i] = new EventLoop(Selector.open());
+            Thread thread = new Thread(loops[i], "game-server-loop-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        acceptor = new Thread(this::acceptConnections, "game-server-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Retorna a porta em que o servidor está a ouvir.
+     *
+     * @return Número da porta.
+     * @throws IOException Se o servidor não estiver iniciado.
+     */
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+    }
+
+    /**
+     * Retorna o número de sessões abertas.
+     *
+     * @return Número de sessões.
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Fecha a porta e todas as ligações.
+     *
+     * @throws IOException Se a porta não puder ser fechada.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        if (serverChannel != null)
+            serverChannel.close();
+        for (EventLoop loop : loops) {
+            if (loop != null)
+                loop.selector.close();
+        }
+    }
+
+    /**
+     * Aceita ligações em modo bloqueante e distribui-as pelos ciclos de eventos, à vez.
+     */
+    private void acceptConnections() {
+        int next = 0;
+        while (running) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                loops[next].assign(channel);
+                next = (next + 1) % loops.length;
+            } catch (IOException e) {
+                if (running)
+                    System.err.println("Erro ao aceitar ligação: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Estado de uma ligação: sessão, bytes recebidos e resposta por enviar.
+     */
+    private static final class Connection {
+        final SocketChannel channel;
+        final GameSession session;
+        final ByteBuffer in = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        final StringBuilder line = new StringBuilder(32);
+        ByteBuffer pending; // Resposta que não coube no socket; null se tudo foi enviado. Enquanto existir, não se lê
+        boolean closing;
+
+        Connection(SocketChannel channel, GameSession session) {
+            this.channel = channel;
+            this.session = session;
+        }
+    }
+
+    /**
+     * Ciclo de eventos: lê os pedidos completos de cada ligação, executa-os e envia as respostas.
+     * O buffer de saída e o codificador são partilhados por todas as ligações do ciclo.
+     */
+    private final class EventLoop implements Runnable {
+        final Selector selector;
+        final Queue<SocketChannel> newChannels = new ConcurrentLinkedQueue<>();
+        final StringBuilder response = new StringBuilder(1024);
+        final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+        final List<String> tokens = new ArrayList<>(4);
+        ByteBuffer out = ByteBuffer.allocate(4096);
+
+        EventLoop(Selector selector) {
+            this.selector = selector;
+        }
+
+        void assign(SocketChannel channel) {
+            newChannels.add(channel);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    selector.select();
+                    registerNewChannels();
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        Connection connection = (Connection) key.attachment();
+                        try {
+                            if (key.isValid() && key.isWritable())
+                                writePending(key, connection);
+                            if (key.isValid() && key.isReadable())
+                                read(key, connection);
+                        } catch (IOException e) {
+                            closeConnection(key, connection);
+                        }
+                    }
+                }
+            } catch (IOException | ClosedSelectorException e) {
+                // Servidor fechado
+            }
+        }
+
+        private void registerNewChannels() throws IOException {
+            SocketChannel channel;
+            while ((channel = newChannels.poll()) != null) {
+                GameSession session = new GameSession(nextSessionId.getAndIncrement());
+                sessions.put(session.getId(), session);
+                channel.register(selector, SelectionKey.OP_READ, new Connection(channel, session));
+            }
+        }
+
+        /**
+         * Lê o que chegou, executa cada linha completa e envia todas as respostas de uma vez.
+         */
+        private void read(SelectionKey key, Connection connection) throws IOException {
+            if (connection.channel.read(connection.in) < 0) {
+                closeConnection(key, connection);
+                return;
+            }
+            response.setLength(0);
+            connection.in.flip();
+            while (connection.in.hasRemaining() && !connection.closing) {
+                char c = (char) (connection.in.get() & 0xFF); // Os comandos são ASCII
+                if (c == '\n') {
+                    executeLine(connection);
+                    connection.line.setLength(0);
+                } else if (c != '\r') {
+                    if (connection.line.length() < MAX_LINE_LENGTH)
+                        connection.line.append(c);
+                }
+            }
+            connection.in.clear();
+            if (response.length() > 0)
+                send(key, connection);
+            if (connection.closing && connection.pending == null)
+                closeConnection(key, connection);
+        }
+
+        private void executeLine(Connection connection) {
+            tokens.clear();
+            StringBuilder line = connection.line;
+            int start = -1;
+            for (int i = 0; i <= line.length(); i++) {
+                boolean separator = i == line.length() || line.charAt(i) == ' ';
+                if (separator && start >= 0) {
+                    tokens.add(line.substring(start, i));
+                    start = -1;
+                } else if (!separator && start < 0) {
+                    start = i;
+                }
+            }
+            if (tokens.isEmpty())
+                return;
+            if (!connection.session.execute(tokens.toArray(new String[0]), response))
+                connection.closing = true;
+        }
+
+        /**
+         * Codifica a resposta no buffer partilhado e escreve-a; o que não couber no socket é copiado
+         * para um buffer próprio da ligação e enviado quando o socket voltar a aceitar escrita. Até lá a
+         * ligação deixa de ser lida, para que um cliente que envia pedidos sem ler as respostas fique à
+         * espera em vez de fazer crescer a memória do servidor; só é chamado sem resposta pendente.
+         */
+        private void send(SelectionKey key, Connection connection) throws IOException {
+            CharBuffer chars = CharBuffer.wrap(response);
+            out.clear();
+            encoder.reset();
+            while (true) {
+                CoderResult result = encoder.encode(chars, out, true);
+                if (!result.isOverflow())
+                    break;
+                ByteBuffer larger = ByteBuffer.allocate(out.capacity() * 2);
+                out.flip();
+                larger.put(out);
+                out = larger;
+            }
+            encoder.flush(out);
+            out.flip();
+
+            connection.channel.write(out);
+            if (out.hasRemaining()) {
+                connection.pending = ByteBuffer.allocate(out.remaining()).put(out).flip();
+                key.interestOps(SelectionKey.OP_WRITE);
+            }
+        }
+
+        private void writePending(SelectionKey key, Connection connection) throws IOException {
+            connection.channel.write(connection.pending);
+            if (!connection.pending.hasRemaining()) {
+                connection.pending = null;
+                key.interestOps(SelectionKey.OP_READ); // Volta a ler os pedidos que ficaram no socket
+                if (connection.closing)
+                    closeConnection(key, connection);
+            }
+        }
+
+        private void closeConnection(SelectionKey key, Connection connection) {
+            sessions.remove(connection.session.getId());
+            key.cancel();
+            try {
+                connection.channel.close();
+            } catch (IOException e) {
+                // A ligação já está fechada
+            }
+        }
+    }
+
+    /**
+     * Inicia o servidor: GameServer [porta] [ciclos de eventos].
+     *
+     * @param args Porta (7777 por omissão) e número de ciclos (um por processador por omissão).
+     * @throws IOException Se a porta não puder ser aberta.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7777;
+        int loops = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        GameServer server = new GameServer(new InetSocketAddress(port), loops);
+        server.start();
+        System.out.println("Servidor à escuta na porta " + server.getPort() + " com " + loops + " ciclos de eventos.");
+        while (true) {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                server.close();
+                return;
+            }
+            System.out.println("Sessões abertas: " + server.getSessionCount());
+        }
+    }
+}
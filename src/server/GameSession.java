@@ -0,0 +1,96 @@
+package server;
+
+import Enums.Difficulty;
+import Enums.GameStatus;
+import config.Coordinates;
+import config.HeadlessGame;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Um jogo do servidor: um {@link HeadlessGame} e o identificador da sessão.
+ * <p>
+ * Os comandos são os da consola, e cada um tem uma resposta de uma linha: {@code OK} seguido do estado do
+ * jogo ou da dica, ou {@code ERR} seguido da razão. O tabuleiro ({@code /board}) ocupa várias linhas e
+ * termina com uma linha só com um ponto. Cada sessão é usada por uma única thread de cada vez.
+ */
+public class GameSession {
+    private final long id;
+    private HeadlessGame game; // null até ao primeiro /new
+
+    /**
+     * Cria uma sessão sem jogo.
+     *
+     * @param id Identificador da sessão.
+     */
+    public GameSession(long id) {
+        this.id = id;
+    }
+
+    /**
+     * Retorna o identificador da sessão.
+     *
+     * @return Identificador.
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Executa um comando e escreve a resposta.
+     *
+     * @param parts Comando dividido por espaços, por exemplo {@code ["/open", "A", "3"]}.
+     * @param out Destino da resposta, terminada por uma mudança de linha.
+     * @return false se o cliente pediu para terminar a ligação.
+     */
+    public boolean execute(String[] parts, StringBuilder out) {
+        String command = parts[0];
+        if (command.equals("/quit")) {
+            out.append("BYE\n");
+            return false;
+        }
+        if (command.equals("/new")) {
+            int level = parts.length > 1 ? Coordinates.parseNumber(parts[1]) : 1;
+            Difficulty difficulty = Difficulty.valueOfInt(level);
+            if (difficulty == null) {
+                out.append("ERR dificuldade inválida\n");
+                return true;
+            }
+            game = new HeadlessGame(difficulty.getSettings(), ThreadLocalRandom.current().nextLong(), true);
+            out.append("OK ").append(GameStatus.PLAYING.name()).append('\n');
+            return true;
+        }
+        if (game == null) {
+            out.append("ERR sem jogo, use /new\n");
+            return true;
+        }
+
+        switch (command) {
+            case "/open":
+            case "/flag":
+                int row = parts.length > 2 ? Coordinates.parseRow(parts[1]) : -1;
+                int col = parts.length > 2 ? Coordinates.parseNumber(parts[2]) : -1;
+                if (!game.getBoard().isValidCoordinate(row, col)) {
+                    out.append("ERR coordenadas inválidas\n");
+                    break;
+                }
+                GameStatus status = command.equals("/open") ? game.open(row, col) : game.toggleFlag(row, col);
+                out.append("OK ").append(status.name()).append('\n');
+                break;
+            case "/hint":
+                int hint = game.hintCell();
+                if (hint < 0)
+                    out.append("OK NONE\n");
+                else
+                    Coordinates.appendCell(out.append("OK "), hint, game.getBoard().getCols()).append('\n');
+                break;
+            case "/board":
+                out.append(game.getBoard()).append(".\n");
+                break;
+            default:
+                out.append("ERR comando inválido\n");
+                break;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,172 @@
+package server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.SplittableRandom;
+
+/**
+ * Cliente de carga para o {@link GameServer}: abre muitas ligações, cada uma a jogar jogos Starter com
+ * aberturas aleatórias, sempre com um pedido em curso por ligação. Todas as ligações são servidas por
+ * uma única thread com um {@link Selector}. No fim mostra pedidos por segundo, jogos terminados e a
+ * latência de ida e volta.
+ * <p>
+ * Com o anfitrião {@code embedded} o servidor é iniciado no mesmo processo, o que permite mostrar também
+ * a memória ocupada por sessão.
+ */
+public class LoadGenerator {
+    private static final int HISTOGRAM_BUCKETS = 100_000; // Latências em intervalos de 10 µs, até 1 s
+    private static final long BUCKET_NANOS = 10_000;
+
+    private final SplittableRandom random = new SplittableRandom(42);
+    private final long[] histogram = new long[HISTOGRAM_BUCKETS];
+    private long requests;
+    private long games;
+
+    /**
+     * Estado de um cliente: o pedido em curso e a resposta recebida até agora.
+     */
+    private static final class Client {
+        final SocketChannel channel;
+        final ByteBuffer in = ByteBuffer.allocate(256);
+        final StringBuilder line = new StringBuilder(32);
+        long sentAt;
+
+        Client(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    /**
+     * LoadGenerator &lt;anfitrião|embedded&gt; &lt;porta&gt; &lt;ligações&gt; &lt;segundos&gt;
+     *
+     * @param args Anfitrião, porta, número de ligações e duração do teste em segundos.
+     * @throws IOException Se as ligações falharem.
+     */
+    public static void main(String[] args) throws IOException {
+        String host = args.length > 0 ? args[0] : "embedded";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 7777;
+        int connections = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+
+        GameServer server = null;
+        long memoryBefore = 0;
+        if (host.equals("embedded")) {
+            server = new GameServer(new InetSocketAddress("127.0.0.1", 0), Runtime.getRuntime().availableProcessors());
+            server.start();
+            host = "127.0.0.1";
+            port = server.getPort();
+            memoryBefore = usedMemory();
+        }
+
+        LoadGenerator generator = new LoadGenerator();
+        try (Selector selector = Selector.open()) {
+            for (int i = 0; i < connections; i++) {
+                SocketChannel channel = SocketChannel.open(new InetSocketAddress(host, port));
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                Client client = new Client(channel);
+                channel.register(selector, SelectionKey.OP_READ, client);
+                generator.send(client, "/new 1\n");
+            }
+            if (server != null) {
+                while (server.getSessionCount() < connections) {
+                    Thread.onSpinWait();
+                }
+                long perSession = (usedMemory() - memoryBefore) / connections;
+                System.out.println("Sessões: " + server.getSessionCount() + ", memória por sessão, incluindo o lado do cliente: ~" + perSession + " bytes");
+            }
+            generator.run(selector, seconds);
+        } finally {
+            if (server != null)
+                server.close();
+        }
+    }
+
+    private void run(Selector selector, int seconds) throws IOException {
+        long start = System.nanoTime();
+        long end = start + seconds * 1_000_000_000L;
+        while (System.nanoTime() < end) {
+            selector.select(100);
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                receive((Client) key.attachment());
+            }
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Pedidos: %d (%.0f/s), jogos terminados: %d%n", requests, requests / elapsed, games);
+        System.out.printf("Latência: p50 %d µs, p99 %d µs, p99.9 %d µs%n",
+                percentile(0.50), percentile(0.99), percentile(0.999));
+    }
+
+    /**
+     * Lê a resposta e, quando estiver completa, envia o pedido seguinte.
+     */
+    private void receive(Client client) throws IOException {
+        if (client.channel.read(client.in) < 0) {
+            client.channel.close();
+            return;
+        }
+        client.in.flip();
+        while (client.in.hasRemaining()) {
+            char c = (char) (client.in.get() & 0xFF);
+            if (c != '\n') {
+                client.line.append(c);
+                continue;
+            }
+            record(System.nanoTime() - client.sentAt);
+            String response = client.line.toString();
+            client.line.setLength(0);
+            if (response.equals("OK WON") || response.equals("OK LOST")) {
+                games++;
+                send(client, "/new 1\n");
+            } else {
+                // Starter: 9x9, linhas A a I
+                send(client, "/open " + (char) ('A' + random.nextInt(9)) + " " + random.nextInt(9) + "\n");
+            }
+        }
+        client.in.clear();
+    }
+
+    private void send(Client client, String request) throws IOException {
+        client.sentAt = System.nanoTime();
+        ByteBuffer bytes = ByteBuffer.wrap(request.getBytes(StandardCharsets.US_ASCII));
+        while (bytes.hasRemaining()) {
+            client.channel.write(bytes); // Pedidos curtos cabem sempre no socket
+        }
+    }
+
+    private void record(long nanos) {
+        requests++;
+        histogram[(int) Math.min(HISTOGRAM_BUCKETS - 1, nanos / BUCKET_NANOS)]++;
+    }
+
+    /**
+     * Percentil da latência, em microssegundos, arredondado ao intervalo do histograma.
+     */
+    private long percentile(double fraction) {
+        long target = (long) Math.ceil(requests * fraction);
+        long seen = 0;
+        for (int bucket = 0; bucket < HISTOGRAM_BUCKETS; bucket++) {
+            seen += histogram[bucket];
+            if (seen >= target && seen > 0)
+                return (bucket + 1) * BUCKET_NANOS / 1000;
+        }
+        return HISTOGRAM_BUCKETS * BUCKET_NANOS / 1000;
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
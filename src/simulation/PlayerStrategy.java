@@ -0,0 +1,20 @@
+package simulation;
+
+import config.HeadlessGame;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Estratégia de um jogador automático usada pelo {@link SimulationRunner}.
+ * Cada jogo simulado recebe a sua própria instância, por isso as implementações podem guardar estado.
+ */
+public interface PlayerStrategy {
+
+    /**
+     * Faz uma jogada (abrir ou marcar uma célula) no jogo indicado.
+     *
+     * @param game Jogo em curso.
+     * @param random Gerador aleatório exclusivo deste jogo.
+     */
+    void makeMove(HeadlessGame game, RandomGenerator random);
+}
@@ -0,0 +1,27 @@
+package simulation;
+
+import config.GameBoard;
+import config.HeadlessGame;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Estratégia de referência: abre uma célula tapada escolhida ao acaso.
+ */
+public class RandomStrategy implements PlayerStrategy {
+    private static final int MAX_ATTEMPTS = 64; // Depois disto procura a próxima célula tapada em sequência
+
+    @Override
+    public void makeMove(HeadlessGame game, RandomGenerator random) {
+        GameBoard board = game.getBoard();
+        int cells = board.getRows() * board.getCols();
+        int cell = random.nextInt(cells);
+        for (int attempt = 0; attempt < MAX_ATTEMPTS && board.isUncovered(cell); attempt++) {
+            cell = random.nextInt(cells);
+        }
+        for (int i = 0; i < cells && board.isUncovered(cell); i++) {
+            cell = (cell + 1) % cells;
+        }
+        game.open(cell);
+    }
+}
@@ -0,0 +1,43 @@
+package simulation;
+
+/**
+ * record class SimulationReport
+ * Resultado de uma série de jogos simulados.
+ *
+ * @param label Nome da série (por exemplo, a dificuldade).
+ * @param games Número de jogos simulados.
+ * @param wins Número de jogos ganhos.
+ * @param elapsedNanos Tempo total da série, em nanossegundos.
+ * @param p50Nanos Duração mediana de um jogo.
+ * @param p90Nanos Percentil 90 da duração de um jogo.
+ * @param p99Nanos Percentil 99 da duração de um jogo.
+ * @param maxNanos Duração do jogo mais lento.
+ */
+public record SimulationReport(String label, int games, int wins, long elapsedNanos,
+                               long p50Nanos, long p90Nanos, long p99Nanos, long maxNanos) {
+
+    /**
+     * Retorna o débito da série.
+     *
+     * @return Jogos por segundo.
+     */
+    public double gamesPerSecond() {
+        return games / (elapsedNanos / 1e9);
+    }
+
+    /**
+     * Retorna a proporção de jogos ganhos.
+     *
+     * @return Taxa de vitória entre 0 e 1.
+     */
+    public double winRate() {
+        return games == 0 ? 0 : (double) wins / games;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-16s jogos=%d vitórias=%.2f%% jogos/s=%.0f p50=%.1fµs p90=%.1fµs p99=%.1fµs máx=%.1fµs",
+                label, games, winRate() * 100, gamesPerSecond(),
+                p50Nanos / 1e3, p90Nanos / 1e3, p99Nanos / 1e3, maxNanos / 1e3);
+    }
+}
@@ -0,0 +1,113 @@
+package simulation;
+
+import Enums.Difficulty;
+import Enums.GameStatus;
+import config.GameConfiguration;
+import config.HeadlessGame;
+import config.Seeds;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Executa séries de jogos sem consola em paralelo, sobre um {@link ForkJoinPool}.
+ * <p>
+ * Cada jogo usa um gerador derivado apenas da semente da série e do seu número, por isso os resultados
+ * não dependem do número de threads nem da ordem de execução, e as threads não partilham estado mutável.
+ */
+public class SimulationRunner {
+
+    /**
+     * Ponto de entrada: simula jogos para cada {@link Difficulty} com a estratégia aleatória e com o solucionador.
+     *
+     * @param args [número de jogos por dificuldade] [número de threads] [semente]
+     */
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1L;
+
+        System.out.println("=== SIMULAÇÃO: " + games + " jogos por dificuldade, " + threads + " threads ===");
+        for (Difficulty difficulty : Difficulty.values()) {
+            System.out.println(run(difficulty + "/aleatória", difficulty.getSettings(), games, RandomStrategy::new, seed, threads));
+            System.out.println(run(difficulty + "/dedução", difficulty.getSettings(), games, SolverStrategy::new, seed, threads));
+        }
+    }
+
+    /**
+     * Simula uma série de jogos com todas as threads disponíveis.
+     *
+     * @param label Nome da série.
+     * @param settings Configuração dos tabuleiros.
+     * @param games Número de jogos.
+     * @param strategies Fornece uma estratégia nova para cada jogo.
+     * @param seed Semente da série.
+     * @return Resultado da série.
+     */
+    public static SimulationReport run(String label, GameConfiguration settings, int games,
+                                       Supplier<? extends PlayerStrategy> strategies, long seed) {
+        return run(label, settings, games, strategies, seed, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Simula uma série de jogos num {@link ForkJoinPool} com o número de threads indicado.
+     *
+     * @param label Nome da série.
+     * @param settings Configuração dos tabuleiros.
+     * @param games Número de jogos.
+     * @param strategies Fornece uma estratégia nova para cada jogo.
+     * @param seed Semente da série.
+     * @param threads Número de threads.
+     * @return Resultado da série.
+     */
+    public static SimulationReport run(String label, GameConfiguration settings, int games,
+                                       Supplier<? extends PlayerStrategy> strategies, long seed, int threads) {
+        long[] latencies = new long[games]; // Cada jogo escreve só na sua posição
+        LongAdder wins = new LongAdder();
+        int moveLimit = 2 * settings.rows() * settings.cols() + 1; // Evita ciclos infinitos de estratégias que não jogam
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        try {
+            pool.submit(() -> IntStream.range(0, games).parallel().forEach(i -> {
+                long gameStart = System.nanoTime();
+                SplittableRandom random = new SplittableRandom(Seeds.mix(seed, i));
+                HeadlessGame game = new HeadlessGame(settings, random.nextLong(), true);
+                PlayerStrategy strategy = strategies.get();
+                for (int move = 0; move < moveLimit && game.getStatus() == GameStatus.PLAYING; move++) {
+                    strategy.makeMove(game, random);
+                }
+                if (game.getStatus() == GameStatus.WON)
+                    wins.increment();
+                latencies[i] = System.nanoTime() - gameStart;
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulação interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha na simulação", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        return new SimulationReport(label, games, wins.intValue(), elapsed,
+                percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+                games == 0 ? 0 : latencies[games - 1]);
+    }
+
+    /**
+     * Retorna o percentil de um vetor já ordenado.
+     */
+    private static long percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0)
+            return 0;
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(fraction * sorted.length) - 1)];
+    }
+}
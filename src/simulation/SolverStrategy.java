@@ -0,0 +1,30 @@
+package simulation;
+
+import config.GameBoard;
+import config.HeadlessGame;
+import solver.ConstraintSolver;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Estratégia que abre as células que o {@link ConstraintSolver} garante serem seguras
+ * e só arrisca uma célula aleatória quando nada pode ser deduzido.
+ */
+public class SolverStrategy implements PlayerStrategy {
+    private final RandomStrategy fallback = new RandomStrategy();
+    private ConstraintSolver solver;
+
+    @Override
+    public void makeMove(HeadlessGame game, RandomGenerator random) {
+        GameBoard board = game.getBoard();
+        if (solver == null)
+            solver = new ConstraintSolver(board, false);
+
+        int cell = solver.nextSafeCell();
+        if (cell >= 0)
+            game.open(cell);
+        else
+            fallback.makeMove(game, random);
+        solver.onCellsRevealed(board.getLastRevealedCells());
+    }
+}
@@ -0,0 +1,286 @@
+package solver;
+
+import config.BitBoard;
+import config.GameBoard;
+import config.IntStack;
+
+/**
+ * Solucionador por propagação de restrições que usa apenas a informação visível do tabuleiro.
+ * <p>
+ * Cada célula revelada com número é uma restrição: entre as suas vizinhas desconhecidas há exatamente
+ * tantas minas quanto o número menos as minas já conhecidas. Além das regras de uma só restrição
+ * (nenhuma mina restante, ou todas as desconhecidas são minas), compara pares de restrições a distância
+ * até 2: se {@code minasB - minasA == |B \ A|}, então {@code B \ A} são todas minas e {@code A \ B} são todas
+ * seguras, o que inclui a regra dos subconjuntos. Os conjuntos de vizinhas são máscaras de bits numa grelha
+ * 7x7 centrada na restrição em análise, por isso cada comparação são poucas operações sobre um {@code long}.
+ * <p>
+ * O trabalho é incremental: só são reavaliadas as restrições à volta das células que mudaram desde a
+ * última resolução (revelações, bandeiras e as próprias deduções).
+ */
+public class ConstraintSolver {
+    private static final int FRAME = 7;   // Grelha 7x7 que cobre duas restrições a distância 2
+    private static final int CENTER = 3;
+
+    private final GameBoard board;
+    private final int numRows;
+    private final int numCols;
+    private final boolean trustFlags;
+    private final BitBoard knownSafe;
+    private final BitBoard knownMine;
+    private final BitBoard queued;
+    private final IntStack queue = new IntStack(64);
+    private boolean changed; // Indica se a restrição em análise produziu deduções
+
+    /**
+     * Cria um solucionador para o tabuleiro, analisando as células já reveladas.
+     *
+     * @param board Tabuleiro a analisar.
+     * @param trustFlags Se true, as bandeiras do jogador são tratadas como minas certas.
+     */
+    public ConstraintSolver(GameBoard board, boolean trustFlags) {
+        this.board = board;
+        this.numRows = board.getRows();
+        this.numCols = board.getCols();
+        this.trustFlags = trustFlags;
+        this.knownSafe = new BitBoard(numRows * numCols);
+        this.knownMine = new BitBoard(numRows * numCols);
+        this.queued = new BitBoard(numRows * numCols);
+        for (int cell = 0; cell < numRows * numCols; cell++) {
+            if (board.isUncovered(cell))
+                enqueue(cell);
+        }
+    }
+
+    /**
+     * Regista células reveladas desde a última chamada, normalmente {@link GameBoard#getLastRevealedCells()}.
+     *
+     * @param cells Índices das células reveladas.
+     */
+    public void onCellsRevealed(IntStack cells) {
+        for (int i = 0; i < cells.size(); i++) {
+            int cell = cells.get(i);
+            knownSafe.clear(cell);
+            enqueue(cell);
+            enqueueNeighbours(cell);
+        }
+    }
+
+    /**
+     * Regista a colocação ou remoção de uma bandeira.
+     *
+     * @param row Linha da célula.
+     * @param col Coluna da célula.
+     */
+    public void onFlagToggled(int row, int col) {
+        if (trustFlags)
+            enqueueNeighbours(row * numCols + col);
+    }
+
+    /**
+     * Propaga as restrições pendentes até não haver mais deduções.
+     */
+    public void solve() {
+        while (!queue.isEmpty()) {
+            int cell = queue.pop();
+            queued.clear(cell);
+            analyse(cell / numCols, cell % numCols);
+        }
+    }
+
+    /**
+     * Retorna uma célula tapada que é garantidamente segura.
+     *
+     * @return Índice da célula ({@code linha * colunas + coluna}), ou -1 se nenhuma puder ser deduzida.
+     */
+    public int nextSafeCell() {
+        solve();
+        for (int cell = knownSafe.nextSetBit(0); cell >= 0; cell = knownSafe.nextSetBit(cell + 1)) {
+            if (!board.isUncovered(cell))
+                return cell;
+            knownSafe.clear(cell); // Revelada por outro caminho
+        }
+        return -1;
+    }
+
+    /**
+     * Retorna todas as células tapadas deduzidas como seguras.
+     *
+     * @return Índices das células seguras.
+     */
+    public int[] getSafeCells() {
+        solve();
+        return collectCovered(knownSafe);
+    }
+
+    /**
+     * Retorna todas as células deduzidas como minas.
+     *
+     * @return Índices das minas deduzidas.
+     */
+    public int[] getMineCells() {
+        solve();
+        return collectCovered(knownMine);
+    }
+
+    /**
+     * Verifica se uma célula foi deduzida como segura (sem resolver restrições pendentes).
+     *
+     * @param cell Índice da célula.
+     * @return true se a célula for garantidamente segura.
+     */
+    public boolean isKnownSafe(int cell) {
+        return knownSafe.get(cell);
+    }
+
+    /**
+     * Verifica se uma célula foi deduzida como mina (sem resolver restrições pendentes).
+     *
+     * @param cell Índice da célula.
+     * @return true se a célula for garantidamente uma mina.
+     */
+    public boolean isKnownMine(int cell) {
+        return knownMine.get(cell);
+    }
+
+    /**
+     * Aplica as regras de uma restrição e dos pares que forma com as restrições próximas.
+     */
+    private void analyse(int row, int col) {
+        int number = board.getAdjacentMines(row, col);
+        if (number < 0)
+            return;
+        long maskA = unknownMask(row, col, row, col);
+        if (maskA == 0)
+            return;
+        int minesA = number - knownMinesAround(row, col);
+        int unknownA = Long.bitCount(maskA);
+        if (minesA < 0 || minesA > unknownA)
+            return; // Bandeiras incoerentes com os números
+
+        changed = false;
+        if (minesA == 0) {
+            markSafe(row, col, maskA);
+            return;
+        }
+        if (minesA == unknownA) {
+            markMines(row, col, maskA);
+            return;
+        }
+
+        for (int otherRow = Math.max(0, row - 2); otherRow <= Math.min(numRows - 1, row + 2); otherRow++) {
+            for (int otherCol = Math.max(0, col - 2); otherCol <= Math.min(numCols - 1, col + 2); otherCol++) {
+                if (otherRow == row && otherCol == col)
+                    continue;
+                int otherNumber = board.getAdjacentMines(otherRow, otherCol);
+                if (otherNumber < 0)
+                    continue;
+                long maskB = unknownMask(row, col, otherRow, otherCol);
+                if ((maskA & maskB) == 0)
+                    continue;
+                int minesB = otherNumber - knownMinesAround(otherRow, otherCol);
+
+                long onlyA = maskA & ~maskB;
+                long onlyB = maskB & ~maskA;
+                if (minesB - minesA == Long.bitCount(onlyB)) {
+                    markMines(row, col, onlyB);
+                    markSafe(row, col, onlyA);
+                } else if (minesA - minesB == Long.bitCount(onlyA)) {
+                    markMines(row, col, onlyA);
+                    markSafe(row, col, onlyB);
+                }
+                if (changed)
+                    return; // As máscaras mudaram; a restrição volta à fila pelas deduções feitas
+            }
+        }
+    }
+
+    /**
+     * Máscara, na grelha 7x7 centrada em (originRow, originCol), das vizinhas desconhecidas de uma célula.
+     */
+    private long unknownMask(int originRow, int originCol, int row, int col) {
+        long mask = 0;
+        for (int i = Math.max(0, row - 1); i <= Math.min(numRows - 1, row + 1); i++) {
+            for (int j = Math.max(0, col - 1); j <= Math.min(numCols - 1, col + 1); j++) {
+                if (isUnknown(i, j))
+                    mask |= 1L << ((i - originRow + CENTER) * FRAME + (j - originCol + CENTER));
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Conta as vizinhas de uma célula que são minas conhecidas.
+     */
+    private int knownMinesAround(int row, int col) {
+        int count = 0;
+        for (int i = Math.max(0, row - 1); i <= Math.min(numRows - 1, row + 1); i++) {
+            for (int j = Math.max(0, col - 1); j <= Math.min(numCols - 1, col + 1); j++) {
+                if (isKnownMine(i, j))
+                    count++;
+            }
+        }
+        return count;
+    }
+
+    private boolean isUnknown(int row, int col) {
+        int cell = row * numCols + col;
+        return !board.isUncovered(cell) && !knownSafe.get(cell) && !isKnownMine(row, col);
+    }
+
+    private boolean isKnownMine(int row, int col) {
+        return knownMine.get(row * numCols + col) || (trustFlags && board.isFlagged(row, col) && !board.isUncovered(row, col));
+    }
+
+    private void markSafe(int originRow, int originCol, long mask) {
+        mark(originRow, originCol, mask, knownSafe);
+    }
+
+    private void markMines(int originRow, int originCol, long mask) {
+        mark(originRow, originCol, mask, knownMine);
+    }
+
+    /**
+     * Adiciona as células de uma máscara a um dos conjuntos de deduções e reavalia as suas vizinhas.
+     */
+    private void mark(int originRow, int originCol, long mask, BitBoard target) {
+        while (mask != 0) {
+            int bit = Long.numberOfTrailingZeros(mask);
+            mask &= mask - 1;
+            int cell = (originRow + bit / FRAME - CENTER) * numCols + (originCol + bit % FRAME - CENTER);
+            target.set(cell);
+            enqueueNeighbours(cell);
+            changed = true;
+        }
+    }
+
+    private void enqueue(int cell) {
+        if (!queued.get(cell)) {
+            queued.set(cell);
+            queue.push(cell);
+        }
+    }
+
+    /**
+     * Coloca na fila as células reveladas à volta de uma célula, cujas restrições dependem dela.
+     */
+    private void enqueueNeighbours(int cell) {
+        int row = cell / numCols;
+        int col = cell % numCols;
+        for (int i = Math.max(0, row - 1); i <= Math.min(numRows - 1, row + 1); i++) {
+            for (int j = Math.max(0, col - 1); j <= Math.min(numCols - 1, col + 1); j++) {
+                int neighbour = i * numCols + j;
+                if (board.isUncovered(neighbour))
+                    enqueue(neighbour);
+            }
+        }
+    }
+
+    private int[] collectCovered(BitBoard cells) {
+        IntStack result = new IntStack(16);
+        for (int cell = cells.nextSetBit(0); cell >= 0; cell = cells.nextSetBit(cell + 1)) {
+            if (!board.isUncovered(cell))
+                result.push(cell);
+        }
+        return result.toArray();
+    }
+}
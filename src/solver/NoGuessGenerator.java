@@ -0,0 +1,179 @@
+package solver;
+
+import config.GameBoard;
+import config.GameConfiguration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Gera tabuleiros que se resolvem do primeiro ao último clique só por dedução.
+ * <p>
+ * Cada tarefa sorteia sementes, constrói o tabuleiro com a vizinhança da célula inicial livre de minas
+ * e joga-o com o {@link ConstraintSolver}. O tabuleiro é aceite se o solucionador revelar todas as células
+ * seguras sem nunca ter de adivinhar. As tarefas correm em paralelo; a primeira que encontrar um tabuleiro
+ * válido termina a geração e as restantes são canceladas. Se o tempo limite se esgotar, é devolvido um
+ * tabuleiro normal com a mesma célula inicial segura.
+ */
+public class NoGuessGenerator {
+    private final ExecutorService executor;
+    private final int parallelism;
+    private final long timeBudgetMillis;
+    private volatile long lastAttempts; // Candidatos testados na última geração
+    private volatile boolean lastFallback;
+
+    /**
+     * Cria um gerador com uma tarefa por processador.
+     *
+     * @param timeBudgetMillis Tempo máximo de procura por tabuleiro, em milissegundos.
+     */
+    public NoGuessGenerator(long timeBudgetMillis) {
+        this(Runtime.getRuntime().availableProcessors(), timeBudgetMillis);
+    }
+
+    /**
+     * Cria um gerador.
+     *
+     * @param parallelism Número de tarefas que testam candidatos em simultâneo.
+     * @param timeBudgetMillis Tempo máximo de procura por tabuleiro, em milissegundos.
+     */
+    public NoGuessGenerator(int parallelism, long timeBudgetMillis) {
+        this(parallelism, timeBudgetMillis, Thread.NORM_PRIORITY);
+    }
+
+    /**
+     * Cria um gerador com threads da prioridade indicada, por exemplo para gerar em segundo plano.
+     *
+     * @param parallelism Número de tarefas que testam candidatos em simultâneo.
+     * @param timeBudgetMillis Tempo máximo de procura por tabuleiro, em milissegundos.
+     * @param threadPriority Prioridade das threads do gerador ({@link Thread#MIN_PRIORITY} a {@link Thread#MAX_PRIORITY}).
+     */
+    public NoGuessGenerator(int parallelism, long timeBudgetMillis, int threadPriority) {
+        if (parallelism <= 0 || timeBudgetMillis <= 0 || threadPriority < Thread.MIN_PRIORITY || threadPriority > Thread.MAX_PRIORITY)
+            throw new IllegalArgumentException("Gerador inválido: " + parallelism + " tarefas, " + timeBudgetMillis + " ms, prioridade " + threadPriority);
+        this.parallelism = parallelism;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "no-guess-generator");
+            thread.setDaemon(true); // Não impede a aplicação de terminar
+            thread.setPriority(threadPriority);
+            return thread;
+        });
+    }
+
+    /**
+     * Gera um tabuleiro sem adivinhas, com a célula inicial no centro, já aberta.
+     *
+     * @param settings Configuração do tabuleiro.
+     * @param seed Semente da procura; cada candidato tem a sua própria semente, ver {@link GameBoard#getSeed()}.
+     * @return Tabuleiro com a célula inicial revelada.
+     */
+    public GameBoard generate(GameConfiguration settings, long seed) {
+        return generate(settings, seed, settings.rows() / 2, settings.cols() / 2);
+    }
+
+    /**
+     * Gera um tabuleiro sem adivinhas a partir da célula inicial indicada, já aberta.
+     *
+     * @param settings Configuração do tabuleiro.
+     * @param seed Semente da procura.
+     * @param startRow Linha da célula inicial.
+     * @param startCol Coluna da célula inicial.
+     * @return Tabuleiro resolúvel por dedução, ou um tabuleiro normal se o tempo limite se esgotar.
+     */
+    public GameBoard generate(GameConfiguration settings, long seed, int startRow, int startCol) {
+        SplittableRandom root = new SplittableRandom(seed);
+        long fallbackSeed = root.nextLong();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis);
+        LongAdder attempts = new LongAdder();
+
+        // Cada tarefa tem o seu próprio gerador, derivado da semente da procura
+        List<Callable<GameBoard>> tasks = new ArrayList<>(parallelism);
+        for (int t = 0; t < parallelism; t++) {
+            SplittableRandom random = root.split();
+            tasks.add(() -> search(settings, random, startRow, startCol, deadline, attempts));
+        }
+
+        GameBoard board;
+        try {
+            board = executor.invokeAny(tasks, timeBudgetMillis, TimeUnit.MILLISECONDS); // Cancela as restantes
+            lastFallback = false;
+        } catch (TimeoutException | ExecutionException e) {
+            board = new GameBoard(settings, fallbackSeed, startRow, startCol);
+            board.revealCell(startRow, startCol);
+            lastFallback = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            board = new GameBoard(settings, fallbackSeed, startRow, startCol);
+            board.revealCell(startRow, startCol);
+            lastFallback = true;
+        }
+        lastAttempts = attempts.sum();
+        return board;
+    }
+
+    /**
+     * Testa candidatos até encontrar um tabuleiro válido, ser cancelada ou passar o prazo.
+     */
+    private static GameBoard search(GameConfiguration settings, SplittableRandom random, int startRow, int startCol,
+                                    long deadline, LongAdder attempts) throws TimeoutException {
+        while (!Thread.currentThread().isInterrupted() && System.nanoTime() < deadline) {
+            attempts.increment();
+            GameBoard candidate = new GameBoard(settings, random.nextLong(), startRow, startCol);
+            if (isSolvable(candidate, startRow, startCol)) {
+                // O candidato foi jogado até ao fim; devolve uma cópia limpa com a mesma semente
+                GameBoard board = new GameBoard(settings, candidate.getSeed(), startRow, startCol);
+                board.revealCell(startRow, startCol);
+                return board;
+            }
+        }
+        throw new TimeoutException("Procura interrompida");
+    }
+
+    /**
+     * Joga o tabuleiro só com deduções a partir da célula inicial.
+     *
+     * @param board Tabuleiro por jogar.
+     * @param startRow Linha da célula inicial.
+     * @param startCol Coluna da célula inicial.
+     * @return true se todas as células seguras forem reveladas sem adivinhar.
+     */
+    public static boolean isSolvable(GameBoard board, int startRow, int startCol) {
+        if (board.isMine(startRow, startCol))
+            return false;
+        board.revealCell(startRow, startCol);
+        ConstraintSolver solver = new ConstraintSolver(board, false);
+        int cell;
+        while (!board.checkWin() && (cell = solver.nextSafeCell()) >= 0) {
+            board.revealCell(cell);
+            solver.onCellsRevealed(board.getLastRevealedCells());
+        }
+        return board.getStats().coveredSafeCells() == 0;
+    }
+
+    /**
+     * Retorna quantos candidatos foram testados na última geração, somando todas as tarefas.
+     *
+     * @return Número de candidatos.
+     */
+    public long getLastAttempts() {
+        return lastAttempts;
+    }
+
+    /**
+     * Indica se a última geração esgotou o tempo e devolveu um tabuleiro normal.
+     *
+     * @return true se foi usado o tabuleiro de recurso.
+     */
+    public boolean wasLastFallback() {
+        return lastFallback;
+    }
+}
@@ -0,0 +1,630 @@
+package solver;
+
+import config.BitBoard;
+import config.Coordinates;
+import config.GameBoard;
+import config.IntStack;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Calcula a probabilidade exata de cada célula tapada ter uma mina, a partir da informação visível.
+ * <p>
+ * As células da fronteira (tapadas e vizinhas de um número) são divididas em componentes independentes,
+ * ligadas por restrições comuns. Para cada componente são enumeradas todas as configurações válidas,
+ * agrupadas pelo número de minas que usam. Os componentes são depois combinados com o número global de
+ * minas restantes: cada combinação pesa tanto quanto o número de formas de colocar as minas que sobram
+ * nas células tapadas fora da fronteira. Os componentes são resolvidos em paralelo no {@code ForkJoinPool}
+ * comum e os resultados ficam em cache, por isso uma jogada só obriga a enumerar os componentes que mudou.
+ */
+public class ProbabilityEngine {
+    private static final int MAX_COMPONENT_CELLS = 64; // Acima disto a enumeração não é feita
+    private static final long MAX_ENUMERATION_STEPS = 1_000_000; // Passos de retrocesso por componente, ver enumerate
+
+    private final GameBoard board;
+    private final ConstraintSolver solver;
+    private final int numRows;
+    private final int numCols;
+    private Map<ComponentKey, ComponentResult> cache = new HashMap<>();
+    private int lastEnumerated;
+
+    /**
+     * Descrição canónica de um componente: células, restrições e valores. Dois componentes com a mesma
+     * descrição têm exatamente as mesmas configurações, por isso a descrição serve de chave da cache.
+     */
+    private static final class ComponentKey {
+        final int[] cells;
+        final int[][] constraintCells; // Para cada restrição, posições em cells
+        final int[] values;
+        private final int hash;
+
+        ComponentKey(int[] cells, int[][] constraintCells, int[] values) {
+            this.cells = cells;
+            this.constraintCells = constraintCells;
+            this.values = values;
+            this.hash = 31 * (31 * Arrays.hashCode(cells) + Arrays.deepHashCode(constraintCells)) + Arrays.hashCode(values);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof ComponentKey))
+                return false;
+            ComponentKey key = (ComponentKey) other;
+            return hash == key.hash && Arrays.equals(cells, key.cells) && Arrays.equals(values, key.values)
+                    && Arrays.deepEquals(constraintCells, key.constraintCells);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Configurações de um componente agrupadas pelo número de minas:
+     * {@code ways[k]} configurações com k minas, {@code mineWays[k][i]} delas com mina na célula i.
+     */
+    private static final class ComponentResult {
+        final double[] ways;
+        final double[][] mineWays;
+        final boolean exact;
+
+        ComponentResult(double[] ways, double[][] mineWays, boolean exact) {
+            this.ways = ways;
+            this.mineWays = mineWays;
+            this.exact = exact;
+        }
+    }
+
+    /**
+     * Resultado do cálculo: probabilidade de mina para cada célula do tabuleiro.
+     */
+    public static final class Probabilities {
+        private final GameBoard board;
+        private final float[] probabilities;
+        private final BitBoard approximated; // Células de componentes que não foram enumerados
+        private final boolean exact;
+
+        private Probabilities(GameBoard board, float[] probabilities, BitBoard approximated, boolean exact) {
+            this.board = board;
+            this.probabilities = probabilities;
+            this.approximated = approximated;
+            this.exact = exact;
+        }
+
+        /**
+         * Retorna a probabilidade de uma célula ter mina.
+         *
+         * @param row Linha da célula.
+         * @param col Coluna da célula.
+         * @return Probabilidade entre 0 e 1, ou 0 se a célula já estiver revelada.
+         */
+        public double get(int row, int col) {
+            return probabilities[row * board.getCols() + col];
+        }
+
+        /**
+         * Indica se a probabilidade de uma célula é só a densidade média das minas que sobram, porque o seu
+         * componente excedeu o limite e não foi enumerado.
+         *
+         * @param row Linha da célula.
+         * @param col Coluna da célula.
+         * @return true se a probabilidade da célula for aproximada.
+         */
+        public boolean isApproximated(int row, int col) {
+            return approximated.get(row * board.getCols() + col);
+        }
+
+        /**
+         * Indica se todos os componentes foram enumerados por completo.
+         *
+         * @return false se algum componente excedeu o limite e usou a densidade média.
+         */
+        public boolean isExact() {
+            return exact;
+        }
+
+        /**
+         * Retorna a célula tapada com menor probabilidade de mina. As células com probabilidade aproximada só
+         * são escolhidas se não houver outras tapadas.
+         *
+         * @return Índice da célula, ou -1 se não houver células tapadas.
+         */
+        public int safestCell() {
+            int best = -1;
+            for (int cell = 0; cell < probabilities.length; cell++) {
+                if (board.isUncovered(cell))
+                    continue;
+                if (best < 0 || approximated.get(best) && !approximated.get(cell)
+                        || approximated.get(best) == approximated.get(cell) && probabilities[cell] < probabilities[best])
+                    best = cell;
+            }
+            return best;
+        }
+
+        /**
+         * Desenha a janela visível do tabuleiro com a probabilidade de cada célula tapada em décimas:
+         * '0' a '9' (por exemplo, '3' para 30% a 39%), 'S' para segura e 'M' para mina certa. As células com
+         * probabilidade aproximada nunca aparecem como 'S' nem 'M'.
+         *
+         * @return Mapa de calor como string.
+         */
+        public String toHeatmap() {
+            int firstRow = board.getViewRow();
+            int firstCol = board.getViewCol();
+            int labelWidth = board.getRowPrefixWidth() - 2;
+            StringBuilder sb = new StringBuilder();
+            Coordinates.appendColumnHeader(sb, firstCol, firstCol + board.getViewCols(), labelWidth).append('\n');
+            for (int i = firstRow; i < firstRow + board.getViewRows(); i++) {
+                Coordinates.appendRowPrefix(sb, i, labelWidth);
+                for (int j = firstCol; j < firstCol + board.getViewCols(); j++) {
+                    sb.append(heatmapSymbol(i, j)).append("  ");
+                }
+                sb.append('\n');
+            }
+            sb.append('\n').append("\tProbabilidade de mina em décimas (S = segura, M = mina)");
+            if (!exact)
+                sb.append(", aproximada em regiões muito grandes");
+            sb.append('\n');
+            return sb.toString();
+        }
+
+        private char heatmapSymbol(int row, int col) {
+            if (board.isUncovered(row, col))
+                return board.getCellVisual(row, col);
+            double probability = get(row, col);
+            if (!isApproximated(row, col)) {
+                if (probability <= 0)
+                    return 'S';
+                if (probability >= 1)
+                    return 'M';
+            }
+            return (char) ('0' + Math.min(9, (int) (probability * 10)));
+        }
+    }
+
+    /**
+     * Cria o motor de probabilidades para um tabuleiro.
+     *
+     * @param board Tabuleiro a analisar.
+     * @param solver Solucionador do mesmo tabuleiro; as suas deduções reduzem a fronteira a enumerar.
+     */
+    public ProbabilityEngine(GameBoard board, ConstraintSolver solver) {
+        this.board = board;
+        this.solver = solver;
+        this.numRows = board.getRows();
+        this.numCols = board.getCols();
+    }
+
+    /**
+     * Calcula as probabilidades de mina no estado atual do tabuleiro.
+     *
+     * @return Probabilidade de cada célula.
+     */
+    public Probabilities compute() {
+        solver.solve();
+        int cellCount = numRows * numCols;
+        BitBoard frontier = new BitBoard(cellCount);
+        int knownMines = 0;
+        int unconstrained = 0;
+
+        // Classifica as células tapadas: minas conhecidas, seguras, fronteira ou sem restrições
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (board.isUncovered(cell) || solver.isKnownSafe(cell))
+                continue;
+            if (solver.isKnownMine(cell))
+                knownMines++;
+            else if (hasUncoveredNeighbour(cell / numCols, cell % numCols))
+                frontier.set(cell);
+            else
+                unconstrained++;
+        }
+
+        List<ComponentKey> keys = buildComponents(frontier);
+        Map<ComponentKey, ComponentResult> nextCache = new HashMap<>();
+        List<ComponentKey> missing = new ArrayList<>();
+        for (ComponentKey key : keys) {
+            ComponentResult cached = cache.get(key);
+            if (cached != null)
+                nextCache.put(key, cached);
+            else
+                missing.add(key);
+        }
+        lastEnumerated = missing.size();
+        // Enumera em paralelo; o mapa da cache só é alterado nesta thread
+        nextCache.putAll(missing.parallelStream()
+                .collect(Collectors.toMap(key -> key, ProbabilityEngine::enumerate)));
+        cache = nextCache; // Descarta componentes que deixaram de existir
+
+        // As células dos componentes não enumerados juntam-se às sem restrições e partilham a mesma densidade
+        ComponentResult[] results = new ComponentResult[keys.size()];
+        BitBoard approximated = new BitBoard(cellCount);
+        boolean exact = true;
+        for (int i = 0; i < results.length; i++) {
+            results[i] = nextCache.get(keys.get(i));
+            exact &= results[i].exact;
+            if (!results[i].exact) {
+                for (int cell : keys.get(i).cells) {
+                    approximated.set(cell);
+                }
+                unconstrained += keys.get(i).cells.length;
+            }
+        }
+        int remainingMines = board.getStats().totalMines() - knownMines;
+        return new Probabilities(board, combine(keys, results, unconstrained, remainingMines), approximated, exact);
+    }
+
+    /**
+     * Retorna quantos componentes foram enumerados no último cálculo (os restantes vieram da cache).
+     *
+     * @return Número de componentes enumerados.
+     */
+    public int getLastEnumeratedCount() {
+        return lastEnumerated;
+    }
+
+    /**
+     * Junta os resultados dos componentes com o número global de minas e calcula as probabilidades.
+     * {@code unconstrained} inclui as células dos componentes não enumerados, que não contribuem com minas
+     * para a convolução e recebem a densidade das minas que sobram.
+     */
+    private float[] combine(List<ComponentKey> keys, ComponentResult[] results, int unconstrained, int remainingMines) {
+        int componentCount = results.length;
+
+        // prefix[i] = convolução dos componentes 0..i-1; suffix[i] = dos componentes i..n-1
+        double[][] prefix = new double[componentCount + 1][];
+        double[][] suffix = new double[componentCount + 1][];
+        prefix[0] = new double[]{1};
+        suffix[componentCount] = new double[]{1};
+        for (int i = 0; i < componentCount; i++) {
+            prefix[i + 1] = normalize(convolve(prefix[i], results[i].ways));
+        }
+        for (int i = componentCount - 1; i >= 0; i--) {
+            suffix[i] = normalize(convolve(results[i].ways, suffix[i + 1]));
+        }
+        double[] total = prefix[componentCount];
+        double[] rest = restWeights(unconstrained, remainingMines, total.length);
+
+        // Peso total e minas esperadas nas células sem restrições
+        double totalWeight = 0;
+        double unconstrainedMines = 0;
+        for (int s = 0; s < total.length; s++) {
+            double weight = total[s] * rest[s];
+            totalWeight += weight;
+            unconstrainedMines += weight * (remainingMines - s);
+        }
+
+        float[] probabilities = new float[numRows * numCols];
+        float unconstrainedProbability = unconstrained == 0 || totalWeight == 0 ? 0
+                : (float) (unconstrainedMines / totalWeight / unconstrained);
+        for (int cell = 0; cell < probabilities.length; cell++) {
+            if (board.isUncovered(cell) || solver.isKnownSafe(cell))
+                continue;
+            probabilities[cell] = solver.isKnownMine(cell) ? 1 : unconstrainedProbability;
+        }
+
+        for (int i = 0; i < componentCount; i++) {
+            ComponentResult result = results[i];
+            int[] cells = keys.get(i).cells;
+            if (!result.exact)
+                continue; // Já tem a densidade das células sem restrições
+            double[] others = convolve(prefix[i], suffix[i + 1]);
+            double componentWeight = 0;
+            double[] cellWeight = new double[cells.length];
+            for (int k = 0; k < result.ways.length; k++) {
+                double outside = 0; // Peso de todas as formas de completar o tabuleiro com k minas neste componente
+                for (int s = 0; s < others.length && k + s < rest.length; s++) {
+                    outside += others[s] * rest[k + s];
+                }
+                componentWeight += result.ways[k] * outside;
+                for (int c = 0; c < cells.length; c++) {
+                    cellWeight[c] += result.mineWays[k][c] * outside;
+                }
+            }
+            for (int c = 0; c < cells.length; c++) {
+                probabilities[cells[c]] = componentWeight == 0 ? 0 : (float) (cellWeight[c] / componentWeight);
+            }
+        }
+        return probabilities;
+    }
+
+    /**
+     * Peso relativo de cada total de minas s na fronteira: C(unconstrained, remainingMines - s),
+     * calculado em logaritmos e normalizado pelo maior valor para não exceder o alcance de um double.
+     */
+    private static double[] restWeights(int unconstrained, int remainingMines, int length) {
+        double[] logs = new double[length];
+        double max = Double.NEGATIVE_INFINITY;
+        for (int s = 0; s < length; s++) {
+            int m = remainingMines - s;
+            logs[s] = m < 0 || m > unconstrained ? Double.NEGATIVE_INFINITY : logBinomial(unconstrained, m);
+            max = Math.max(max, logs[s]);
+        }
+        double[] weights = new double[length];
+        for (int s = 0; s < length; s++) {
+            weights[s] = logs[s] == Double.NEGATIVE_INFINITY ? 0 : Math.exp(logs[s] - max);
+        }
+        return weights;
+    }
+
+    /**
+     * Logaritmo de C(n, k), somando os fatores do menor lado.
+     */
+    private static double logBinomial(int n, int k) {
+        k = Math.min(k, n - k);
+        double log = 0;
+        for (int i = 0; i < k; i++) {
+            log += Math.log((double) (n - i) / (i + 1));
+        }
+        return log;
+    }
+
+    private static double[] convolve(double[] a, double[] b) {
+        double[] result = new double[a.length + b.length - 1];
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == 0)
+                continue;
+            for (int j = 0; j < b.length; j++) {
+                result[i + j] += a[i] * b[j];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Divide pelo maior valor; as probabilidades só dependem de razões entre pesos.
+     */
+    private static double[] normalize(double[] values) {
+        double max = 0;
+        for (double value : values) {
+            max = Math.max(max, value);
+        }
+        if (max > 0) {
+            for (int i = 0; i < values.length; i++) {
+                values[i] /= max;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Divide a fronteira em componentes ligados por restrições comuns e descreve cada um de forma canónica.
+     */
+    private List<ComponentKey> buildComponents(BitBoard frontier) {
+        List<ComponentKey> components = new ArrayList<>();
+        BitBoard visited = new BitBoard(numRows * numCols);
+        IntStack pending = new IntStack(64);
+        IntStack componentCells = new IntStack(64);
+        IntStack constraints = new IntStack(64);
+        BitBoard constraintSeen = new BitBoard(numRows * numCols);
+
+        for (int start = frontier.nextSetBit(0); start >= 0; start = frontier.nextSetBit(start + 1)) {
+            if (visited.get(start))
+                continue;
+            componentCells.clear();
+            constraints.clear();
+            visited.set(start);
+            pending.push(start);
+
+            // Percorre célula -> restrições vizinhas -> células da fronteira vizinhas dessas restrições
+            while (!pending.isEmpty()) {
+                int cell = pending.pop();
+                componentCells.push(cell);
+                int row = cell / numCols;
+                int col = cell % numCols;
+                for (int i = Math.max(0, row - 1); i <= Math.min(numRows - 1, row + 1); i++) {
+                    for (int j = Math.max(0, col - 1); j <= Math.min(numCols - 1, col + 1); j++) {
+                        int constraint = i * numCols + j;
+                        if (!board.isUncovered(constraint) || constraintSeen.get(constraint))
+                            continue;
+                        constraintSeen.set(constraint);
+                        constraints.push(constraint);
+                        for (int r = Math.max(0, i - 1); r <= Math.min(numRows - 1, i + 1); r++) {
+                            for (int c = Math.max(0, j - 1); c <= Math.min(numCols - 1, j + 1); c++) {
+                                int neighbour = r * numCols + c;
+                                if (frontier.get(neighbour) && !visited.get(neighbour)) {
+                                    visited.set(neighbour);
+                                    pending.push(neighbour);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+            components.add(describe(componentCells.toArray(), constraints.toArray(), frontier));
+        }
+        return components;
+    }
+
+    /**
+     * Constrói a chave canónica de um componente, com as células e restrições por ordem crescente.
+     */
+    private ComponentKey describe(int[] cells, int[] constraintList, BitBoard frontier) {
+        Arrays.sort(cells);
+        Arrays.sort(constraintList);
+        int[][] constraintCells = new int[constraintList.length][];
+        int[] values = new int[constraintList.length];
+        IntStack members = new IntStack(8);
+        for (int k = 0; k < constraintList.length; k++) {
+            int row = constraintList[k] / numCols;
+            int col = constraintList[k] % numCols;
+            int value = board.getAdjacentMines(constraintList[k]);
+            members.clear();
+            for (int i = Math.max(0, row - 1); i <= Math.min(numRows - 1, row + 1); i++) {
+                for (int j = Math.max(0, col - 1); j <= Math.min(numCols - 1, col + 1); j++) {
+                    int neighbour = i * numCols + j;
+                    if (solver.isKnownMine(neighbour))
+                        value--;
+                    else if (frontier.get(neighbour))
+                        members.push(Arrays.binarySearch(cells, neighbour));
+                }
+            }
+            constraintCells[k] = members.toArray();
+            values[k] = value;
+        }
+        return new ComponentKey(cells, constraintCells, values);
+    }
+
+    /**
+     * Enumera por retrocesso todas as configurações válidas de um componente. As células com exatamente as
+     * mesmas restrições formam um grupo e são decididas juntas: escolhe-se quantas minas o grupo tem e contam-se
+     * as C(tamanho, minas) formas de as colocar. Se a procura exceder {@value #MAX_ENUMERATION_STEPS} passos,
+     * desiste e o componente fica com a densidade média, como os que excedem {@value #MAX_COMPONENT_CELLS} células.
+     */
+    private static ComponentResult enumerate(ComponentKey key) {
+        int n = key.cells.length;
+        if (n > MAX_COMPONENT_CELLS)
+            return approximate(n);
+
+        // Restrições de cada célula, por ordem crescente
+        int[][] cellConstraints = new int[n][];
+        int[] counts = new int[n];
+        for (int[] members : key.constraintCells) {
+            for (int member : members) {
+                counts[member]++;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            cellConstraints[i] = new int[counts[i]];
+            counts[i] = 0;
+        }
+        for (int k = 0; k < key.constraintCells.length; k++) {
+            for (int member : key.constraintCells[k]) {
+                cellConstraints[member][counts[member]++] = k;
+            }
+        }
+
+        // Agrupa as células com as mesmas restrições; a ordem das restrições mantém os grupos vizinhos seguidos
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Arrays.compare(cellConstraints[a], cellConstraints[b]));
+        int[] groupOf = new int[n];
+        int groupCount = 0;
+        for (int i = 0; i < n; i++) {
+            if (i > 0 && !Arrays.equals(cellConstraints[order[i]], cellConstraints[order[i - 1]]))
+                groupCount++;
+            groupOf[order[i]] = groupCount;
+        }
+        groupCount++;
+        int[] groupSize = new int[groupCount];
+        int[][] groupConstraints = new int[groupCount][];
+        for (int i = 0; i < n; i++) {
+            groupSize[groupOf[i]]++;
+            groupConstraints[groupOf[i]] = cellConstraints[i];
+        }
+
+        Enumeration enumeration = new Enumeration(key, groupSize, groupConstraints, n);
+        enumeration.backtrack(0, 0, 1);
+        if (enumeration.steps > MAX_ENUMERATION_STEPS)
+            return approximate(n);
+
+        // Num grupo com m minas em s células, cada célula tem mina em m/s das formas
+        double[][] mineWays = new double[n + 1][n];
+        for (int k = 0; k <= n; k++) {
+            for (int i = 0; i < n; i++) {
+                mineWays[k][i] = enumeration.groupMineWays[k][groupOf[i]] / groupSize[groupOf[i]];
+            }
+        }
+        return new ComponentResult(enumeration.ways, mineWays, true);
+    }
+
+    /**
+     * Resultado de um componente que não foi enumerado: não conta minas na convolução, porque as suas células
+     * são contadas com as células sem restrições e ficam com a densidade das minas que sobram.
+     */
+    private static ComponentResult approximate(int n) {
+        return new ComponentResult(new double[]{1}, new double[][]{new double[n]}, false);
+    }
+
+    /**
+     * Estado da procura por retrocesso sobre os grupos de células de um componente.
+     */
+    private static final class Enumeration {
+        final int[] values;
+        final int[] groupSize;
+        final int[][] groupConstraints;
+        final double[][] binomials; // binomials[g][m] = C(groupSize[g], m)
+        final int[] assigned; // Minas já atribuídas em cada restrição
+        final int[] unassigned; // Células ainda por atribuir em cada restrição
+        final int[] groupMines;
+        final double[] ways;
+        final double[][] groupMineWays; // Formas com k minas, pesadas pelas minas de cada grupo
+        long steps;
+
+        Enumeration(ComponentKey key, int[] groupSize, int[][] groupConstraints, int n) {
+            this.values = key.values;
+            this.groupSize = groupSize;
+            this.groupConstraints = groupConstraints;
+            this.assigned = new int[values.length];
+            this.unassigned = new int[values.length];
+            for (int k = 0; k < values.length; k++) {
+                unassigned[k] = key.constraintCells[k].length;
+            }
+            this.groupMines = new int[groupSize.length];
+            this.ways = new double[n + 1];
+            this.groupMineWays = new double[n + 1][groupSize.length];
+            this.binomials = new double[groupSize.length][];
+            for (int g = 0; g < groupSize.length; g++) {
+                binomials[g] = new double[groupSize[g] + 1];
+                binomials[g][0] = 1;
+                for (int m = 1; m <= groupSize[g]; m++) {
+                    binomials[g][m] = binomials[g][m - 1] * (groupSize[g] - m + 1) / m;
+                }
+            }
+        }
+
+        /**
+         * Atribui minas ao grupo {@code group} e aos seguintes; {@code weight} é o número de formas de colocar
+         * as minas já atribuídas. Para assim que o número de passos excede o limite.
+         */
+        void backtrack(int group, int mines, double weight) {
+            if (++steps > MAX_ENUMERATION_STEPS)
+                return;
+            if (group == groupSize.length) {
+                ways[mines] += weight;
+                for (int g = 0; g < groupMines.length; g++) {
+                    groupMineWays[mines][g] += weight * groupMines[g];
+                }
+                return;
+            }
+            int size = groupSize[group];
+            for (int value = 0; value <= size; value++) {
+                boolean valid = true;
+                for (int k : groupConstraints[group]) {
+                    assigned[k] += value;
+                    unassigned[k] -= size;
+                    if (assigned[k] > values[k] || assigned[k] + unassigned[k] < values[k])
+                        valid = false;
+                }
+                if (valid) {
+                    groupMines[group] = value;
+                    backtrack(group + 1, mines + value, weight * binomials[group][value]);
+                    groupMines[group] = 0;
+                }
+                for (int k : groupConstraints[group]) {
+                    assigned[k] -= value;
+                    unassigned[k] += size;
+                }
+                if (steps > MAX_ENUMERATION_STEPS)
+                    return;
+            }
+        }
+    }
+
+    private boolean hasUncoveredNeighbour(int row, int col) {
+        for (int i = Math.max(0, row - 1); i <= Math.min(numRows - 1, row + 1); i++) {
+            for (int j = Math.max(0, col - 1); j <= Math.min(numCols - 1, col + 1); j++) {
+                if (board.isUncovered(i, j))
+                    return true;
+            }
+        }
+        return false;
+    }
+}
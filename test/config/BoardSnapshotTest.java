@@ -0,0 +1,72 @@
+package config;
+
+import Enums.Difficulty;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BoardSnapshotTest {
+
+    /**
+     * Joga algumas jogadas ao acaso: abre células seguras e coloca bandeiras.
+     */
+    private static GameBoard playedBoard(GameConfiguration settings, long seed, int moves) {
+        GameBoard board = new GameBoard(settings, seed, true);
+        Random random = new Random(seed);
+        for (int i = 0; i < moves; i++) {
+            int row = random.nextInt(settings.rows());
+            int col = random.nextInt(settings.cols());
+            if (random.nextInt(4) == 0)
+                board.toggleFlag(row, col);
+            else if (!board.isMine(row, col))
+                board.revealCell(row, col);
+        }
+        return board;
+    }
+
+    private static BoardSnapshot roundTrip(BoardSnapshot snapshot) {
+        ByteBuffer buffer = ByteBuffer.allocate(snapshot.serializedSize() + 8);
+        buffer.putInt(0x12345678); // O registo não começa no início do buffer
+        snapshot.writeTo(buffer);
+        buffer.putInt(0x9ABCDEF0);
+        assertEquals(buffer.capacity(), buffer.position(), "serializedSize não coincide com o escrito");
+
+        buffer.flip();
+        buffer.getInt();
+        BoardSnapshot read = BoardSnapshot.readFrom(buffer);
+        assertEquals(0x9ABCDEF0, buffer.getInt(), "a leitura não parou no fim da fotografia");
+        return read;
+    }
+
+    @Test
+    void readSnapshotRendersLikeTheBoard() {
+        for (long seed = 0; seed < 200; seed++) {
+            GameBoard board = playedBoard(new GameConfiguration(5 + (int) (seed % 20), 5 + (int) (seed % 31), 10), seed, 40);
+            BoardSnapshot snapshot = BoardSnapshot.capture(board);
+            assertEquals(snapshot.render(), roundTrip(snapshot).render(), "semente " + seed);
+        }
+    }
+
+    @Test
+    void longRunsSurviveTheRoundTrip() {
+        // Quase tudo tapado: sequências muito maiores do que as que cabem num byte
+        GameBoard board = playedBoard(new GameConfiguration(300, 400, 100), 7, 3);
+        BoardSnapshot snapshot = BoardSnapshot.capture(board);
+        assertEquals(snapshot.render(), roundTrip(snapshot).render());
+    }
+
+    @Test
+    void lostBoardKeepsTheMinesAndTheExplodedCell() {
+        GameBoard board = playedBoard(Difficulty.Guru.getSettings(), 3, 20);
+        int mine = 0;
+        while (!board.isMine(mine)) {
+            mine++;
+        }
+        board.revealAllMines(mine / board.getCols(), mine % board.getCols());
+        BoardSnapshot snapshot = BoardSnapshot.capture(board);
+        assertEquals(snapshot.render(), roundTrip(snapshot).render());
+    }
+}
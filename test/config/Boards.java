@@ -0,0 +1,37 @@
+package config;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Tabuleiros montados à mão para os testes de outros pacotes.
+ */
+public final class Boards {
+    private Boards() {
+    }
+
+    /**
+     * Constrói um tabuleiro com as minas e as células reveladas indicadas, como se tivesse sido guardado.
+     *
+     * @param rows Número de linhas.
+     * @param cols Número de colunas.
+     * @param mines Índices das células com mina.
+     * @param uncovered Índices das células reveladas.
+     * @return Tabuleiro em jogo.
+     */
+    public static GameBoard withCells(int rows, int cols, int[] mines, int[] uncovered) {
+        BitBoard mineSet = new BitBoard(rows * cols);
+        BitBoard uncoveredSet = new BitBoard(rows * cols);
+        for (int cell : mines) {
+            mineSet.set(cell);
+        }
+        for (int cell : uncovered) {
+            uncoveredSet.set(cell);
+        }
+        ByteBuffer cells = ByteBuffer.allocate(3 * mineSet.serializedSize());
+        mineSet.writeTo(cells);
+        uncoveredSet.writeTo(cells);
+        new BitBoard(rows * cols).writeTo(cells);
+        cells.flip();
+        return GameBoard.restore(new GameConfiguration(rows, cols, mines.length), 0, false, -1, 0, true, false, 0, cells);
+    }
+}
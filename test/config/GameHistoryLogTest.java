@@ -0,0 +1,153 @@
+package config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class GameHistoryLogTest {
+    @TempDir
+    Path directory;
+
+    private List<Game> appendGames(GameHistoryLog log, int first, int count) throws IOException {
+        List<Game> games = new ArrayList<>();
+        for (int i = first; i < first + count; i++) {
+            Game game = Games.played(i);
+            log.append(game);
+            games.add(game);
+        }
+        return games;
+    }
+
+    @Test
+    void gamesReadAfterReopeningAreTheOnesWritten() throws IOException {
+        Path base = directory.resolve("historico");
+        List<Game> games;
+        try (GameHistoryLog log = GameHistoryLog.open(base)) {
+            games = appendGames(log, 0, 40);
+        }
+
+        try (GameHistoryLog log = GameHistoryLog.open(base)) {
+            assertNull(log.getUpgradeNotice());
+            assertEquals(40, log.size());
+            List<Game> read = log.readLast(100);
+            assertEquals(40, read.size());
+            for (int i = 0; i < 40; i++) {
+                Games.assertSame(games.get(i), read.get(i));
+            }
+
+            List<Game> last = log.readLast(3);
+            for (int i = 0; i < 3; i++) {
+                Games.assertSame(games.get(37 + i), last.get(i));
+            }
+
+            List<Game> tail = new ArrayList<>();
+            log.forEach(35, tail::add);
+            assertEquals(5, tail.size());
+            Games.assertSame(games.get(35), tail.get(0));
+
+            List<Game> ofPlayer = log.readLastOfPlayer("jogador 2", 4);
+            assertEquals(List.of(22L, 27L, 32L, 37L), ofPlayer.stream().map(game -> game.getSeed() - 1000).toList());
+        }
+    }
+
+    @Test
+    void gamesSurviveAProcessThatNeverClosesTheLog() throws IOException {
+        Path base = directory.resolve("historico");
+        GameHistoryLog crashed = GameHistoryLog.open(base);
+        try {
+            List<Game> games = appendGames(crashed, 0, 21); // Mais do que um lote de sincronização
+            try (GameHistoryLog log = GameHistoryLog.open(base)) {
+                assertEquals(21, log.size());
+                Games.assertSame(games.get(20), log.readLast(1).get(0));
+            }
+        } finally {
+            crashed.close();
+        }
+    }
+
+    @Test
+    void cutIndexEntryIsDroppedAndAppendingContinues() throws IOException {
+        Path base = directory.resolve("historico");
+        List<Game> games;
+        try (GameHistoryLog log = GameHistoryLog.open(base)) {
+            games = appendGames(log, 0, 10);
+        }
+        truncate(directory.resolve("historico.idx"), 10);
+
+        try (GameHistoryLog log = GameHistoryLog.open(base)) {
+            assertEquals(9, log.size());
+            Games.assertSame(games.get(8), log.readLast(1).get(0));
+            games = appendGames(log, 10, 2);
+        }
+        try (GameHistoryLog log = GameHistoryLog.open(base)) {
+            assertEquals(11, log.size());
+            List<Game> last = log.readLast(2);
+            Games.assertSame(games.get(0), last.get(0));
+            Games.assertSame(games.get(1), last.get(1));
+        }
+    }
+
+    @Test
+    void entryPointingPastTheDataIsDropped() throws IOException {
+        Path base = directory.resolve("historico");
+        List<Game> games;
+        try (GameHistoryLog log = GameHistoryLog.open(base)) {
+            games = appendGames(log, 0, 10);
+        }
+        truncate(directory.resolve("historico.dat"), 3); // O último registo não chegou inteiro ao disco
+
+        try (GameHistoryLog log = GameHistoryLog.open(base)) {
+            assertEquals(9, log.size());
+            Games.assertSame(games.get(8), log.readLast(1).get(0));
+            Game next = Games.played(10);
+            log.append(next);
+            Games.assertSame(next, log.readLast(1).get(0));
+        }
+    }
+
+    @Test
+    void playerChainsContinueAfterReopeningALongHistory() throws IOException {
+        Path base = directory.resolve("historico");
+        Game sample = Games.played(1);
+        try (GameHistoryLog log = GameHistoryLog.open(base)) {
+            for (int i = 0; i < 5000; i++) { // Mais do que um bloco de leitura do índice
+                String nickname = i == 10 ? "raro" : "jogador " + i % 7;
+                log.append(new Game(sample.getGameStatus(), nickname, sample.getBoard(), sample.getSettings(), i,
+                        sample.getDurationMillis(), null));
+            }
+        }
+
+        try (GameHistoryLog log = GameHistoryLog.open(base)) {
+            assertEquals(List.of(4992L, 4999L), seeds(log.readLastOfPlayer("jogador 1", 2)));
+            log.append(Games.played(20000)); // "jogador 0"
+            Game rare = Games.played(20001);
+            log.append(new Game(rare.getGameStatus(), "raro", rare.getBoard(), rare.getSettings(), 6000,
+                    rare.getDurationMillis(), rare.getRecording()));
+            assertEquals(List.of(10L, 6000L), seeds(log.readLastOfPlayer("raro", 5)));
+            assertEquals(List.of(), seeds(log.readLastOfPlayer("ninguém", 5)));
+        }
+        try (GameHistoryLog log = GameHistoryLog.open(base)) {
+            assertEquals(List.of(10L, 6000L), seeds(log.readLastOfPlayer("raro", 5)));
+            assertEquals(List.of(4991L, 4998L, 21000L), seeds(log.readLastOfPlayer("jogador 0", 3)));
+        }
+    }
+
+    private static List<Long> seeds(List<Game> games) {
+        return games.stream().map(Game::getSeed).toList();
+    }
+
+    private static void truncate(Path file, int bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - bytes);
+        }
+    }
+}
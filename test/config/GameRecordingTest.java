@@ -0,0 +1,200 @@
+package config;
+
+import Enums.Difficulty;
+import Enums.GameStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameRecordingTest {
+    @TempDir
+    Path directory;
+
+    /**
+     * Joga ao acaso, como o {@link GameManager}: aberturas (quase sempre em células seguras), bandeiras,
+     * dicas aleatórias, também antes da primeira célula aberta, e o modo de batota.
+     */
+    private static GameRecording playRandomly(GameBoard board, long seed, int moves) {
+        GameRecording recording = GameRecording.start(board);
+        Random random = new Random(seed);
+        int cells = board.getRows() * board.getCols();
+        GameStatus status = GameStatus.PLAYING;
+        for (int move = 0; move < moves && status == GameStatus.PLAYING; move++) {
+            int kind = random.nextInt(20);
+            byte type;
+            int cell = -1;
+            if (kind < 10) {
+                type = GameRecording.OPEN;
+                cell = random.nextInt(cells);
+                if (board.isMine(cell) && random.nextInt(20) > 0)
+                    continue;
+            } else if (kind < 16) {
+                type = GameRecording.FLAG;
+                cell = random.nextInt(cells);
+            } else if (kind < 19) {
+                type = GameRecording.RANDOM_HINT;
+            } else {
+                type = GameRecording.CHEAT;
+            }
+            recording.record(type, cell);
+            status = GameReplay.apply(board, type, cell);
+        }
+        return recording;
+    }
+
+    private static String render(GameBoard board) {
+        return BoardSnapshot.capture(board).render();
+    }
+
+    @Test
+    void readRecordingIsTheOneWritten() {
+        for (int number = 0; number < 50; number++) {
+            GameBoard board = new GameBoard(new GameConfiguration(6 + number % 9, 8 + number % 13, 7), number, number % 2 == 0);
+            GameRecording recording = playRandomly(board, number, 60);
+            if (number % 5 == 0)
+                recording.markLegacyHints();
+
+            ByteBuffer buffer = ByteBuffer.allocate(recording.serializedSize() + 4);
+            recording.writeTo(buffer);
+            buffer.putInt(0x7E57);
+            assertEquals(buffer.capacity(), buffer.position(), "serializedSize não coincide com o escrito");
+            buffer.flip();
+            Games.assertSame(recording, GameRecording.readFrom(buffer));
+            assertEquals(0x7E57, buffer.getInt());
+        }
+    }
+
+    @Test
+    void replayEndsOnTheRecordedBoard() {
+        for (int number = 0; number < 200; number++) {
+            GameConfiguration settings = Difficulty.valueOfInt(1 + number % 3).getSettings();
+            GameBoard board = number % 4 == 3
+                    ? new GameBoard(settings, number, settings.rows() / 2, settings.cols() / 2)
+                    : new GameBoard(settings, number, number % 4 != 0);
+            GameRecording recording = playRandomly(board, number, 80);
+
+            GameReplay replay = new GameReplay(recording);
+            replay.seek(recording.size());
+            assertEquals(render(board), render(replay.getBoard()), "jogo " + number);
+            assertEquals(board.getStats(), replay.getBoard().getStats(), "jogo " + number);
+        }
+    }
+
+    @Test
+    void seekingBackAndForthMatchesStepping() {
+        GameBoard board = new GameBoard(new GameConfiguration(60, 60, 300), 42, true);
+        GameRecording recording = playRandomly(board, 42, 3000);
+        assertTrue(recording.size() > 512, "a gravação tem de passar várias cópias do tabuleiro");
+
+        GameReplay replay = new GameReplay(recording);
+        Random random = new Random(42);
+        for (int i = 0; i < 30; i++) {
+            int move = random.nextInt(recording.size() + 1);
+            GameReplay stepped = new GameReplay(recording);
+            while (stepped.getPosition() < move) {
+                stepped.step();
+            }
+            assertEquals(render(stepped.getBoard()), render(replay.seek(move)), "jogada " + move);
+            assertEquals(stepped.getStatus(), replay.getStatus(), "jogada " + move);
+        }
+    }
+
+    @Test
+    void legacyRecordingReplaysWithTheOldHints() {
+        for (int number = 0; number < 50; number++) {
+            GameBoard board = new GameBoard(Difficulty.Guru.getSettings(), number, true);
+            board.useLegacyHints();
+            GameRecording recording = GameRecording.start(board);
+            recording.record(GameRecording.RANDOM_HINT, board.getRandomSafeCell()); // Coloca as minas
+            int cell = 0;
+            while (board.isMine(cell)) {
+                cell++;
+            }
+            recording.record(GameRecording.OPEN, cell);
+            board.revealCell(cell);
+            recording.markLegacyHints();
+
+            GameReplay replay = new GameReplay(recording);
+            replay.seek(recording.size());
+            assertEquals(render(board), render(replay.getBoard()), "jogo " + number);
+        }
+    }
+
+    @Test
+    void version3HistoryIsConvertedAndStillReplays() throws IOException {
+        List<Game> games = new ArrayList<>();
+        List<GameBoard> boards = new ArrayList<>();
+        for (int number = 0; number < 30; number++) {
+            GameBoard board = new GameBoard(Difficulty.Pro.getSettings(), number, true);
+            board.useLegacyHints(); // Como no tempo da versão 3; a gravação não sabia que era antiga
+            GameRecording recording = playRandomly(board, number, 40);
+            boards.add(board);
+            games.add(new Game(GameStatus.LOST, "antigo " + number, BoardSnapshot.capture(board), board.getSettings(),
+                    board.getSeed(), number, recording));
+        }
+        writeVersion3(directory.resolve("historico"), games);
+
+        try (GameHistoryLog log = GameHistoryLog.open(directory.resolve("historico"))) {
+            assertNotNull(log.getUpgradeNotice());
+            List<Game> read = log.readLast(100);
+            assertEquals(games.size(), read.size());
+            for (int i = 0; i < games.size(); i++) {
+                GameRecording recording = read.get(i).getRecording();
+                assertTrue(recording.hasLegacyHints(), "jogo " + i);
+                GameReplay replay = new GameReplay(recording);
+                replay.seek(recording.size());
+                assertEquals(render(boards.get(i)), render(replay.getBoard()), "jogo " + i);
+                assertEquals(games.get(i).getBoard().render(), read.get(i).getBoard().render(), "jogo " + i);
+            }
+        }
+        assertTrue(Files.exists(directory.resolve("historico.dat.v3")));
+        assertTrue(Files.exists(directory.resolve("historico.idx.v3")));
+    }
+
+    /**
+     * Escreve um histórico no formato da versão 3: registos sem byte de opções e sempre com gravação.
+     */
+    private static void writeVersion3(Path base, List<Game> games) throws IOException {
+        ByteBuffer data = ByteBuffer.allocate(1 << 20);
+        ByteBuffer index = ByteBuffer.allocate(8 + 24 * games.size());
+        data.putInt(0x4D534844).putInt(3);
+        index.putInt(0x4D534849).putInt(3);
+        for (Game game : games) {
+            byte[] nickname = game.getNickname().getBytes(StandardCharsets.UTF_8);
+            int length = 4 + 1 + 1 + 2 + nickname.length + 12 + 16 + game.getBoard().serializedSize()
+                    + game.getRecording().serializedSize();
+            index.putLong(data.position()).putInt(length).putInt(game.getNickname().hashCode()).putLong(-1);
+            GameConfiguration settings = game.getSettings();
+            data.putInt(length).put((byte) game.getGameStatus().ordinal()).put((byte) 0)
+                    .putShort((short) nickname.length).put(nickname)
+                    .putInt(settings.rows()).putInt(settings.cols()).putInt(settings.mines())
+                    .putLong(game.getSeed()).putLong(game.getDurationMillis());
+            game.getBoard().writeTo(data);
+            game.getRecording().writeTo(data);
+        }
+        write(base.resolveSibling(base.getFileName() + ".dat"), data.flip());
+        write(base.resolveSibling(base.getFileName() + ".idx"), index.flip());
+    }
+
+    private static void write(Path file, ByteBuffer buffer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+}
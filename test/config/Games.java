@@ -0,0 +1,67 @@
+package config;
+
+import Enums.Difficulty;
+import Enums.GameStatus;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Jogos de exemplo e comparações partilhados pelos testes dos formatos em disco.
+ */
+final class Games {
+
+    private Games() {
+    }
+
+    /**
+     * Cria um jogo terminado com algumas jogadas gravadas, aplicadas com as regras do {@link GameReplay}.
+     * Um em cada três não tem gravação e um em cada quatro tem uma configuração personalizada.
+     *
+     * @param number Número do jogo; também escolhe a semente, a alcunha e as jogadas.
+     * @return Jogo terminado.
+     */
+    static Game played(int number) {
+        GameConfiguration settings = number % 4 == 3 ? new GameConfiguration(7, 11, 9)
+                : Difficulty.valueOfInt(1 + number % 3).getSettings();
+        GameBoard board = new GameBoard(settings, 1000 + number, true);
+        GameRecording recording = GameRecording.start(board);
+        Random random = new Random(number);
+        GameStatus status = GameStatus.PLAYING;
+        for (int move = 0; move < 12 && status == GameStatus.PLAYING; move++) {
+            int cell = random.nextInt(settings.rows() * settings.cols());
+            byte type = random.nextInt(4) == 0 ? GameRecording.FLAG : GameRecording.OPEN;
+            recording.record(type, cell);
+            status = GameReplay.apply(board, type, cell);
+        }
+        return new Game(status == GameStatus.PLAYING ? GameStatus.LOST : status, "jogador " + number % 5,
+                BoardSnapshot.capture(board), settings, board.getSeed(), 1000L * number, number % 3 == 2 ? null : recording);
+    }
+
+    static void assertSame(Game expected, Game actual) {
+        assertEquals(expected.getGameStatus(), actual.getGameStatus());
+        assertEquals(expected.getNickname(), actual.getNickname());
+        assertEquals(expected.getSettings(), actual.getSettings());
+        assertEquals(expected.getSeed(), actual.getSeed());
+        assertEquals(expected.getDurationMillis(), actual.getDurationMillis());
+        assertEquals(expected.getBoard().render(), actual.getBoard().render());
+        if (expected.getRecording() == null)
+            assertNull(actual.getRecording());
+        else
+            assertSame(expected.getRecording(), actual.getRecording());
+    }
+
+    static void assertSame(GameRecording expected, GameRecording actual) {
+        assertEquals(expected.getSettings(), actual.getSettings());
+        assertEquals(expected.getSeed(), actual.getSeed());
+        assertEquals(expected.hasLegacyHints(), actual.hasLegacyHints());
+        assertEquals(expected.size(), actual.size());
+        for (int move = 0; move < expected.size(); move++) {
+            assertEquals(expected.getType(move), actual.getType(move), "tipo da jogada " + move);
+            assertEquals(expected.getCell(move), actual.getCell(move), "célula da jogada " + move);
+            assertEquals(expected.getTime(move), actual.getTime(move), "instante da jogada " + move);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MappedGameBoardTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void reopenedBoardIsTheOneCreated() throws IOException {
+        Path file = directory.resolve("tabuleiro.bin");
+        try (MappedGameBoard board = MappedGameBoard.create(file, new GameConfiguration(20, 30, 60), 7)) {
+            board.revealCell(3, 4);
+        }
+        try (MappedGameBoard board = MappedGameBoard.open(file)) {
+            assertEquals(20, board.getRows());
+            assertEquals(30, board.getCols());
+            assertEquals(7, board.getSeed());
+        }
+    }
+
+    @Test
+    void emptyOrCutFilesAreRejected() throws IOException {
+        Path file = directory.resolve("tabuleiro.bin");
+        MappedGameBoard.create(file, new GameConfiguration(20, 30, 60), 7).close();
+        byte[] bytes = Files.readAllBytes(file);
+
+        for (int length : new int[]{0, 10, 64, bytes.length - 1}) {
+            Files.write(file, Arrays.copyOf(bytes, length));
+            assertThrows(IOException.class, () -> MappedGameBoard.open(file), length + " bytes");
+        }
+        Files.write(file, new byte[bytes.length]);
+        assertThrows(IOException.class, () -> MappedGameBoard.open(file));
+    }
+}
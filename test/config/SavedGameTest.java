@@ -0,0 +1,133 @@
+package config;
+
+import Enums.Difficulty;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SavedGameTest {
+    @TempDir
+    Path directory;
+
+    /**
+     * Joga ao acaso no tabuleiro e grava as jogadas, com as regras do {@link GameReplay}.
+     */
+    private static void play(GameBoard board, GameRecording recording, Random random, int moves) {
+        int cells = board.getRows() * board.getCols();
+        for (int move = 0; move < moves; move++) {
+            int cell = random.nextInt(cells);
+            byte type = switch (random.nextInt(8)) {
+                case 0, 1, 2 -> GameRecording.FLAG;
+                case 3 -> GameRecording.RANDOM_HINT;
+                default -> GameRecording.OPEN;
+            };
+            if (type == GameRecording.OPEN && board.isMine(cell))
+                continue; // O jogo continua, para poder ser guardado
+            recording.record(type, type == GameRecording.RANDOM_HINT ? -1 : cell);
+            GameReplay.apply(board, type, type == GameRecording.RANDOM_HINT ? -1 : cell);
+        }
+    }
+
+    private static String render(GameBoard board) {
+        return BoardSnapshot.capture(board).render();
+    }
+
+    private static void assertSameBoard(GameBoard expected, GameBoard actual, String what) {
+        assertEquals(render(expected), render(actual), what);
+        assertEquals(expected.getStats(), actual.getStats(), what);
+        assertEquals(expected.toString().replaceAll("Tempo.*", ""), actual.toString().replaceAll("Tempo.*", ""), what);
+        for (int cell = 0; cell < expected.getRows() * expected.getCols(); cell++) {
+            assertEquals(expected.isMine(cell), actual.isMine(cell), what + ", célula " + cell);
+        }
+    }
+
+    @Test
+    void restoredGameIsTheOneSavedAndContinuesTheSameWay() throws IOException {
+        Path file = directory.resolve("jogo.sav");
+        for (int number = 0; number < 60; number++) {
+            GameConfiguration settings = new GameConfiguration(5 + number % 30, 5 + number % 37, 3 + number % 15);
+            GameBoard board = switch (number % 3) {
+                case 0 -> new GameBoard(settings, number, true);
+                case 1 -> new GameBoard(settings, number, false);
+                default -> new GameBoard(settings, number, settings.rows() / 2, settings.cols() / 2);
+            };
+            GameRecording recording = GameRecording.start(board);
+            Random random = new Random(number);
+            play(board, recording, random, number % 7 == 0 ? 0 : 25); // Alguns sem minas colocadas
+            board.centerViewport(random.nextInt(settings.rows()), random.nextInt(settings.cols()));
+
+            SavedGame.write(file, "jogador " + number, board, recording);
+            SavedGame saved = SavedGame.read(file);
+            Files.delete(file); // O ficheiro já não está aberto nem mapeado
+            assertEquals("jogador " + number, saved.getNickname());
+            assertEquals(settings, saved.getSettings());
+            Games.assertSame(recording, saved.getRecording());
+            GameBoard restored = saved.restoreBoard();
+            assertSameBoard(board, restored, "jogo " + number);
+
+            // As dicas e as jogadas seguintes dão o mesmo resultado nos dois tabuleiros
+            GameRecording continued = saved.getRecording();
+            play(board, recording, new Random(-number), 25);
+            play(restored, continued, new Random(-number), 25);
+            assertSameBoard(board, restored, "jogo " + number + " continuado");
+
+            GameReplay replay = new GameReplay(continued);
+            replay.seek(continued.size());
+            assertEquals(render(restored), render(replay.getBoard()), "reprodução do jogo " + number);
+        }
+    }
+
+    @Test
+    void version1SaveIsReadWithTheOldHints() throws IOException {
+        Path file = directory.resolve("jogo.sav");
+        GameBoard board = new GameBoard(Difficulty.Guru.getSettings(), 5, true);
+        board.useLegacyHints();
+        GameRecording recording = GameRecording.start(board);
+        SavedGame.write(file, "antigo", board, recording); // Ainda sem minas: a próxima dica decide onde ficam
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, 1), 4); // Versão 1, com o mesmo formato
+        }
+
+        SavedGame saved = SavedGame.read(file);
+        assertTrue(saved.getRecording().hasLegacyHints());
+        GameBoard restored = saved.restoreBoard();
+        assertEquals(board.getRandomSafeCell(), restored.getRandomSafeCell());
+        assertSameBoard(board, restored, "depois da dica");
+    }
+
+    @Test
+    void currentSaveIsNotLegacy() throws IOException {
+        Path file = directory.resolve("jogo.sav");
+        GameBoard board = new GameBoard(Difficulty.Pro.getSettings(), 5, true);
+        SavedGame.write(file, "novo", board, GameRecording.start(board));
+        assertFalse(SavedGame.read(file).getRecording().hasLegacyHints());
+    }
+
+    @Test
+    void truncatedOrForeignFilesAreRejected() throws IOException {
+        Path file = directory.resolve("jogo.sav");
+        GameBoard board = new GameBoard(Difficulty.Pro.getSettings(), 9, false);
+        SavedGame.write(file, "cortado", board, GameRecording.start(board));
+        byte[] bytes = Files.readAllBytes(file);
+
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 8));
+        assertThrows(IOException.class, () -> SavedGame.read(file));
+        Files.write(file, Arrays.copyOf(bytes, 30));
+        assertThrows(IOException.class, () -> SavedGame.read(file));
+        Files.write(file, "não é um jogo guardado".getBytes());
+        assertThrows(IOException.class, () -> SavedGame.read(file));
+    }
+}
@@ -0,0 +1,80 @@
+package solver;
+
+import config.Boards;
+import config.GameBoard;
+import config.IntStack;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProbabilityEngineTest {
+
+    /**
+     * Monta um tabuleiro a partir de um desenho: '*' mina, '.' célula segura tapada, 'o' célula revelada.
+     */
+    private static GameBoard draw(String... rows) {
+        IntStack mines = new IntStack(64);
+        IntStack uncovered = new IntStack(64);
+        int cols = rows[0].length();
+        for (int row = 0; row < rows.length; row++) {
+            for (int col = 0; col < cols; col++) {
+                char symbol = rows[row].charAt(col);
+                if (symbol == '*')
+                    mines.push(row * cols + col);
+                else if (symbol == 'o')
+                    uncovered.push(row * cols + col);
+            }
+        }
+        return Boards.withCells(rows.length, cols, mines.toArray(), uncovered.toArray());
+    }
+
+    /**
+     * Linha do meio revelada e uma mina por coluna, em cima ou em baixo: as 80 células tapadas formam um só
+     * componente, maior do que o limite, e nenhuma pode ser deduzida.
+     */
+    private static final String[] CAPPED_ROW = {
+            "*.**.*..*.**.*..*.**.*..*.**.*..*.**.*..",
+            "oooooooooooooooooooooooooooooooooooooooo",
+            ".*..*.**.*..*.**.*..*.**.*..*.**.*..*.**"
+    };
+
+    private static ProbabilityEngine.Probabilities compute(GameBoard board) {
+        return new ProbabilityEngine(board, new ConstraintSolver(board, false)).compute();
+    }
+
+    @Test
+    void cellsOfATooLargeComponentShareTheLeftoverDensity() {
+        GameBoard board = draw(CAPPED_ROW);
+        ProbabilityEngine.Probabilities probabilities = compute(board);
+        assertFalse(probabilities.isExact());
+
+        // 40 minas nas 80 células tapadas, todas aproximadas
+        for (int row = 0; row < 3; row += 2) {
+            for (int col = 0; col < board.getCols(); col++) {
+                assertTrue(probabilities.isApproximated(row, col));
+                assertEquals(0.5, probabilities.get(row, col), 1e-6, "célula " + row + " " + col);
+            }
+        }
+        String cells = probabilities.toHeatmap().split("\n\n")[0]; // Sem a legenda
+        assertFalse(cells.contains("S") || cells.contains("M"), cells);
+    }
+
+    @Test
+    void safestCellPrefersEnumeratedCells() {
+        // À direita, separada por duas colunas reveladas, uma região pequena que é enumerada
+        GameBoard board = draw(
+                CAPPED_ROW[0] + "oo...",
+                CAPPED_ROW[1] + "oo.o.",
+                CAPPED_ROW[2] + "oo..*");
+        ProbabilityEngine.Probabilities probabilities = compute(board);
+        assertFalse(probabilities.isExact());
+        assertFalse(probabilities.isApproximated(0, 43));
+        assertTrue(probabilities.get(0, 43) > 0);
+
+        int safest = probabilities.safestCell();
+        assertFalse(probabilities.isApproximated(safest / board.getCols(), safest % board.getCols()));
+        assertFalse(board.isMine(safest));
+    }
+}